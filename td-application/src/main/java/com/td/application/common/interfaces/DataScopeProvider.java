@@ -0,0 +1,21 @@
+package com.td.application.common.interfaces;
+
+import com.td.application.common.models.DataScopeFilter;
+
+import java.util.UUID;
+
+/**
+ * Phạm vi dữ liệu của người dùng hiện tại, lấy từ ngữ cảnh đăng nhập phía server (không tin filter FE gửi lên).
+ */
+public interface DataScopeProvider {
+
+    /**
+     * Phạm vi dữ liệu trong phân hệ {@code module}; không có người dùng đăng nhập (job nội bộ) thì không giới hạn.
+     */
+    DataScopeFilter currentScope(String module);
+
+    /**
+     * Đơn vị đang hoạt động của người dùng hiện tại, dùng làm đơn vị sở hữu bản ghi mới.
+     */
+    UUID currentOrganizationId();
+}
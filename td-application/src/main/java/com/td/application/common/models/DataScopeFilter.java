@@ -0,0 +1,84 @@
+package com.td.application.common.models;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Phạm vi dữ liệu người dùng được xem trong một phân hệ: không giới hạn, hoặc các bản ghi thuộc tập đơn vị
+ * đã mở rộng sẵn (kể cả đơn vị con) cộng bản ghi do chính người dùng tạo.
+ *
+ * <p>Khi serialize (làm cache key) chỉ ghi ra {@link #getCacheKey()} để key không phình theo số đơn vị.</p>
+ */
+public final class DataScopeFilter implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final DataScopeFilter UNRESTRICTED = new DataScopeFilter(true, Set.of(), null);
+
+    private final boolean unrestricted;
+    private final Set<UUID> organizationIds;
+    private final UUID ownerId;
+    private final String cacheKey;
+
+    private DataScopeFilter(boolean unrestricted, Set<UUID> organizationIds, UUID ownerId) {
+        this.unrestricted = unrestricted;
+        this.organizationIds = organizationIds;
+        this.ownerId = ownerId;
+        this.cacheKey = unrestricted ? "all" : fingerprint(organizationIds, ownerId);
+    }
+
+    public static DataScopeFilter unrestricted() {
+        return UNRESTRICTED;
+    }
+
+    public static DataScopeFilter restrictedTo(Set<UUID> organizationIds, UUID ownerId) {
+        return new DataScopeFilter(false, organizationIds == null ? Set.of() : Set.copyOf(organizationIds), ownerId);
+    }
+
+    public boolean isUnrestricted() {
+        return unrestricted;
+    }
+
+    public Set<UUID> getOrganizationIds() {
+        return organizationIds;
+    }
+
+    public UUID getOwnerId() {
+        return ownerId;
+    }
+
+    /**
+     * Giới hạn nhưng không có đơn vị nào và không xét người tạo: không bản ghi nào khớp.
+     */
+    public boolean matchesNothing() {
+        return !unrestricted && organizationIds.isEmpty() && ownerId == null;
+    }
+
+    @JsonValue
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    private static String fingerprint(Set<UUID> organizationIds, UUID ownerId) {
+        StringBuilder value = new StringBuilder("owner=").append(ownerId).append(";orgs=");
+        for (UUID organizationId : new TreeSet<>(organizationIds)) {
+            value.append(organizationId).append(',');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return "scope:" + HexFormat.of().formatHex(digest.digest(value.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            return "scope:" + value.toString().hashCode();
+        }
+    }
+}
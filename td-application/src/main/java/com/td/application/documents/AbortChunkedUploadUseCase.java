@@ -0,0 +1,9 @@
+package com.td.application.documents;
+
+import com.td.application.common.cqrs.UseCase;
+import com.td.application.common.models.Result;
+
+import java.util.UUID;
+
+public interface AbortChunkedUploadUseCase extends UseCase<ChunkedUploadRequest, Result<UUID>> {
+}
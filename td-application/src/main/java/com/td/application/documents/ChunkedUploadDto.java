@@ -0,0 +1,51 @@
+package com.td.application.documents;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkedUploadDto {
+
+    /**
+     * Id phiên tải lên, cũng là file_id sau khi hoàn tất.
+     */
+    @JsonProperty("upload_id")
+    private UUID uploadId;
+
+    @JsonProperty("document_id")
+    private UUID documentId;
+
+    @JsonProperty("file_name")
+    private String fileName;
+
+    @JsonProperty("file_size")
+    private Long fileSize;
+
+    @JsonProperty("part_size")
+    private Long partSize;
+
+    @JsonProperty("total_parts")
+    private Integer totalParts;
+
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("expires_at")
+    private LocalDateTime expiresAt;
+
+    /**
+     * Các phần đã nhận, client chỉ cần gửi lại những phần còn thiếu.
+     */
+    @JsonProperty("uploaded_parts")
+    private List<ChunkedUploadPartDto> uploadedParts;
+}
@@ -0,0 +1,28 @@
+package com.td.application.documents;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkedUploadPartDto {
+
+    @JsonProperty("part_number")
+    private Integer partNumber;
+
+    @JsonProperty("size")
+    private Long size;
+
+    @JsonProperty("etag")
+    private String etag;
+
+    @JsonProperty("uploaded_at")
+    private LocalDateTime uploadedAt;
+}
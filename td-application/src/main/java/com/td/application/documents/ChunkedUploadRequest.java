@@ -0,0 +1,22 @@
+package com.td.application.documents;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Tham chiếu tới một phiên chunked upload (xem trạng thái, hoàn tất, hủy).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkedUploadRequest {
+
+    private UUID documentId;
+
+    private UUID uploadId;
+}
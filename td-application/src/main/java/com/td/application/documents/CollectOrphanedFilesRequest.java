@@ -0,0 +1,20 @@
+package com.td.application.documents;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectOrphanedFilesRequest {
+
+    /**
+     * Chỉ báo cáo object/bản ghi mồ côi, không xóa.
+     */
+    @JsonProperty("dry_run")
+    private boolean dryRun;
+}
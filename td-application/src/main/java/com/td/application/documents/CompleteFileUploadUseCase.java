@@ -0,0 +1,9 @@
+package com.td.application.documents;
+
+import com.td.application.common.cqrs.UseCase;
+import com.td.application.common.models.Result;
+
+import java.util.UUID;
+
+public interface CompleteFileUploadUseCase extends UseCase<CompleteFileUploadRequest, Result<UUID>> {
+}
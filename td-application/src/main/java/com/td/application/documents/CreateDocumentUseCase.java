@@ -1,5 +1,6 @@
 package com.td.application.documents;
 
+import com.td.application.common.interfaces.DataScopeProvider;
 import com.td.application.common.models.Result;
 import com.td.domain.documents.BusinessDocument;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +17,7 @@ public class CreateDocumentUseCase {
     private final DocumentRepository documentRepository;
     private final DocumentCacheService documentCacheService;
     private final DocumentSearchService documentSearchService;
+    private final DataScopeProvider dataScopeProvider;
 
     public Result<UUID> execute(CreateDocumentRequest request) {
         try {
@@ -28,6 +30,7 @@ public class CreateDocumentUseCase {
                 DocumentJsonMapper.toJsonObject(request.resolveCustomFieldsForPersistence()),
                 DocumentJsonMapper.toJsonObject(request.resolveMetadataForPersistence())
             );
+            document.assignOrganization(dataScopeProvider.currentOrganizationId());
 
             var saved = documentRepository.save(document);
             documentSearchService.index(saved);
@@ -0,0 +1,37 @@
+package com.td.application.documents;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateFileUploadUrlRequest {
+
+    @JsonProperty("document_id")
+    private UUID documentId;
+
+    @NotBlank(message = "File name không được để trống")
+    @JsonProperty("file_name")
+    private String fileName;
+
+    @JsonProperty("mime_type")
+    private String mimeType;
+
+    @NotNull(message = "File size không được để trống")
+    @PositiveOrZero(message = "File size không hợp lệ")
+    @JsonProperty("file_size")
+    private Long fileSize;
+
+    @JsonProperty("description")
+    private String description;
+}
@@ -25,6 +25,7 @@ public class DocumentCacheService {
 
     public static final String DOCUMENT_BY_ID_CACHE = "doc:";
     public static final String DOCUMENT_LIST_CACHE = "docs:";
+    public static final String DOCUMENT_FACETS_CACHE = "docs-facets:";
 
     private final CacheManager cacheManager;
     private final ObjectMapper cacheKeyObjectMapper = buildCacheKeyObjectMapper();
@@ -36,6 +37,9 @@ public class DocumentCacheService {
     private final LongAdder documentListMisses = new LongAdder();
     private final LongAdder documentListPuts = new LongAdder();
     private final LongAdder documentListEvictions = new LongAdder();
+    private final LongAdder documentFacetsHits = new LongAdder();
+    private final LongAdder documentFacetsMisses = new LongAdder();
+    private final LongAdder documentFacetsPuts = new LongAdder();
 
     public DocumentDto get(UUID documentId) {
         if (documentId == null) {
@@ -197,6 +201,65 @@ public class DocumentCacheService {
         } catch (Exception ex) {
             log.debug("Failed to clear document list cache: {}", ex.getMessage());
         }
+
+        evictAllFacetCaches();
+    }
+
+    public DocumentFacetsDto getFacets(SearchDocumentFacetsRequest request) {
+        if (request == null) {
+            return null;
+        }
+
+        Cache cache = resolveCache(DOCUMENT_FACETS_CACHE);
+        if (cache == null) {
+            return null;
+        }
+
+        try {
+            var cachedFacets = cache.get(buildFacetsKey(request), DocumentFacetsDto.class);
+            if (cachedFacets == null) {
+                documentFacetsMisses.increment();
+                return null;
+            }
+
+            documentFacetsHits.increment();
+            return cachedFacets;
+        } catch (Exception ex) {
+            documentFacetsMisses.increment();
+            log.debug("Failed to read document facets from Redis cache: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    public void putFacets(SearchDocumentFacetsRequest request, DocumentFacetsDto facets) {
+        if (request == null || facets == null) {
+            return;
+        }
+
+        Cache cache = resolveCache(DOCUMENT_FACETS_CACHE);
+        if (cache == null) {
+            return;
+        }
+
+        try {
+            cache.put(buildFacetsKey(request), facets);
+            documentFacetsPuts.increment();
+        } catch (Exception ex) {
+            log.debug("Failed to write document facets to Redis cache: {}", ex.getMessage());
+        }
+    }
+
+    private void evictAllFacetCaches() {
+        Cache cache = resolveCache(DOCUMENT_FACETS_CACHE);
+        if (cache == null) {
+            return;
+        }
+
+        try {
+            cache.clear();
+        } catch (Exception ex) {
+            log.debug("Failed to clear document facets cache: {}", ex.getMessage());
+        }
     }
 
     public DocumentCacheStatsDto getStats() {
@@ -209,6 +272,9 @@ public class DocumentCacheService {
             .documentListMisses(documentListMisses.sum())
             .documentListPuts(documentListPuts.sum())
             .documentListEvictions(documentListEvictions.sum())
+            .documentFacetsHits(documentFacetsHits.sum())
+            .documentFacetsMisses(documentFacetsMisses.sum())
+            .documentFacetsPuts(documentFacetsPuts.sum())
             .build();
     }
 
@@ -240,11 +306,15 @@ public class DocumentCacheService {
         return "search:" + sha256(serializeRequest(request));
     }
 
-    private String serializeRequest(SearchDocumentsRequest request) {
+    private String buildFacetsKey(SearchDocumentFacetsRequest request) {
+        return "facets:" + sha256(serializeRequest(request));
+    }
+
+    private String serializeRequest(Object request) {
         try {
             return cacheKeyObjectMapper.writeValueAsString(request);
         } catch (JsonProcessingException ex) {
-            log.debug("Failed to serialize SearchDocumentsRequest for cache key: {}", ex.getMessage());
+            log.debug("Failed to serialize {} for cache key: {}", request.getClass().getSimpleName(), ex.getMessage());
             return request.toString();
         }
     }
@@ -19,4 +19,7 @@ public class DocumentCacheStatsDto {
     private long documentListMisses;
     private long documentListPuts;
     private long documentListEvictions;
+    private long documentFacetsHits;
+    private long documentFacetsMisses;
+    private long documentFacetsPuts;
 }
\ No newline at end of file
@@ -28,6 +28,7 @@ public class DocumentDto {
     private LocalDateTime createdOn;
     private LocalDateTime lastModifiedOn;
     private boolean deleted;
+    private Map<String, List<String>> highlights;
 
     @JsonIgnore
     private Map<String, Object> extraFields = new LinkedHashMap<>();
@@ -0,0 +1,13 @@
+package com.td.application.documents;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentFacetBucketDto {
+    private String key;
+    private long count;
+}
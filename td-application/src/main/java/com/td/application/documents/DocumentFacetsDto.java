@@ -0,0 +1,23 @@
+package com.td.application.documents;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentFacetsDto {
+
+    private String backend;
+    private long totalDocuments;
+
+    @Builder.Default
+    private Map<String, List<DocumentFacetBucketDto>> facets = new LinkedHashMap<>();
+}
@@ -5,6 +5,10 @@ import com.td.domain.documents.BusinessDocument;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
 public interface DocumentRepository extends IRepository<BusinessDocument> {
 
     Page<BusinessDocument> search(SearchDocumentsRequest request, Pageable pageable);
@@ -12,4 +16,18 @@ public interface DocumentRepository extends IRepository<BusinessDocument> {
     Page<BusinessDocument> searchDeleted(SearchDocumentsRequest request, Pageable pageable);
 
     void hardDelete(BusinessDocument entity);
+
+    /**
+     * Keyset scan các document chưa xóa theo id tăng dần, chỉ lấy (id, versionNo).
+     *
+     * @param afterId id cuối của batch trước, null để bắt đầu từ đầu
+     */
+    List<DocumentVersionRef> findActiveVersionRefsAfter(UUID afterId, int limit);
+
+    List<BusinessDocument> findAllByIds(Collection<UUID> ids);
+
+    /**
+     * Đếm facet bằng GROUP BY trên các document chưa xóa khớp bộ lọc.
+     */
+    DocumentFacetsDto countFacets(SearchDocumentFacetsRequest request);
 }
@@ -0,0 +1,21 @@
+package com.td.application.documents;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class DocumentSearchReconcileReportDto {
+    private boolean running;
+    private UUID cursor;
+    private LocalDateTime lastRunStartedAt;
+    private LocalDateTime lastRunFinishedAt;
+    private LocalDateTime lastPassCompletedAt;
+    private long scanned;
+    private long reindexed;
+    private long deleted;
+    private String message;
+}
@@ -3,6 +3,7 @@ package com.td.application.documents;
 import com.td.application.common.models.PaginationResponse;
 import com.td.domain.documents.BusinessDocument;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface DocumentSearchService {
@@ -13,8 +14,24 @@ public interface DocumentSearchService {
 
     PaginationResponse<DocumentDto> search(SearchDocumentsRequest request);
 
+    /**
+     * Đếm facet (terms/date_histogram) trong một request, không trả về document.
+     */
+    DocumentFacetsDto facets(SearchDocumentFacetsRequest request);
+
+    /**
+     * Gợi ý tiêu đề theo tiền tố (completion suggester), lọc theo context documentType/status nếu có.
+     */
+    List<DocumentSuggestionDto> suggest(String prefix, String documentType, String status, int size);
+
     long reindexAll();
 
+    /**
+     * Đối soát (id, versionNo) giữa PostgreSQL và index: reindex bản ghi thiếu/cũ, xóa bản ghi mồ côi.
+     * Chạy theo batch, tiếp tục từ checkpoint của lần chạy trước.
+     */
+    DocumentSearchReconcileReportDto reconcile();
+
     DocumentSearchStatusDto getStatus();
 
     void index(BusinessDocument document);
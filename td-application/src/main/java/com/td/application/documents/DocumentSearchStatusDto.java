@@ -12,4 +12,5 @@ public class DocumentSearchStatusDto {
     private String indexName;
     private long indexedDocuments;
     private String message;
+    private DocumentSearchReconcileReportDto reconciliation;
 }
@@ -0,0 +1,59 @@
+package com.td.application.documents;
+
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * Mức độ chi tiết của từng tài liệu trong kết quả tìm kiếm.
+ * <ul>
+ *   <li>FULL: toàn bộ dữ liệu như API chi tiết</li>
+ *   <li>LIST: bỏ content và metadata, phù hợp cho trang danh sách</li>
+ *   <li>SUMMARY: chỉ các trường lõi (title, documentType, status, tags, thời gian)</li>
+ * </ul>
+ */
+public enum DocumentSearchView {
+    FULL,
+    LIST,
+    SUMMARY;
+
+    public static DocumentSearchView from(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return FULL;
+        }
+    }
+
+    public boolean includesContent() {
+        return this == FULL;
+    }
+
+    public boolean includesMetadata() {
+        return this == FULL;
+    }
+
+    public boolean includesAttributes() {
+        return this != SUMMARY;
+    }
+
+    /**
+     * Cắt bớt DTO theo view, dùng cho nhánh database để payload đồng nhất với nhánh Elasticsearch.
+     */
+    public DocumentDto apply(DocumentDto document) {
+        if (document == null || this == FULL) {
+            return document;
+        }
+
+        document.setContent(null);
+        document.setMetadata(Collections.emptyMap());
+        if (!includesAttributes()) {
+            document.setAttributes(Collections.emptyMap());
+            document.setExtraFields(Collections.emptyMap());
+        }
+        return document;
+    }
+}
@@ -0,0 +1,13 @@
+package com.td.application.documents;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class DocumentSuggestResult {
+    private final List<DocumentSuggestionDto> items;
+    private final String backend;
+}
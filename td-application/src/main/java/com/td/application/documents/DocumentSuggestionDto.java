@@ -0,0 +1,19 @@
+package com.td.application.documents;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSuggestionDto {
+    private UUID id;
+    private String title;
+    private String documentType;
+    private String status;
+}
@@ -0,0 +1,9 @@
+package com.td.application.documents;
+
+import java.util.UUID;
+
+/**
+ * Cặp (id, versionNo) tối thiểu dùng để so sánh PostgreSQL với index tìm kiếm.
+ */
+public record DocumentVersionRef(UUID id, long versionNo) {
+}
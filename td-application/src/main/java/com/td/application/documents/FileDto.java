@@ -53,4 +53,10 @@ public class FileDto {
 
     @JsonProperty("checksum")
     private String checksum;
+
+    /**
+     * Đã có ảnh thu nhỏ/xem trước do pipeline preview tạo.
+     */
+    @JsonProperty("has_preview")
+    private Boolean hasPreview;
 }
@@ -0,0 +1,45 @@
+package com.td.application.documents;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileUploadUrlDto {
+
+    @JsonProperty("file_id")
+    private UUID fileId;
+
+    @JsonProperty("document_id")
+    private UUID documentId;
+
+    @JsonProperty("upload_url")
+    private String uploadUrl;
+
+    @JsonProperty("method")
+    private String method;
+
+    /**
+     * Header client cần gửi kèm khi PUT lên upload_url.
+     */
+    @JsonProperty("headers")
+    private Map<String, String> headers;
+
+    @JsonProperty("expires_at")
+    private LocalDateTime expiresAt;
+
+    /**
+     * Endpoint gọi sau khi PUT thành công để ghi nhận tệp vào tài liệu.
+     */
+    @JsonProperty("complete_url")
+    private String completeUrl;
+}
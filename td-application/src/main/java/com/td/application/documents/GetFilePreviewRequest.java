@@ -0,0 +1,27 @@
+package com.td.application.documents;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetFilePreviewRequest {
+
+    public static final String VARIANT_THUMBNAIL = "THUMBNAIL";
+    public static final String VARIANT_PREVIEW = "PREVIEW";
+
+    private UUID documentId;
+
+    private UUID fileId;
+
+    /**
+     * THUMBNAIL hoặc PREVIEW.
+     */
+    private String variant;
+}
@@ -0,0 +1,43 @@
+package com.td.application.documents;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InitiateChunkedUploadRequest {
+
+    @JsonProperty("document_id")
+    private UUID documentId;
+
+    @NotBlank(message = "File name không được để trống")
+    @JsonProperty("file_name")
+    private String fileName;
+
+    @JsonProperty("mime_type")
+    private String mimeType;
+
+    @NotNull(message = "File size không được để trống")
+    @Positive(message = "File size không hợp lệ")
+    @JsonProperty("file_size")
+    private Long fileSize;
+
+    /**
+     * Kích thước mỗi phần mong muốn, để trống sẽ dùng cấu hình mặc định.
+     */
+    @JsonProperty("part_size")
+    private Long partSize;
+
+    @JsonProperty("description")
+    private String description;
+}
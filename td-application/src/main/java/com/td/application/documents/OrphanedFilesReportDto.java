@@ -0,0 +1,62 @@
+package com.td.application.documents;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class OrphanedFilesReportDto {
+
+    @JsonProperty("dry_run")
+    private boolean dryRun;
+
+    @JsonProperty("started_at")
+    private LocalDateTime startedAt;
+
+    @JsonProperty("finished_at")
+    private LocalDateTime finishedAt;
+
+    /**
+     * Bản ghi file_metadata thuộc tài liệu đã xóa (hoặc ảnh xem trước mất tệp gốc).
+     */
+    @JsonProperty("orphaned_files")
+    private long orphanedFiles;
+
+    @JsonProperty("deleted_files")
+    private long deletedFiles;
+
+    @JsonProperty("scanned_objects")
+    private long scannedObjects;
+
+    /**
+     * Object trên MinIO không có bản ghi file_metadata hay phiên tải lên nào trỏ tới.
+     */
+    @JsonProperty("orphaned_objects")
+    private long orphanedObjects;
+
+    @JsonProperty("orphaned_bytes")
+    private long orphanedBytes;
+
+    @JsonProperty("deleted_objects")
+    private long deletedObjects;
+
+    @JsonProperty("sample_file_ids")
+    private List<UUID> sampleFileIds;
+
+    @JsonProperty("sample_object_paths")
+    private List<String> sampleObjectPaths;
+
+    /**
+     * Object cuối cùng đã quét, lần chạy sau tiếp tục từ đây.
+     */
+    @JsonProperty("cursor")
+    private String cursor;
+
+    @JsonProperty("message")
+    private String message;
+}
@@ -0,0 +1,24 @@
+package com.td.application.documents;
+
+import com.td.application.common.models.Result;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class ReconcileDocumentSearchUseCase {
+
+    private final DocumentSearchService documentSearchService;
+
+    public Result<DocumentSearchReconcileReportDto> execute() {
+        try {
+            if (!documentSearchService.isEnabled()) {
+                return Result.failure("Elasticsearch đang bị tắt bởi cấu hình app.elasticsearch.enabled=false");
+            }
+
+            return Result.success(documentSearchService.reconcile());
+        } catch (Exception ex) {
+            return Result.failure("Đối soát Elasticsearch thất bại: " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.td.application.documents;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.td.application.common.models.DataScopeFilter;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class SearchDocumentFacetsRequest {
+
+    public static final String FACET_DOCUMENT_TYPE = "documentType";
+    public static final String FACET_STATUS = "status";
+    public static final String FACET_TAGS = "tags";
+    public static final String FACET_CREATED_ON = "createdOn";
+    // attributes.<key>: đếm theo giá trị của một thuộc tính động (chỉ hỗ trợ trên database)
+    public static final String FACET_ATTRIBUTE_PREFIX = "attributes.";
+
+    private String keyword;
+
+    private String documentType;
+
+    private String status;
+
+    private Map<String, Object> attributeFilters = new HashMap<>();
+
+    private List<String> facets = new ArrayList<>(List.of(FACET_DOCUMENT_TYPE, FACET_STATUS, FACET_TAGS));
+
+    @Min(value = 1, message = "Facet size must be at least 1")
+    @Max(value = 100, message = "Facet size cannot exceed 100")
+    private int size = 20;
+
+    // day | week | month | year, dùng cho facet createdOn
+    private String dateInterval = "month";
+
+    // Do server gắn từ ngữ cảnh đăng nhập, client không gửi lên được; null là không giới hạn (job nội bộ)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private DataScopeFilter dataScope;
+
+    public SearchDocumentsRequest toSearchRequest() {
+        var request = new SearchDocumentsRequest();
+        request.setKeyword(keyword);
+        request.setDocumentType(documentType);
+        request.setStatus(status);
+        request.setAttributeFilters(attributeFilters);
+        request.setDataScope(dataScope);
+        return request;
+    }
+
+    public String normalizedDateInterval() {
+        String interval = dateInterval == null ? "" : dateInterval.trim().toLowerCase();
+        return switch (interval) {
+            case "day", "week", "year" -> interval;
+            default -> "month";
+        };
+    }
+
+    public boolean hasAttributeFacets() {
+        return facets != null && facets.stream()
+            .anyMatch(facet -> facet != null && facet.startsWith(FACET_ATTRIBUTE_PREFIX));
+    }
+}
@@ -0,0 +1,60 @@
+package com.td.application.documents;
+
+import com.td.application.common.interfaces.DataScopeProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SearchDocumentFacetsUseCase {
+
+    private static final String ELASTICSEARCH_BACKEND = "ELASTICSEARCH";
+    private static final String DATABASE_BACKEND = "DATABASE";
+
+    private final DocumentSearchService documentSearchService;
+    private final DocumentRepository documentRepository;
+    private final DocumentCacheService documentCacheService;
+    private final DataScopeProvider dataScopeProvider;
+
+    public DocumentFacetsDto execute(SearchDocumentFacetsRequest request, boolean useCache) {
+        if (request.getDataScope() == null) {
+            request.setDataScope(dataScopeProvider.currentScope(SearchDocumentsUseCase.DATA_SCOPE_MODULE));
+        }
+
+        if (useCache) {
+            var cached = documentCacheService.getFacets(request);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        DocumentFacetsDto facets = countFacets(request);
+        documentCacheService.putFacets(request, facets);
+        return facets;
+    }
+
+    private DocumentFacetsDto countFacets(SearchDocumentFacetsRequest request) {
+        if (!requiresDatabaseFallback(request)) {
+            try {
+                DocumentFacetsDto facets = documentSearchService.facets(request);
+                facets.setBackend(ELASTICSEARCH_BACKEND);
+                return facets;
+            } catch (Exception ex) {
+                // fallback database bên dưới
+            }
+        }
+
+        DocumentFacetsDto facets = documentRepository.countFacets(request);
+        facets.setBackend(DATABASE_BACKEND);
+        return facets;
+    }
+
+    private boolean requiresDatabaseFallback(SearchDocumentFacetsRequest request) {
+        return request.hasAttributeFacets()
+            || (request.getAttributeFilters() != null && !request.getAttributeFilters().isEmpty())
+            || !documentSearchService.isEnabled()
+            || !documentSearchService.isAvailable();
+    }
+}
@@ -1,5 +1,6 @@
 package com.td.application.documents;
 
+import com.td.application.common.models.PaginationResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,17 +17,27 @@ public class SearchDocumentsElasticUseCase {
     private final SearchDocumentsUseCase searchDocumentsUseCase;
 
     public DocumentSearchPageResult execute(SearchDocumentsRequest request) {
+        searchDocumentsUseCase.applyDataScope(request);
         if (requiresDatabaseFallback(request)) {
-            return new DocumentSearchPageResult(searchDocumentsUseCase.execute(request), DATABASE_BACKEND);
+            return new DocumentSearchPageResult(searchDatabase(request), DATABASE_BACKEND);
         }
 
         try {
             return new DocumentSearchPageResult(documentSearchService.search(request), ELASTICSEARCH_BACKEND);
         } catch (Exception ex) {
-            return new DocumentSearchPageResult(searchDocumentsUseCase.execute(request), DATABASE_BACKEND);
+            return new DocumentSearchPageResult(searchDatabase(request), DATABASE_BACKEND);
         }
     }
 
+    private PaginationResponse<DocumentDto> searchDatabase(SearchDocumentsRequest request) {
+        var response = searchDocumentsUseCase.execute(request);
+        DocumentSearchView view = DocumentSearchView.from(request == null ? null : request.getView());
+        if (view != DocumentSearchView.FULL && response.getItems() != null) {
+            response.getItems().forEach(view::apply);
+        }
+        return response;
+    }
+
     private boolean requiresDatabaseFallback(SearchDocumentsRequest request) {
         return hasAttributeFilters(request)
             || !documentSearchService.isEnabled()
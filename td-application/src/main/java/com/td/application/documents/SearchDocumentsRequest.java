@@ -1,5 +1,7 @@
 package com.td.application.documents;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.td.application.common.models.DataScopeFilter;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.Data;
@@ -35,4 +37,14 @@ public class SearchDocumentsRequest {
     private String sortBy = "lastModifiedOn";
 
     private String sortDirection = "desc";
+
+    // full | list | summary - xem DocumentSearchView
+    private String view = "full";
+
+    // Trả về đoạn trích highlight theo keyword (chỉ áp dụng với Elasticsearch)
+    private boolean highlight = false;
+
+    // Do server gắn từ ngữ cảnh đăng nhập, client không gửi lên được; null là không giới hạn (job nội bộ)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private DataScopeFilter dataScope;
 }
@@ -1,5 +1,6 @@
 package com.td.application.documents;
 
+import com.td.application.common.interfaces.DataScopeProvider;
 import com.td.application.common.models.PaginationResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
@@ -15,10 +16,24 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class SearchDocumentsUseCase {
 
+    public static final String DATA_SCOPE_MODULE = "documents";
+
     private final DocumentRepository documentRepository;
+    private final DataScopeProvider dataScopeProvider;
+
+    /**
+     * Gắn phạm vi dữ liệu của người dùng hiện tại vào request; gọi trước khi tra cache để key tách theo phạm vi.
+     */
+    public SearchDocumentsRequest applyDataScope(SearchDocumentsRequest request) {
+        if (request != null && request.getDataScope() == null) {
+            request.setDataScope(dataScopeProvider.currentScope(DATA_SCOPE_MODULE));
+        }
+        return request;
+    }
 
     public PaginationResponse<DocumentDto> execute(SearchDocumentsRequest request) {
         try {
+            applyDataScope(request);
             Pageable pageable = buildPageable(request);
             var page = documentRepository.search(request, pageable);
 
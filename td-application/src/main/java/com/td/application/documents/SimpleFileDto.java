@@ -34,4 +34,11 @@ public class SimpleFileDto {
 
     @JsonProperty("downloadUrl")
     private String downloadUrl;
+
+    // Ảnh JPEG nhỏ (vài KB) cho trang danh sách, null nếu chưa tạo xong hoặc định dạng không hỗ trợ
+    @JsonProperty("thumbnailUrl")
+    private String thumbnailUrl;
+
+    @JsonProperty("previewUrl")
+    private String previewUrl;
 }
@@ -0,0 +1,70 @@
+package com.td.application.documents;
+
+import com.td.application.common.interfaces.DataScopeProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SuggestDocumentsUseCase {
+
+    public static final int MIN_PREFIX_LENGTH = 2;
+    public static final int MAX_SIZE = 20;
+
+    private static final String ELASTICSEARCH_BACKEND = "ELASTICSEARCH";
+    private static final String DATABASE_BACKEND = "DATABASE";
+
+    private final DocumentSearchService documentSearchService;
+    private final SearchDocumentsUseCase searchDocumentsUseCase;
+    private final DataScopeProvider dataScopeProvider;
+
+    public DocumentSuggestResult execute(String prefix, String documentType, String status, int size) {
+        String normalizedPrefix = prefix == null ? "" : prefix.trim();
+        if (normalizedPrefix.length() < MIN_PREFIX_LENGTH) {
+            return new DocumentSuggestResult(List.of(), ELASTICSEARCH_BACKEND);
+        }
+
+        int limitedSize = Math.min(Math.max(1, size), MAX_SIZE);
+        // Completion suggester không lọc được theo data scope, người dùng bị giới hạn phạm vi đi nhánh database
+        boolean scoped = !dataScopeProvider.currentScope(SearchDocumentsUseCase.DATA_SCOPE_MODULE).isUnrestricted();
+        // Không gọi isAvailable() mỗi phím gõ, lỗi index sẽ rơi về nhánh database
+        if (!scoped && documentSearchService.isEnabled()) {
+            try {
+                return new DocumentSuggestResult(
+                    documentSearchService.suggest(normalizedPrefix, documentType, status, limitedSize),
+                    ELASTICSEARCH_BACKEND);
+            } catch (Exception ex) {
+                // fallback database bên dưới
+            }
+        }
+
+        return new DocumentSuggestResult(searchDatabase(normalizedPrefix, documentType, status, limitedSize), DATABASE_BACKEND);
+    }
+
+    private List<DocumentSuggestionDto> searchDatabase(String prefix, String documentType, String status, int size) {
+        var request = new SearchDocumentsRequest();
+        request.setKeyword(prefix);
+        request.setDocumentType(documentType);
+        request.setStatus(status);
+        request.setPageSize(size);
+        request.setView(DocumentSearchView.SUMMARY.name());
+
+        var page = searchDocumentsUseCase.execute(request);
+        if (page.getItems() == null) {
+            return List.of();
+        }
+
+        return page.getItems().stream()
+            .map(document -> DocumentSuggestionDto.builder()
+                .id(document.getId())
+                .title(document.getTitle())
+                .documentType(document.getDocumentType())
+                .status(document.getStatus())
+                .build())
+            .toList();
+    }
+}
@@ -0,0 +1,29 @@
+package com.td.application.documents;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadChunkedPartRequest {
+
+    private UUID documentId;
+
+    private UUID uploadId;
+
+    private int partNumber;
+
+    private InputStream content;
+
+    /**
+     * Content-Length của request, -1 nếu client không gửi.
+     */
+    private long contentLength;
+}
@@ -0,0 +1,7 @@
+package com.td.application.documents;
+
+import com.td.application.common.cqrs.UseCase;
+import com.td.application.common.models.Result;
+
+public interface UploadChunkedPartUseCase extends UseCase<UploadChunkedPartRequest, Result<ChunkedUploadPartDto>> {
+}
@@ -15,6 +15,7 @@ import java.util.UUID;
 public class CreateOrganizationUseCase {
 
     private final OrganizationRepository organizationRepository;
+    private final OrganizationHierarchyIndex organizationHierarchyIndex;
 
     public Result<UUID> execute(CreateOrganizationRequest request) {
         try {
@@ -48,27 +49,33 @@ public class CreateOrganizationUseCase {
                     return Result.failure("Node gốc chỉ cho phép loại agency_level");
                 }
             } else {
-                var parentOpt = organizationRepository.findByIdAndDeletedOnIsNull(parentId);
+                var parentOpt = organizationHierarchyIndex.findNode(parentId);
                 if (parentOpt.isEmpty()) {
                     return Result.failure("Không tìm thấy node cha với ID: " + parentId);
                 }
 
                 var parent = parentOpt.get();
-                if (!parent.isActive()) {
+                if (!parent.active()) {
                     return Result.failure("Node cha đang bị vô hiệu hóa, không thể tạo node con");
                 }
 
                 if (parentName == null || parentName.isBlank()) {
-                    parentName = parent.getName();
+                    parentName = parent.name();
                 }
 
-                String parentNodeType = OrganizationHierarchyRules.resolveNodeType(parent);
+                String parentNodeType = parent.nodeType();
                 if (!OrganizationHierarchyRules.canBeChild(parentNodeType, nodeType)) {
                     return Result.failure("Quan hệ cha-con không hợp lệ: parent=" + parentNodeType + ", child=" + nodeType);
                 }
 
-                level = parent.getLevel() + 1;
-                fullPath = parent.getFullPath() + " / " + name;
+                // Snapshot trong bộ nhớ có thể trễ so với node khác: level/full_path lấy từ dòng cha đã khóa
+                organizationRepository.lockHierarchy();
+                var lockedParent = organizationRepository.findByIdForUpdate(parentId);
+                if (lockedParent.isEmpty()) {
+                    return Result.failure("Không tìm thấy node cha với ID: " + parentId);
+                }
+                level = lockedParent.get().getLevel() + 1;
+                fullPath = lockedParent.get().getFullPath() + " / " + name;
             }
 
             var organization = new Organization(
@@ -97,6 +104,7 @@ public class CreateOrganizationUseCase {
             }
 
             var saved = organizationRepository.save(organization);
+            organizationHierarchyIndex.invalidateAfterCommit();
             return Result.success(saved.getId());
         } catch (Exception ex) {
             return Result.failure("Tạo node tổ chức thất bại: " + ex.getMessage());
@@ -13,6 +13,7 @@ import java.util.UUID;
 public class DeleteOrganizationUseCase {
 
     private final OrganizationRepository organizationRepository;
+    private final OrganizationHierarchyIndex organizationHierarchyIndex;
 
     public Result<UUID> execute(UUID id) {
         try {
@@ -29,6 +30,7 @@ public class DeleteOrganizationUseCase {
             var organization = opt.get();
             organization.markAsDeleted(UUID.randomUUID());
             var saved = organizationRepository.save(organization);
+            organizationHierarchyIndex.invalidateAfterCommit();
             return Result.success(saved.getId());
         } catch (Exception ex) {
             return Result.failure("Xóa tổ chức thất bại: " + ex.getMessage());
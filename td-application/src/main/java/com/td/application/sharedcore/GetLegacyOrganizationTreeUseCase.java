@@ -1,183 +1,263 @@
 package com.td.application.sharedcore;
 
-import com.td.domain.sharedcore.Organization;
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Xuất cây cơ cấu tổ chức theo format legacy ({@link LegacyOrganizationTreeResponse}) bằng {@link JsonGenerator},
+ * duyệt sâu trực tiếp trên danh sách con đã sắp sẵn của {@link OrganizationHierarchy} mà không dựng cây đối tượng.
+ *
+ * <p>Cây đầy đủ được giữ dưới dạng byte JSON gắn với ảnh chụp cây hiện hành: các request sau chỉ ghi lại mảng byte
+ * cho tới khi cây thay đổi. Cây con theo {@code rootId}/{@code depth} và danh sách con được ghi thẳng ra response.</p>
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class GetLegacyOrganizationTreeUseCase {
 
     private static final String DEFAULT_JEDIS_KEY = "qlvb_CoCauToChuc_#";
+    private static final NodeContext ROOT_CONTEXT = new NodeContext(null, null, null);
+    // jedis_key do client gửi; giới hạn số biến thể cache để key lạ không làm phình bộ nhớ
+    private static final int MAX_CACHED_KEYS = 16;
+
+    private final OrganizationHierarchyIndex organizationHierarchyIndex;
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
 
-    private final OrganizationRepository organizationRepository;
+    private volatile CachedTree cachedTree;
+
+    public GetLegacyOrganizationTreeUseCase(OrganizationHierarchyIndex organizationHierarchyIndex,
+                                            ObjectMapper objectMapper) {
+        this.organizationHierarchyIndex = organizationHierarchyIndex;
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+    }
 
-    public LegacyOrganizationTreeResponse execute(String jedisKey) {
+    /**
+     * Ghi cây con bắt đầu từ {@code rootId} (hoặc mọi gốc nếu null), mở rộng tối đa {@code depth} tầng dưới node
+     * bắt đầu ({@code null}: toàn bộ). Node ở tầng bị cắt có {@code children} rỗng và {@code has_children} cho biết
+     * còn con để tải tiếp.
+     */
+    public void write(OutputStream out, String jedisKey, UUID rootId, Integer depth) throws IOException {
         String normalizedJedisKey = normalizeJedisKey(jedisKey);
+        if (depth != null && depth < 0) {
+            writeFailure(out, "depth phải >= 0", normalizedJedisKey, null);
+            return;
+        }
 
+        OrganizationHierarchy hierarchy;
         try {
-            List<Organization> organizations = loadOrganizationsForTree();
-            List<LegacyOrganizationTreeNode> nodes = buildTree(organizations);
-            return LegacyOrganizationTreeResponse.success(nodes, normalizedJedisKey);
+            hierarchy = organizationHierarchyIndex.current();
         } catch (Exception ex) {
-            return LegacyOrganizationTreeResponse.failure(
-                "Load organization tree failed",
-                normalizedJedisKey,
-                ex.getMessage()
-            );
+            writeFailure(out, "Load organization tree failed", normalizedJedisKey, ex.getMessage());
+            return;
         }
-    }
 
-    private List<Organization> loadOrganizationsForTree() {
-        List<Organization> organizations = new ArrayList<>();
-
-        int pageNumber = 0;
-        int pageSize = 200;
-        while (true) {
-            var request = new SearchOrganizationsRequest();
-            request.setPageNumber(pageNumber);
-            request.setPageSize(pageSize);
-            request.setIsActive(true);
-            request.setSortBy("sortOrder");
-            request.setSortDirection("asc");
-
-            var pageable = PageRequest.of(
-                pageNumber,
-                pageSize,
-                Sort.by(
-                    Sort.Order.asc("level"),
-                    Sort.Order.asc("sortOrder"),
-                    Sort.Order.asc("name")
-                )
-            );
-
-            var page = organizationRepository.search(request, pageable);
-            organizations.addAll(page.getContent());
-
-            if (page.isLast()) {
-                break;
-            }
+        if (rootId == null && depth == null) {
+            out.write(fullTree(hierarchy, normalizedJedisKey));
+            return;
+        }
 
-            pageNumber++;
+        // Không sâu hơn số node: dữ liệu lỗi có vòng parent_id vẫn duyệt hữu hạn
+        int maxDepth = depth == null ? hierarchy.size() : Math.min(depth, hierarchy.size());
+        if (rootId == null) {
+            writeSuccess(out, normalizedJedisKey, hierarchy, hierarchy.activeChildren(null), ROOT_CONTEXT, maxDepth);
+            return;
         }
 
-        return organizations;
+        var root = hierarchy.find(rootId).filter(OrganizationHierarchyNode::active);
+        if (root.isEmpty()) {
+            writeFailure(out, "Không tìm thấy tổ chức với ID: " + rootId, normalizedJedisKey, null);
+            return;
+        }
+        writeSuccess(out, normalizedJedisKey, hierarchy, List.of(root.get()), contextOf(hierarchy, root.get()), maxDepth);
     }
 
-    private List<LegacyOrganizationTreeNode> buildTree(List<Organization> organizations) {
-        if (organizations == null || organizations.isEmpty()) {
-            return List.of();
+    /**
+     * Ghi con trực tiếp đang hoạt động của {@code parentId} (gốc nếu null), không kèm cháu — dùng cho tải lười
+     * từng tầng.
+     */
+    public void writeChildren(OutputStream out, String jedisKey, UUID parentId) throws IOException {
+        String normalizedJedisKey = normalizeJedisKey(jedisKey);
+
+        OrganizationHierarchy hierarchy;
+        try {
+            hierarchy = organizationHierarchyIndex.current();
+        } catch (Exception ex) {
+            writeFailure(out, "Load organization tree failed", normalizedJedisKey, ex.getMessage());
+            return;
         }
 
-        Map<UUID, Organization> byId = new HashMap<>();
-        Map<UUID, List<Organization>> childrenByParent = new HashMap<>();
+        if (parentId == null) {
+            writeSuccess(out, normalizedJedisKey, hierarchy, hierarchy.activeChildren(null), ROOT_CONTEXT, 0);
+            return;
+        }
 
-        for (Organization organization : organizations) {
-            byId.put(organization.getId(), organization);
-            childrenByParent
-                .computeIfAbsent(organization.getParentId(), key -> new ArrayList<>())
-                .add(organization);
+        var parent = hierarchy.find(parentId).filter(OrganizationHierarchyNode::active);
+        if (parent.isEmpty()) {
+            writeFailure(out, "Không tìm thấy tổ chức với ID: " + parentId, normalizedJedisKey, null);
+            return;
         }
+        NodeContext parentContext = nextContext(parent.get(), resolveForm(parent.get()), contextOf(hierarchy, parent.get()));
+        writeSuccess(out, normalizedJedisKey, hierarchy, hierarchy.activeChildren(parentId), parentContext, 0);
+    }
 
-        Comparator<Organization> comparator = Comparator
-            .comparingInt(Organization::getSortOrder)
-            .thenComparing(organization -> safe(organization.getName()));
+    private byte[] fullTree(OrganizationHierarchy hierarchy, String jedisKey) throws IOException {
+        CachedTree cached = cachedTree;
+        if (cached == null || cached.hierarchy() != hierarchy) {
+            cached = new CachedTree(hierarchy, new ConcurrentHashMap<>());
+            cachedTree = cached;
+        }
 
-        for (List<Organization> children : childrenByParent.values()) {
-            children.sort(comparator);
+        byte[] bytes = cached.bytesByJedisKey().get(jedisKey);
+        if (bytes != null) {
+            return bytes;
         }
 
-        List<Organization> roots = organizations.stream()
-            .filter(organization -> organization.getParentId() == null || !byId.containsKey(organization.getParentId()))
-            .sorted(comparator)
-            .toList();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(1024, hierarchy.size() * 256));
+        writeSuccess(buffer, jedisKey, hierarchy, hierarchy.activeChildren(null), ROOT_CONTEXT, hierarchy.size());
+        bytes = buffer.toByteArray();
+        if (cached.bytesByJedisKey().size() < MAX_CACHED_KEYS) {
+            cached.bytesByJedisKey().put(jedisKey, bytes);
+            log.debug("Đã cache cây tổ chức version {} ({} byte, jedis_key {})", hierarchy.version(), bytes.length, jedisKey);
+        }
+        return bytes;
+    }
 
-        List<LegacyOrganizationTreeNode> result = new ArrayList<>();
-        for (Organization root : roots) {
-            result.add(buildNode(root, childrenByParent, new NodeContext(null, null, null)));
+    private void writeSuccess(
+            OutputStream out,
+            String jedisKey,
+            OrganizationHierarchy hierarchy,
+            List<OrganizationHierarchyNode> nodes,
+            NodeContext context,
+            int remainingDepth) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Cùng thứ tự field và bỏ field null như khi Jackson serialize LegacyOrganizationTreeResponse
+            generator.writeStartObject();
+            generator.writeNumberField("code", 0);
+            generator.writeBooleanField("status", true);
+            generator.writeNumberField("total", 0);
+            generator.writeObjectFieldStart("properties");
+            generator.writeStringField("jedis_key", jedisKey);
+            generator.writeEndObject();
+            generator.writeArrayFieldStart("data");
+            for (OrganizationHierarchyNode node : nodes) {
+                writeNode(generator, hierarchy, node, context, remainingDepth);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
         }
+    }
 
-        return result;
+    private void writeFailure(OutputStream out, String message, String jedisKey, String exceptionMessage)
+            throws IOException {
+        out.write(objectMapper.writeValueAsBytes(
+            LegacyOrganizationTreeResponse.failure(message, jedisKey, exceptionMessage)));
     }
 
-    private LegacyOrganizationTreeNode buildNode(
-            Organization organization,
-            Map<UUID, List<Organization>> childrenByParent,
-            NodeContext context) {
+    private void writeNode(
+            JsonGenerator generator,
+            OrganizationHierarchy hierarchy,
+            OrganizationHierarchyNode organization,
+            NodeContext context,
+            int remainingDepth) throws IOException {
         String form = resolveForm(organization);
         NodeContext nextContext = nextContext(organization, form, context);
 
-        List<LegacyOrganizationTreeNode> children = childrenByParent
-            .getOrDefault(organization.getId(), List.of())
-            .stream()
-            .map(child -> buildNode(child, childrenByParent, nextContext))
-            .toList();
-
-        return new LegacyOrganizationTreeNode(
-            organization.getId().toString(),
-            safe(organization.getName()),
-            form,
-            buildNodeData(organization, form, nextContext),
-            children
-        );
+        generator.writeStartObject();
+        generator.writeStringField("id", organization.id().toString());
+        generator.writeStringField("text", safe(organization.name()));
+        generator.writeStringField("form", form);
+        generator.writeObjectFieldStart("data");
+        writeNodeData(generator, organization, form, nextContext);
+        generator.writeEndObject();
+
+        generator.writeArrayFieldStart("children");
+        if (remainingDepth > 0) {
+            for (OrganizationHierarchyNode child : hierarchy.activeChildren(organization.id())) {
+                writeNode(generator, hierarchy, child, nextContext, remainingDepth - 1);
+            }
+        }
+        generator.writeEndArray();
+        if (remainingDepth <= 0) {
+            generator.writeBooleanField("has_children", hierarchy.hasActiveChildren(organization.id()));
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Ngữ cảnh agency/unit của node tính từ chuỗi tổ tiên đang hoạt động, như khi duyệt cả cây từ gốc.
+     */
+    private NodeContext contextOf(OrganizationHierarchy hierarchy, OrganizationHierarchyNode node) {
+        Deque<OrganizationHierarchyNode> ancestors = new ArrayDeque<>();
+        var parent = hierarchy.find(node.parentId()).filter(OrganizationHierarchyNode::active);
+        while (parent.isPresent() && ancestors.size() < hierarchy.size()) {
+            ancestors.push(parent.get());
+            parent = hierarchy.find(parent.get().parentId()).filter(OrganizationHierarchyNode::active);
+        }
+
+        NodeContext context = ROOT_CONTEXT;
+        for (OrganizationHierarchyNode ancestor : ancestors) {
+            context = nextContext(ancestor, resolveForm(ancestor), context);
+        }
+        return context;
     }
 
-    private Map<String, String> buildNodeData(Organization organization, String form, NodeContext context) {
-        String orgId = organization.getId().toString();
-        String identifier = safe(organization.getIdentifier());
-        String dbPath = safe(organization.getDbpath());
+    private void writeNodeData(JsonGenerator generator, OrganizationHierarchyNode organization, String form,
+                               NodeContext context) throws IOException {
+        String orgId = organization.id().toString();
+        String identifier = safe(organization.identifier());
+        String dbPath = safe(organization.dbpath());
 
-        Map<String, String> data = new LinkedHashMap<>();
         switch (form) {
             case "agency":
-                data.put("identifier", identifier);
-                data.put("identifier_other", "");
-                data.put("user_receiver", "");
-                data.put("agency_id", orgId);
-                data.put("dbpath", dbPath);
+                generator.writeStringField("identifier", identifier);
+                generator.writeStringField("identifier_other", "");
+                generator.writeStringField("user_receiver", "");
+                generator.writeStringField("agency_id", orgId);
+                generator.writeStringField("dbpath", dbPath);
                 break;
             case "unit":
-                data.put("identifier", identifier);
-                data.put("identifier_other", safe(context.agencyIdentifier()));
-                data.put("user_receiver", "");
-                data.put("agency_id", safe(context.agencyId()));
-                data.put("unit_id", orgId);
-                data.put("dbpath", dbPath);
+                generator.writeStringField("identifier", identifier);
+                generator.writeStringField("identifier_other", safe(context.agencyIdentifier()));
+                generator.writeStringField("user_receiver", "");
+                generator.writeStringField("agency_id", safe(context.agencyId()));
+                generator.writeStringField("unit_id", orgId);
+                generator.writeStringField("dbpath", dbPath);
                 break;
             case "department":
-                data.put("department_id", orgId);
-                data.put("unit_id", safe(context.unitId()));
-                data.put("agency_id", safe(context.agencyId()));
-                data.put("identifier", identifier);
-                data.put("user_receiver", "");
-                data.put("dbpath", dbPath);
+                generator.writeStringField("department_id", orgId);
+                generator.writeStringField("unit_id", safe(context.unitId()));
+                generator.writeStringField("agency_id", safe(context.agencyId()));
+                generator.writeStringField("identifier", identifier);
+                generator.writeStringField("user_receiver", "");
+                generator.writeStringField("dbpath", dbPath);
                 break;
             default:
-                data.put("identifier", identifier);
-                data.put("identifier_other", "");
-                data.put("user_receiver", "");
-                data.put("dbpath", dbPath);
+                generator.writeStringField("identifier", identifier);
+                generator.writeStringField("identifier_other", "");
+                generator.writeStringField("user_receiver", "");
+                generator.writeStringField("dbpath", dbPath);
                 break;
         }
-
-        return data;
     }
 
-    private String resolveForm(Organization organization) {
-        String nodeType = OrganizationHierarchyRules.resolveNodeType(organization);
-        return switch (nodeType) {
+    private String resolveForm(OrganizationHierarchyNode organization) {
+        return switch (organization.nodeType()) {
             case OrganizationHierarchyRules.AGENCY_LEVEL -> "agency_level";
             case OrganizationHierarchyRules.AGENCY -> "agency";
             case OrganizationHierarchyRules.UNIT -> "unit";
@@ -186,17 +266,17 @@ public class GetLegacyOrganizationTreeUseCase {
         };
     }
 
-    private NodeContext nextContext(Organization organization, String form, NodeContext current) {
+    private NodeContext nextContext(OrganizationHierarchyNode organization, String form, NodeContext current) {
         String agencyId = current.agencyId();
         String agencyIdentifier = current.agencyIdentifier();
         String unitId = current.unitId();
 
         if ("agency".equals(form)) {
-            agencyId = organization.getId().toString();
-            agencyIdentifier = safe(organization.getIdentifier());
+            agencyId = organization.id().toString();
+            agencyIdentifier = safe(organization.identifier());
             unitId = null;
         } else if ("unit".equals(form)) {
-            unitId = organization.getId().toString();
+            unitId = organization.id().toString();
         }
 
         return new NodeContext(agencyId, agencyIdentifier, unitId);
@@ -215,4 +295,7 @@ public class GetLegacyOrganizationTreeUseCase {
 
     private record NodeContext(String agencyId, String agencyIdentifier, String unitId) {
     }
+
+    private record CachedTree(OrganizationHierarchy hierarchy, Map<String, byte[]> bytesByJedisKey) {
+    }
 }
@@ -1,5 +1,7 @@
 package com.td.application.sharedcore;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,4 +18,9 @@ public class LegacyOrganizationTreeNode {
     private String form;
     private Map<String, String> data;
     private List<LegacyOrganizationTreeNode> children;
+
+    // Chỉ có khi cây bị cắt theo depth: node chưa mở rộng con nhưng còn con để tải tiếp
+    @JsonProperty("has_children")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean hasChildren;
 }
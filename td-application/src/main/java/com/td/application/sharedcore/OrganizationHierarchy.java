@@ -0,0 +1,265 @@
+package com.td.application.sharedcore;
+
+import com.td.domain.sharedcore.Organization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Ảnh chụp bất biến của cây tổ chức (các node chưa xóa), dựng một lần từ DB và dùng chung giữa các luồng.
+ *
+ * <p>Mỗi node có vị trí {@code pre} theo thứ tự duyệt sâu (con sắp theo sort_order, tên) và kích thước cây con,
+ * nên "A là tổ tiên của B" chỉ là so sánh hai khoảng {@code [pre, pre + size)} — O(1), không đi ngược chuỗi cha.
+ * Con của mỗi node được sắp sẵn để duyệt/xuất cây không phải sắp lại.</p>
+ */
+public final class OrganizationHierarchy {
+
+    static final Comparator<OrganizationHierarchyNode> SIBLING_ORDER = Comparator
+        .comparingInt(OrganizationHierarchyNode::sortOrder)
+        .thenComparing(node -> node.name() == null ? "" : node.name());
+
+    private static final int[] NO_CHILDREN = new int[0];
+
+    private final long version;
+    private final Map<UUID, Integer> indexById;
+    private final OrganizationHierarchyNode[] nodes;
+    private final int[] depth;
+    private final int[] pre;
+    private final int[] subtreeSize;
+    private final int[][] children;
+    private final int[] roots;
+    // Gốc của cây chỉ gồm node đang hoạt động: node hoạt động mà cha không còn hoặc đang bị vô hiệu hóa
+    private final int[] activeRoots;
+
+    private OrganizationHierarchy(long version, OrganizationHierarchyNode[] nodes, Map<UUID, Integer> indexById,
+                                  int[][] children, int[] roots, int[] activeRoots) {
+        this.version = version;
+        this.nodes = nodes;
+        this.indexById = indexById;
+        this.children = children;
+        this.roots = roots;
+        this.activeRoots = activeRoots;
+
+        int n = nodes.length;
+        this.depth = new int[n];
+        this.pre = new int[n];
+        this.subtreeSize = new int[n];
+        Arrays.fill(pre, -1);
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int counter = 0;
+        for (int root : roots) {
+            counter = walk(root, counter, stack, cursor);
+        }
+        // Node nằm trên một vòng parent_id (dữ liệu lỗi) không tới được từ gốc nào: vẫn cấp vị trí để tra cứu
+        // không sai, nhưng không đưa vào danh sách gốc
+        for (int i = 0; i < n; i++) {
+            if (pre[i] < 0) {
+                counter = walk(i, counter, stack, cursor);
+            }
+        }
+    }
+
+    public static OrganizationHierarchy build(long version, List<Organization> organizations) {
+        int n = organizations.size();
+        OrganizationHierarchyNode[] nodes = new OrganizationHierarchyNode[n];
+        Map<UUID, Integer> indexById = new HashMap<>(Math.max(16, n * 4 / 3 + 1));
+        for (int i = 0; i < n; i++) {
+            nodes[i] = OrganizationHierarchyNode.from(organizations.get(i));
+            indexById.put(nodes[i].id(), i);
+        }
+
+        Map<Integer, List<Integer>> childLists = new HashMap<>();
+        List<Integer> rootList = new ArrayList<>();
+        List<Integer> activeRootList = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Integer parent = nodes[i].parentId() == null ? null : indexById.get(nodes[i].parentId());
+            if (parent == null) {
+                // Cha đã xóa hoặc không tồn tại: node được coi là gốc, giống cây legacy
+                rootList.add(i);
+            } else {
+                childLists.computeIfAbsent(parent, ignored -> new ArrayList<>()).add(i);
+            }
+            if (nodes[i].active() && (parent == null || !nodes[parent].active())) {
+                activeRootList.add(i);
+            }
+        }
+
+        Comparator<Integer> order = (a, b) -> SIBLING_ORDER.compare(nodes[a], nodes[b]);
+        int[][] children = new int[n][];
+        for (int i = 0; i < n; i++) {
+            List<Integer> list = childLists.get(i);
+            if (list == null) {
+                children[i] = NO_CHILDREN;
+            } else {
+                list.sort(order);
+                children[i] = list.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+        rootList.sort(order);
+        activeRootList.sort(order);
+
+        return new OrganizationHierarchy(
+            version, nodes, indexById, children,
+            rootList.stream().mapToInt(Integer::intValue).toArray(),
+            activeRootList.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Duyệt sâu không đệ quy từ {@code root}, gán vị trí preorder, độ sâu và kích thước cây con.
+     */
+    private int walk(int root, int counter, int[] stack, int[] cursor) {
+        int top = 0;
+        stack[top] = root;
+        cursor[top] = 0;
+        depth[root] = 0;
+        pre[root] = counter++;
+
+        while (top >= 0) {
+            int node = stack[top];
+            int[] kids = children[node];
+            if (cursor[top] < kids.length) {
+                int child = kids[cursor[top]++];
+                if (pre[child] >= 0) {
+                    continue;
+                }
+                depth[child] = depth[node] + 1;
+                pre[child] = counter++;
+                top++;
+                stack[top] = child;
+                cursor[top] = 0;
+            } else {
+                subtreeSize[node] = counter - pre[node];
+                top--;
+            }
+        }
+        return counter;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public boolean contains(UUID id) {
+        return id != null && indexById.containsKey(id);
+    }
+
+    public Optional<OrganizationHierarchyNode> find(UUID id) {
+        Integer index = id == null ? null : indexById.get(id);
+        return index == null ? Optional.empty() : Optional.of(nodes[index]);
+    }
+
+    /**
+     * Độ sâu tính từ gốc của cây chứa node (gốc = 0), {@code -1} nếu không có node.
+     */
+    public int depth(UUID id) {
+        Integer index = id == null ? null : indexById.get(id);
+        return index == null ? -1 : depth[index];
+    }
+
+    public boolean isAncestorOrSelf(UUID ancestorId, UUID nodeId) {
+        Integer ancestor = ancestorId == null ? null : indexById.get(ancestorId);
+        Integer node = nodeId == null ? null : indexById.get(nodeId);
+        if (ancestor == null || node == null) {
+            return false;
+        }
+        return pre[ancestor] <= pre[node] && pre[node] < pre[ancestor] + subtreeSize[ancestor];
+    }
+
+    /**
+     * Gắn {@code nodeId} vào {@code candidateParentId} có tạo vòng không (cha mới là chính nó hoặc hậu duệ của nó).
+     */
+    public boolean createsCycle(UUID nodeId, UUID candidateParentId) {
+        if (candidateParentId == null) {
+            return false;
+        }
+        return candidateParentId.equals(nodeId) || isAncestorOrSelf(nodeId, candidateParentId);
+    }
+
+    /**
+     * Số node trong cây con, kể cả chính nó; {@code 0} nếu không có node.
+     */
+    public int subtreeSize(UUID id) {
+        Integer index = id == null ? null : indexById.get(id);
+        return index == null ? 0 : subtreeSize[index];
+    }
+
+    public boolean hasChildren(UUID id) {
+        Integer index = id == null ? null : indexById.get(id);
+        return index != null && children[index].length > 0;
+    }
+
+    /**
+     * Con trực tiếp đã sắp theo sort_order, tên; {@code parentId == null} trả về các gốc.
+     */
+    public List<OrganizationHierarchyNode> children(UUID parentId) {
+        int[] kids;
+        if (parentId == null) {
+            kids = roots;
+        } else {
+            Integer index = indexById.get(parentId);
+            if (index == null) {
+                return List.of();
+            }
+            kids = children[index];
+        }
+
+        List<OrganizationHierarchyNode> result = new ArrayList<>(kids.length);
+        for (int child : kids) {
+            result.add(nodes[child]);
+        }
+        return result;
+    }
+
+    public List<OrganizationHierarchyNode> roots() {
+        return children(null);
+    }
+
+    /**
+     * Con trực tiếp đang hoạt động, đã sắp; {@code parentId == null} trả về gốc của cây hoạt động
+     * (node hoạt động có cha không còn hoặc bị vô hiệu hóa, giống cây legacy).
+     */
+    public List<OrganizationHierarchyNode> activeChildren(UUID parentId) {
+        int[] kids;
+        if (parentId == null) {
+            kids = activeRoots;
+        } else {
+            Integer index = indexById.get(parentId);
+            if (index == null || !nodes[index].active()) {
+                return List.of();
+            }
+            kids = children[index];
+        }
+
+        List<OrganizationHierarchyNode> result = new ArrayList<>(kids.length);
+        for (int child : kids) {
+            if (nodes[child].active()) {
+                result.add(nodes[child]);
+            }
+        }
+        return result;
+    }
+
+    public boolean hasActiveChildren(UUID id) {
+        Integer index = id == null ? null : indexById.get(id);
+        if (index == null) {
+            return false;
+        }
+        for (int child : children[index]) {
+            if (nodes[child].active()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,122 @@
+package com.td.application.sharedcore;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Giữ {@link OrganizationHierarchy} hiện hành trong bộ nhớ cho các use case sharedcore: kiểm tra vòng lặp,
+ * tổ tiên/hậu duệ và loại node cha không cần truy vấn DB.
+ *
+ * <p>Ảnh chụp được dựng lại khi cần sau khi (a) use case trên node này ghi organizations và commit, hoặc
+ * (b) version {@code organizations} trong DB (tăng bằng trigger) vượt version của ảnh chụp — poller hạ tầng báo qua
+ * {@link #observeVersion(long)}. Ghi từ node khác vì vậy có hiệu lực sau tối đa một chu kỳ poll; trigger
+ * {@code prevent_organization_cycle} trong DB chặn vòng lặp trong khoảng trễ đó.</p>
+ */
+@Slf4j
+@Service
+public class OrganizationHierarchyIndex {
+
+    private final OrganizationRepository organizationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Object rebuildLock = new Object();
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Snapshot current;
+    private volatile long observedVersion;
+
+    public OrganizationHierarchyIndex(OrganizationRepository organizationRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.organizationRepository = organizationRepository;
+        // Nạp trong transaction riêng để ảnh chụp dùng chung không bao giờ chứa thay đổi chưa commit của nơi gọi
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public OrganizationHierarchy current() {
+        Snapshot snapshot = current;
+        if (isFresh(snapshot)) {
+            return snapshot.hierarchy();
+        }
+
+        synchronized (rebuildLock) {
+            snapshot = current;
+            if (isFresh(snapshot)) {
+                return snapshot.hierarchy();
+            }
+
+            long startedGeneration = generation.get();
+            try {
+                OrganizationHierarchy hierarchy = transactionTemplate.execute(status -> OrganizationHierarchy.build(
+                    organizationRepository.findHierarchyVersion(),
+                    organizationRepository.findAllByDeletedOnIsNull()));
+                current = new Snapshot(hierarchy, startedGeneration);
+                log.debug("Đã nạp cây tổ chức: {} node, version {}", hierarchy.size(), hierarchy.version());
+                return hierarchy;
+            } catch (RuntimeException ex) {
+                if (snapshot == null) {
+                    throw ex;
+                }
+                log.warn("Không nạp lại được cây tổ chức, dùng tạm ảnh chụp version {}: {}",
+                    snapshot.hierarchy().version(), ex.getMessage());
+                return snapshot.hierarchy();
+            }
+        }
+    }
+
+    /**
+     * Node trong ảnh chụp hiện hành; chưa có (vừa tạo ở node khác, chưa tới chu kỳ poll) thì đọc thẳng từ DB.
+     */
+    public Optional<OrganizationHierarchyNode> findNode(UUID id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Optional<OrganizationHierarchyNode> node = current().find(id);
+        return node.isPresent()
+            ? node
+            : organizationRepository.findByIdAndDeletedOnIsNull(id).map(OrganizationHierarchyNode::from);
+    }
+
+    /**
+     * Poller gọi với version {@code organizations} mới nhất đọc từ DB.
+     */
+    public void observeVersion(long version) {
+        if (version > observedVersion) {
+            observedVersion = version;
+        }
+    }
+
+    /**
+     * Đánh dấu ảnh chụp hết hạn sau khi transaction hiện tại commit (ngay lập tức nếu không có transaction).
+     */
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        } else {
+            generation.incrementAndGet();
+        }
+    }
+
+    private boolean isFresh(Snapshot snapshot) {
+        return snapshot != null
+            && snapshot.generation() == generation.get()
+            && snapshot.hierarchy().version() >= observedVersion;
+    }
+
+    private record Snapshot(OrganizationHierarchy hierarchy, long generation) {
+    }
+}
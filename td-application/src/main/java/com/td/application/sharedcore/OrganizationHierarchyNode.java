@@ -0,0 +1,38 @@
+package com.td.application.sharedcore;
+
+import com.td.domain.sharedcore.Organization;
+
+import java.util.UUID;
+
+/**
+ * Bản chụp bất biến các trường của một tổ chức cần cho duyệt cây và kiểm tra quan hệ cha-con.
+ * {@code nodeType} luôn là loại đã chuẩn hóa theo {@link OrganizationHierarchyRules#resolveNodeType}.
+ */
+public record OrganizationHierarchyNode(
+    UUID id,
+    UUID parentId,
+    String identifier,
+    String name,
+    String nodeType,
+    int level,
+    String fullPath,
+    int sortOrder,
+    boolean active,
+    String dbpath
+) {
+
+    public static OrganizationHierarchyNode from(Organization organization) {
+        return new OrganizationHierarchyNode(
+            organization.getId(),
+            organization.getParentId(),
+            organization.getIdentifier(),
+            organization.getName(),
+            OrganizationHierarchyRules.resolveNodeType(organization),
+            organization.getLevel(),
+            organization.getFullPath(),
+            organization.getSortOrder(),
+            organization.isActive(),
+            organization.getDbpath()
+        );
+    }
+}
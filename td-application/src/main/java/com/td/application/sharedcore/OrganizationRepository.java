@@ -17,7 +17,31 @@ public interface OrganizationRepository extends IRepository<Organization> {
 
     Optional<Organization> findByIdAndDeletedOnIsNull(UUID id);
 
+    /**
+     * Đọc và khóa dòng (FOR UPDATE) tới hết transaction, để level/full_path đọc được không bị đổi giữa chừng.
+     */
+    Optional<Organization> findByIdForUpdate(UUID id);
+
+    /**
+     * Khóa advisory của cây tổ chức, giữ tới hết transaction: tuần tự hóa các thao tác thêm/chuyển node với nhau
+     * và với trigger kiểm tra vòng lặp. Gọi trước khi khóa dòng nào khác để mọi nơi khóa theo cùng thứ tự.
+     */
+    void lockHierarchy();
+
     List<Organization> findByParentIdAndDeletedOnIsNull(UUID parentId);
 
+    List<Organization> findAllByDeletedOnIsNull();
+
+    /**
+     * Version của cây tổ chức, tăng bằng trigger mỗi khi bảng organizations thay đổi.
+     */
+    long findHierarchyVersion();
+
+    /**
+     * Cập nhật level/full_path (và node_type suy ra từ level) của mọi hậu duệ sau khi node {@code rootId} đổi cha
+     * hoặc đổi tên, bằng vài câu lệnh tập hợp thay vì lưu từng node. Trả về số node đã cập nhật level/full_path.
+     */
+    int refreshDescendantPaths(UUID rootId, String oldFullPath, String newFullPath, int levelDelta);
+
     Page<Organization> search(SearchOrganizationsRequest request, Pageable pageable);
 }
@@ -2,12 +2,10 @@ package com.td.application.sharedcore;
 
 import com.td.application.common.TextNormalizer;
 import com.td.application.common.models.Result;
-import com.td.domain.sharedcore.Organization;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -16,9 +14,12 @@ import java.util.UUID;
 public class UpdateOrganizationUseCase {
 
     private final OrganizationRepository organizationRepository;
+    private final OrganizationHierarchyIndex organizationHierarchyIndex;
 
     public Result<UUID> execute(UUID id, UpdateOrganizationRequest request) {
         try {
+            // Khóa cây trước khi đọc: các lượt chuyển node chạy tuần tự và đọc được level/full_path đã commit
+            organizationRepository.lockHierarchy();
             var currentOpt = organizationRepository.findByIdAndDeletedOnIsNull(id);
             if (currentOpt.isEmpty()) {
                 return Result.failure("Không tìm thấy tổ chức với ID: " + id);
@@ -47,7 +48,8 @@ public class UpdateOrganizationUseCase {
                 return Result.failure("Tổ chức không thể là cha của chính nó");
             }
 
-            if (createsCycle(id, effectiveParentId)) {
+            OrganizationHierarchy hierarchy = organizationHierarchyIndex.current();
+            if (hierarchy.createsCycle(id, effectiveParentId)) {
                 return Result.failure("Quan hệ cha-con không hợp lệ: phát hiện vòng lặp trong cây tổ chức");
             }
 
@@ -66,34 +68,38 @@ public class UpdateOrganizationUseCase {
                     return Result.failure("Node gốc chỉ cho phép loại agency_level");
                 }
             } else {
-                var parentOpt = organizationRepository.findByIdAndDeletedOnIsNull(effectiveParentId);
+                var parentOpt = organizationHierarchyIndex.findNode(effectiveParentId);
                 if (parentOpt.isEmpty()) {
                     return Result.failure("Không tìm thấy node cha với ID: " + effectiveParentId);
                 }
 
                 var parent = parentOpt.get();
-                if (!parent.isActive()) {
+                if (!parent.active()) {
                     return Result.failure("Node cha đang bị vô hiệu hóa, không thể gán node con");
                 }
 
                 if (parentName == null || parentName.isBlank()) {
-                    parentName = parent.getName();
+                    parentName = parent.name();
                 }
 
-                String parentNodeType = OrganizationHierarchyRules.resolveNodeType(parent);
+                String parentNodeType = parent.nodeType();
                 if (!OrganizationHierarchyRules.canBeChild(parentNodeType, effectiveNodeType)) {
                     return Result.failure("Quan hệ cha-con không hợp lệ: parent=" + parentNodeType + ", child=" + effectiveNodeType);
                 }
 
-                newLevel = parent.getLevel() + 1;
-                newFullPath = parent.getFullPath() + " / " + effectiveName;
+                // Snapshot trong bộ nhớ có thể trễ so với node khác: level/full_path lấy từ dòng cha đã khóa
+                var lockedParent = organizationRepository.findByIdForUpdate(effectiveParentId);
+                if (lockedParent.isEmpty()) {
+                    return Result.failure("Không tìm thấy node cha với ID: " + effectiveParentId);
+                }
+                newLevel = lockedParent.get().getLevel() + 1;
+                newFullPath = lockedParent.get().getFullPath() + " / " + effectiveName;
             }
 
-            Organization invalidChild = findFirstIncompatibleChild(id, effectiveNodeType);
+            OrganizationHierarchyNode invalidChild = findFirstIncompatibleChild(hierarchy, id, effectiveNodeType);
             if (invalidChild != null) {
-                String childType = OrganizationHierarchyRules.resolveNodeType(invalidChild);
-                return Result.failure("Không thể đổi node hiện tại vì node con '" + invalidChild.getName()
-                    + "' có loại " + childType + " không tương thích với cha loại " + effectiveNodeType);
+                return Result.failure("Không thể đổi node hiện tại vì node con '" + invalidChild.name()
+                    + "' có loại " + invalidChild.nodeType() + " không tương thích với cha loại " + effectiveNodeType);
             }
 
             if (updateParent && effectiveParentId == null) {
@@ -101,6 +107,9 @@ public class UpdateOrganizationUseCase {
                 legacyParentId = "";
             }
 
+            int oldLevel = current.getLevel();
+            String oldFullPath = current.getFullPath();
+
             current.update(
                 identifier,
                 name,
@@ -127,7 +136,10 @@ public class UpdateOrganizationUseCase {
             );
 
             var saved = organizationRepository.save(current);
-            refreshDescendants(saved);
+            if (newLevel != oldLevel || !newFullPath.equals(oldFullPath)) {
+                organizationRepository.refreshDescendantPaths(saved.getId(), oldFullPath, newFullPath, newLevel - oldLevel);
+            }
+            organizationHierarchyIndex.invalidateAfterCommit();
 
             return Result.success(saved.getId());
         } catch (Exception ex) {
@@ -135,58 +147,16 @@ public class UpdateOrganizationUseCase {
         }
     }
 
-    private boolean createsCycle(UUID nodeId, UUID candidateParentId) {
-        UUID currentParentId = candidateParentId;
-        while (currentParentId != null) {
-            if (currentParentId.equals(nodeId)) {
-                return true;
-            }
-
-            var parentOpt = organizationRepository.findByIdAndDeletedOnIsNull(currentParentId);
-            if (parentOpt.isEmpty()) {
-                return false;
-            }
-
-            currentParentId = parentOpt.get().getParentId();
-        }
-        return false;
-    }
-
-    private Organization findFirstIncompatibleChild(UUID nodeId, String parentNodeType) {
-        List<Organization> children = organizationRepository.findByParentIdAndDeletedOnIsNull(nodeId);
-        for (Organization child : children) {
-            String childNodeType = OrganizationHierarchyRules.resolveNodeType(child);
-            if (!OrganizationHierarchyRules.canBeChild(parentNodeType, childNodeType)) {
+    private OrganizationHierarchyNode findFirstIncompatibleChild(
+            OrganizationHierarchy hierarchy, UUID nodeId, String parentNodeType) {
+        for (OrganizationHierarchyNode child : hierarchy.children(nodeId)) {
+            if (!OrganizationHierarchyRules.canBeChild(parentNodeType, child.nodeType())) {
                 return child;
             }
         }
         return null;
     }
 
-    private void refreshDescendants(Organization parent) {
-        List<Organization> children = organizationRepository.findByParentIdAndDeletedOnIsNull(parent.getId());
-        for (Organization child : children) {
-            String childNodeType = OrganizationHierarchyRules.resolveNodeType(child);
-            int childLevel = parent.getLevel() + 1;
-            String childFullPath = parent.getFullPath() + " / " + child.getName();
-
-            child.update(
-                null,
-                null,
-                null,
-                parent.getId(),
-                childNodeType,
-                childLevel,
-                childFullPath,
-                null,
-                null
-            );
-
-            Organization savedChild = organizationRepository.save(child);
-            refreshDescendants(savedChild);
-        }
-    }
-
     private UUID parseLegacyUuid(String legacyId) {
         if (legacyId == null || legacyId.isBlank()) {
             return null;
@@ -43,6 +43,9 @@ public class BusinessDocument extends AuditableEntity<UUID> implements IAggregat
     @Column(name = "version_no", nullable = false)
     private long versionNo = 1L;
 
+    @Column(name = "organization_id")
+    private UUID organizationId;
+
     public BusinessDocument(
             String title,
             String documentType,
@@ -95,6 +98,16 @@ public class BusinessDocument extends AuditableEntity<UUID> implements IAggregat
         return this;
     }
 
+    /**
+     * Gán đơn vị sở hữu, dùng cho lọc data scope. Chỉ gán khi tạo, không đổi theo người sửa sau.
+     */
+    public BusinessDocument assignOrganization(UUID organizationId) {
+        if (this.organizationId == null) {
+            this.organizationId = organizationId;
+        }
+        return this;
+    }
+
     private String normalizeObject(String value) {
         return (value == null || value.isBlank()) ? "{}" : value;
     }
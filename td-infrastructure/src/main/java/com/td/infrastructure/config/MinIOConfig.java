@@ -2,10 +2,17 @@ package com.td.infrastructure.config;
 
 import io.minio.MinioClient;
 import lombok.RequiredArgsConstructor;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 @RequiredArgsConstructor
 @EnableConfigurationProperties(MinIOProperties.class)
@@ -18,6 +25,25 @@ public class MinIOConfig {
         return MinioClient.builder()
                 .endpoint(minioProperties.getUrl())
                 .credentials(minioProperties.getAccessKey(), minioProperties.getSecretKey())
+                .region(minioProperties.getRegion())
+                .httpClient(minioHttpClient())
+                .build();
+    }
+
+    private OkHttpClient minioHttpClient() {
+        MinIOProperties.Client client = minioProperties.getClient();
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(client.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(client.getMaxRequestsPerHost());
+
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(
+                        client.getMaxIdleConnections(), client.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .connectTimeout(client.getConnectTimeout())
+                .writeTimeout(client.getWriteTimeout())
+                .readTimeout(client.getReadTimeout())
+                .protocols(List.of(Protocol.HTTP_1_1))
                 .build();
     }
 }
@@ -3,6 +3,9 @@ package com.td.infrastructure.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.List;
+
 @Data
 @ConfigurationProperties(prefix = "app.minio")
 public class MinIOProperties {
@@ -10,4 +13,110 @@ public class MinIOProperties {
     private String accessKey = "minioadmin";
     private String secretKey = "minioadmin";
     private String bucketName = "td-webapi-files";
+    private String region = "us-east-1";
+    private Client client = new Client();
+    private Presign presign = new Presign();
+    private ChunkedUpload chunkedUpload = new ChunkedUpload();
+    private Dedup dedup = new Dedup();
+    private StreamingUpload streamingUpload = new StreamingUpload();
+    private OrphanGc orphanGc = new OrphanGc();
+
+    @Data
+    public static class Client {
+        /**
+         * Số kết nối rảnh giữ lại trong pool OkHttp (mặc định của OkHttp chỉ là 5).
+         */
+        private int maxIdleConnections = 32;
+        private Duration keepAlive = Duration.ofMinutes(5);
+        private int maxRequests = 128;
+        private int maxRequestsPerHost = 64;
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Duration writeTimeout = Duration.ofMinutes(5);
+        private Duration readTimeout = Duration.ofMinutes(5);
+        /**
+         * Part size của putObject khi không biết trước kích thước tệp, tối thiểu 5MB. Part lớn hơn giảm số request
+         * nhưng mỗi lượt tải lên giữ một bộ đệm cỡ này.
+         */
+        private long partSize = 16L * 1024 * 1024;
+    }
+
+    @Data
+    public static class Presign {
+        /**
+         * Endpoint mà trình duyệt truy cập được (vd. qua reverse proxy). Để trống sẽ dùng {@code url}.
+         */
+        private String publicUrl;
+        private Duration uploadExpiry = Duration.ofMinutes(15);
+        private Duration downloadExpiry = Duration.ofMinutes(5);
+        /**
+         * Mặc định endpoint download trả 302 sang presigned GET thay vì stream qua app server.
+         */
+        private boolean redirectDownloads = false;
+    }
+
+    @Data
+    public static class ChunkedUpload {
+        /**
+         * Kích thước phần mặc định. MinIO compose yêu cầu mọi phần trừ phần cuối tối thiểu 5MB.
+         */
+        private long defaultPartSize = 8L * 1024 * 1024;
+        private long minPartSize = 5L * 1024 * 1024;
+        private long maxPartSize = 64L * 1024 * 1024;
+        private int maxParts = 10_000;
+        /**
+         * Phiên quá hạn này mà chưa hoàn tất sẽ bị job dọn dẹp hủy.
+         */
+        private Duration sessionTtl = Duration.ofHours(24);
+        private int cleanupBatchSize = 100;
+    }
+
+    @Data
+    public static class Dedup {
+        /**
+         * Lưu tệp tải lên theo SHA-256 nội dung, cùng nội dung chỉ lưu một object.
+         */
+        private boolean enabled = true;
+        /**
+         * Blob hết tham chiếu phải nằm yên khoảng này mới bị xóa, tránh tranh chấp với lượt tải lên cùng nội dung.
+         */
+        private Duration gcGracePeriod = Duration.ofHours(1);
+        private int gcBatchSize = 200;
+    }
+
+    @Data
+    public static class StreamingUpload {
+        /**
+         * Kích thước tối đa của tệp tải lên không qua multipart của Spring: body thô và presigned PUT.
+         */
+        private long maxSize = 2L * 1024 * 1024 * 1024;
+    }
+
+    @Data
+    public static class OrphanGc {
+        private boolean enabled = true;
+        /**
+         * Chỉ báo cáo, không xóa gì. Endpoint quản trị có thể chạy dry-run bất kể cấu hình này.
+         */
+        private boolean dryRun = false;
+        /**
+         * Prefix được quét tìm object mồ côi. {@code staging/} chứa bản tạm của lượt tải lên có dedup; object tạm
+         * không bao giờ có file_metadata tham chiếu nên bị xóa khi quá {@code objectGracePeriod} (tiến trình chết
+         * giữa lúc stage và commit). {@code uploads/} chứa các phần của tải lên theo từng phần; phần còn dòng
+         * file_upload_parts được giữ, phần sót lại sau khi ghép xong (xóa lỗi sau commit) bị dọn.
+         */
+        private List<String> prefixes = List.of("documents/", "previews/", "staging/", "uploads/");
+        /**
+         * Object mới hơn khoảng này không bị xóa: lượt tải lên đang ghi object trước khi commit file_metadata.
+         */
+        private Duration objectGracePeriod = Duration.ofHours(48);
+        /**
+         * Tệp của tài liệu đã xóa mềm được giữ lại khoảng này để còn khôi phục được.
+         */
+        private Duration softDeletedRetention = Duration.ofDays(30);
+        private int batchSize = 500;
+        // Giới hạn số batch mỗi lần chạy và nghỉ giữa các batch để không dồn tải lên DB/MinIO
+        private int maxBatchesPerRun = 20;
+        private long throttleMillis = 200;
+        private int reportSampleSize = 100;
+    }
 }
@@ -1,19 +1,45 @@
 package com.td.infrastructure.config;
 
 import io.minio.*;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MinioService {
 
+    private static final String NO_SUCH_BUCKET = "NoSuchBucket";
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
     private final MinioClient minioClient;
     private final MinIOProperties minioProperties;
+    private volatile MinioClient presignClient;
+    // Bucket chỉ cần kiểm tra một lần, đánh dấu lại khi MinIO báo NoSuchBucket
+    private volatile boolean bucketVerified;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyBucketOnStartup() {
+        ensureBucketExists();
+    }
 
     public void ensureBucketExists() {
         try {
@@ -23,27 +49,52 @@ public class MinioService {
                 minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
                 log.info("Created MinIO bucket: {}", bucket);
             }
+            bucketVerified = true;
         } catch (Exception e) {
             log.warn("Could not ensure MinIO bucket exists: {}", e.getMessage());
         }
     }
 
-    public void uploadObject(String objectName, InputStream inputStream, long size, String contentType) {
-        try {
+    private void ensureBucketVerified() {
+        if (!bucketVerified) {
             ensureBucketExists();
-            minioClient.putObject(
+        }
+    }
+
+    public ObjectWriteResponse uploadObject(String objectName, InputStream inputStream, long size, String contentType) {
+        ensureBucketVerified();
+        try {
+            return minioClient.putObject(
                     PutObjectArgs.builder()
                             .bucket(minioProperties.getBucketName())
                             .object(objectName)
-                            .stream(inputStream, size, -1)
+                            .stream(inputStream, size, resolvePartSize(size))
                             .contentType(contentType != null ? contentType : "application/octet-stream")
                             .build()
             );
+        } catch (ErrorResponseException e) {
+            if (NO_SUCH_BUCKET.equals(e.errorResponse().code())) {
+                // Bucket bị xóa sau khi đã xác minh: tạo lại để lần tải sau thành công, stream hiện tại không đọc lại được
+                bucketVerified = false;
+                ensureBucketExists();
+            }
+            throw new RuntimeException("Failed to upload file to MinIO: " + e.getMessage(), e);
         } catch (Exception e) {
             throw new RuntimeException("Failed to upload file to MinIO: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Part size cho putObject: chỉ dùng cấu hình khi chưa biết kích thước (SDK bắt buộc). Đã biết kích thước thì để
+     * SDK tự tính (part nhỏ nhất đủ cho 10.000 phần), nên tệp nhỏ không phải cấp bộ đệm part cỡ cấu hình.
+     */
+    private long resolvePartSize(long size) {
+        if (size >= 0) {
+            return -1;
+        }
+        return Math.max(MIN_PART_SIZE, minioProperties.getClient().getPartSize());
+    }
+
     public InputStream getObject(String objectName) {
         try {
             return minioClient.getObject(
@@ -57,6 +108,99 @@ public class MinioService {
         }
     }
 
+    /**
+     * Đọc một đoạn byte [offset, offset + length) của object, dùng cho tải xuống theo Range.
+     */
+    public InputStream getObject(String objectName, long offset, long length) {
+        try {
+            return minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(minioProperties.getBucketName())
+                            .object(objectName)
+                            .offset(offset)
+                            .length(length)
+                            .build()
+            );
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to get file range from MinIO: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sao chép object ngay trên MinIO (server-side copy).
+     */
+    public void copyObject(String sourceObject, String targetObject) {
+        try {
+            minioClient.copyObject(
+                    CopyObjectArgs.builder()
+                            .bucket(minioProperties.getBucketName())
+                            .object(targetObject)
+                            .source(CopySource.builder()
+                                    .bucket(minioProperties.getBucketName())
+                                    .object(sourceObject)
+                                    .build())
+                            .build()
+            );
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to copy object in MinIO: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ghép các object nguồn theo thứ tự thành một object đích ngay trên MinIO (không tải dữ liệu về app server).
+     */
+    public ObjectWriteResponse composeObject(String objectName, List<String> sourceObjects, String contentType) {
+        try {
+            List<ComposeSource> sources = new ArrayList<>(sourceObjects.size());
+            for (String source : sourceObjects) {
+                sources.add(ComposeSource.builder()
+                        .bucket(minioProperties.getBucketName())
+                        .object(source)
+                        .build());
+            }
+            return minioClient.composeObject(
+                    ComposeObjectArgs.builder()
+                            .bucket(minioProperties.getBucketName())
+                            .object(objectName)
+                            .sources(sources)
+                            .headers(Map.of("Content-Type", contentType != null ? contentType : "application/octet-stream"))
+                            .build()
+            );
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to compose object in MinIO: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Xóa nhiều object trong một request (DeleteObjects), trả về số object xóa lỗi.
+     */
+    public int removeObjects(Collection<String> objectNames) {
+        if (objectNames == null || objectNames.isEmpty()) {
+            return 0;
+        }
+
+        List<DeleteObject> objects = objectNames.stream().map(DeleteObject::new).toList();
+        int failed = 0;
+        Iterable<Result<DeleteError>> results = minioClient.removeObjects(
+                RemoveObjectsArgs.builder()
+                        .bucket(minioProperties.getBucketName())
+                        .objects(objects)
+                        .build()
+        );
+        // Kết quả là lazy iterable: phải duyệt hết thì request xóa mới thực sự được gửi
+        for (Result<DeleteError> result : results) {
+            try {
+                DeleteError error = result.get();
+                failed++;
+                log.warn("Failed to remove object {} from MinIO: {}", error.objectName(), error.message());
+            } catch (Exception e) {
+                failed++;
+                log.warn("Failed to remove objects from MinIO: {}", e.getMessage());
+            }
+        }
+        return failed;
+    }
+
     public void removeObject(String objectName) {
         try {
             minioClient.removeObject(
@@ -70,6 +214,124 @@ public class MinioService {
         }
     }
 
+    /**
+     * Liệt kê tối đa {@code limit} object theo prefix, sau khóa {@code startAfter} (thứ tự từ điển).
+     * SDK phân trang lười nên chỉ các trang cần thiết được tải.
+     */
+    public List<Item> listObjects(String prefix, String startAfter, int limit) {
+        ListObjectsArgs.Builder args = ListObjectsArgs.builder()
+                .bucket(minioProperties.getBucketName())
+                .prefix(prefix)
+                .recursive(true)
+                .maxKeys(Math.min(Math.max(1, limit), 1000));
+        if (StringUtils.hasText(startAfter)) {
+            args.startAfter(startAfter);
+        }
+
+        List<Item> items = new ArrayList<>(limit);
+        try {
+            for (Result<Item> result : minioClient.listObjects(args.build())) {
+                Item item = result.get();
+                if (!item.isDir()) {
+                    items.add(item);
+                }
+                if (items.size() >= limit) {
+                    break;
+                }
+            }
+            return items;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to list objects in MinIO: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Đọc thông tin object, trả về rỗng nếu object chưa tồn tại.
+     */
+    public Optional<StatObjectResponse> statObject(String objectName) {
+        try {
+            return Optional.of(minioClient.statObject(
+                    StatObjectArgs.builder()
+                            .bucket(minioProperties.getBucketName())
+                            .object(objectName)
+                            .build()
+            ));
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            throw new RuntimeException("Failed to stat object in MinIO: " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to stat object in MinIO: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Tạo presigned URL để client PUT trực tiếp object lên MinIO.
+     */
+    public String presignedPutUrl(String objectName, Duration expiry) {
+        ensureBucketVerified();
+        return presign(Method.PUT, objectName, expiry, Map.of());
+    }
+
+    /**
+     * Tạo presigned URL để client GET trực tiếp object, kèm Content-Disposition/Content-Type trả về.
+     */
+    public String presignedGetUrl(String objectName, Duration expiry, String contentDisposition, String contentType) {
+        Map<String, String> queryParams = new HashMap<>();
+        if (StringUtils.hasText(contentDisposition)) {
+            queryParams.put("response-content-disposition", contentDisposition);
+        }
+        if (StringUtils.hasText(contentType)) {
+            queryParams.put("response-content-type", contentType);
+        }
+        return presign(Method.GET, objectName, expiry, queryParams);
+    }
+
+    public MinIOProperties.Presign getPresignProperties() {
+        return minioProperties.getPresign();
+    }
+
+    private String presign(Method method, String objectName, Duration expiry, Map<String, String> queryParams) {
+        try {
+            return presignClient().getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(method)
+                            .bucket(minioProperties.getBucketName())
+                            .object(objectName)
+                            .expiry((int) expiry.toSeconds())
+                            .extraQueryParams(queryParams)
+                            .build()
+            );
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create presigned URL: " + e.getMessage(), e);
+        }
+    }
+
+    // Chữ ký presigned gắn với host, nên khi MinIO được publish qua địa chỉ khác phải ký bằng endpoint công khai
+    private MinioClient presignClient() {
+        String publicUrl = minioProperties.getPresign().getPublicUrl();
+        if (!StringUtils.hasText(publicUrl)) {
+            return minioClient;
+        }
+
+        MinioClient client = presignClient;
+        if (client == null) {
+            synchronized (this) {
+                client = presignClient;
+                if (client == null) {
+                    client = MinioClient.builder()
+                            .endpoint(publicUrl)
+                            .credentials(minioProperties.getAccessKey(), minioProperties.getSecretKey())
+                            .region(minioProperties.getRegion())
+                            .build();
+                    presignClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
     public String getBucketName() {
         return minioProperties.getBucketName();
     }
@@ -0,0 +1,38 @@
+package com.td.infrastructure.documents;
+
+import com.td.application.common.models.Result;
+import com.td.application.documents.AbortChunkedUploadUseCase;
+import com.td.application.documents.ChunkedUploadRequest;
+import com.td.infrastructure.persistence.entity.FileUploadSessionEntity;
+import com.td.infrastructure.persistence.repository.FileUploadSessionJpaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class AbortChunkedUploadUseCaseImpl implements AbortChunkedUploadUseCase {
+
+    private final FileUploadSessionJpaRepository uploadSessionRepo;
+    private final ChunkedUploadSupport chunkedUploadSupport;
+
+    @Override
+    public Result<UUID> execute(ChunkedUploadRequest request) {
+        Optional<FileUploadSessionEntity> opt = uploadSessionRepo
+                .findByIdAndDocumentId(request.getUploadId(), request.getDocumentId());
+        if (opt.isEmpty() || !FileUploadSessionEntity.MODE_CHUNKED.equals(opt.get().getUploadMode())) {
+            return Result.failure("Phiên tải lên không tồn tại");
+        }
+
+        FileUploadSessionEntity session = opt.get();
+        if (FileUploadSessionEntity.STATUS_COMPLETED.equals(session.getStatus())) {
+            return Result.failure("Phiên tải lên đã hoàn tất, hãy xóa tệp thay vì hủy");
+        }
+        if (session.isPending()) {
+            chunkedUploadSupport.abort(session);
+        }
+        return Result.success(session.getId());
+    }
+}
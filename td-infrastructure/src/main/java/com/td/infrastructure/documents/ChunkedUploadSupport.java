@@ -0,0 +1,87 @@
+package com.td.infrastructure.documents;
+
+import com.td.application.documents.ChunkedUploadDto;
+import com.td.application.documents.ChunkedUploadPartDto;
+import com.td.infrastructure.config.MinioService;
+import com.td.infrastructure.persistence.entity.FileUploadPartEntity;
+import com.td.infrastructure.persistence.entity.FileUploadSessionEntity;
+import com.td.infrastructure.persistence.repository.FileUploadPartJpaRepository;
+import com.td.infrastructure.persistence.repository.FileUploadSessionJpaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Phần dùng chung của các use case chunked upload: đặt tên object từng phần, kích thước phần kỳ vọng, hủy phiên.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class ChunkedUploadSupport {
+
+    private final MinioService minioService;
+    private final FileUploadSessionJpaRepository uploadSessionRepo;
+    private final FileUploadPartJpaRepository uploadPartRepo;
+
+    static String partObjectPath(UUID uploadId, int partNumber) {
+        return String.format("uploads/%s/part-%05d", uploadId, partNumber);
+    }
+
+    /**
+     * Mọi phần có kích thước part_size, riêng phần cuối nhận phần dư.
+     */
+    static long expectedPartSize(FileUploadSessionEntity session, int partNumber) {
+        if (partNumber < session.getTotalParts()) {
+            return session.getPartSize();
+        }
+        return session.getDeclaredSize() - session.getPartSize() * (session.getTotalParts() - 1L);
+    }
+
+    ChunkedUploadDto toDto(FileUploadSessionEntity session, List<FileUploadPartEntity> parts) {
+        return ChunkedUploadDto.builder()
+                .uploadId(session.getId())
+                .documentId(session.getDocumentId())
+                .fileName(session.getOriginalFilename())
+                .fileSize(session.getDeclaredSize())
+                .partSize(session.getPartSize())
+                .totalParts(session.getTotalParts())
+                .status(session.getStatus())
+                .expiresAt(session.getExpiresAt())
+                .uploadedParts(parts.stream().map(this::toPartDto).toList())
+                .build();
+    }
+
+    ChunkedUploadPartDto toPartDto(FileUploadPartEntity part) {
+        return ChunkedUploadPartDto.builder()
+                .partNumber(part.getPartNumber())
+                .size(part.getPartSize())
+                .etag(part.getEtag())
+                .uploadedAt(part.getUploadedAt())
+                .build();
+    }
+
+    /**
+     * Hủy phiên đang chờ: xóa các object tạm (và object presigned nếu client đã PUT) rồi đánh dấu ABORTED.
+     */
+    @Transactional
+    public void abort(FileUploadSessionEntity session) {
+        List<String> objects = new ArrayList<>();
+        for (FileUploadPartEntity part : uploadPartRepo.findAllBySessionIdOrderByPartNumberAsc(session.getId())) {
+            objects.add(part.getObjectPath());
+        }
+        if (FileUploadSessionEntity.MODE_PRESIGNED.equals(session.getUploadMode())) {
+            objects.add(session.getObjectPath());
+        }
+
+        minioService.removeObjects(objects);
+        uploadPartRepo.deleteAllBySessionId(session.getId());
+        session.setStatus(FileUploadSessionEntity.STATUS_ABORTED);
+        uploadSessionRepo.save(session);
+        log.info("Aborted {} upload {} for document {}", session.getUploadMode(), session.getId(), session.getDocumentId());
+    }
+}
@@ -0,0 +1,24 @@
+package com.td.infrastructure.documents;
+
+import com.td.application.common.models.Result;
+import com.td.application.documents.CollectOrphanedFilesRequest;
+import com.td.application.documents.CollectOrphanedFilesUseCase;
+import com.td.application.documents.OrphanedFilesReportDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class CollectOrphanedFilesUseCaseImpl implements CollectOrphanedFilesUseCase {
+
+    private final OrphanedFileGcJob orphanedFileGcJob;
+
+    @Override
+    public Result<OrphanedFilesReportDto> execute(CollectOrphanedFilesRequest request) {
+        try {
+            return Result.success(orphanedFileGcJob.collect(request.isDryRun()));
+        } catch (Exception ex) {
+            return Result.failure("Dọn tệp mồ côi thất bại: " + ex.getMessage());
+        }
+    }
+}
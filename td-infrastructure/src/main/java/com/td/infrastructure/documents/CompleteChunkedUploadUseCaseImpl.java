@@ -0,0 +1,120 @@
+package com.td.infrastructure.documents;
+
+import com.td.application.common.models.Result;
+import com.td.application.documents.ChunkedUploadRequest;
+import com.td.application.documents.CompleteChunkedUploadUseCase;
+import com.td.application.documents.DocumentCacheService;
+import com.td.infrastructure.config.MinioService;
+import com.td.infrastructure.persistence.entity.FileMetadataEntity;
+import com.td.infrastructure.persistence.entity.FileUploadPartEntity;
+import com.td.infrastructure.persistence.entity.FileUploadSessionEntity;
+import com.td.infrastructure.persistence.repository.FileMetadataJpaRepository;
+import com.td.infrastructure.persistence.repository.FileUploadPartJpaRepository;
+import com.td.infrastructure.persistence.repository.FileUploadSessionJpaRepository;
+import com.td.infrastructure.extraction.FileTextExtractionQueue;
+import com.td.infrastructure.preview.FilePreviewQueue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Ghép các phần thành object cuối bằng compose ngay trên MinIO, sau đó ghi file_metadata và dọn object tạm.
+ *
+ * <p>Object của từng phần chỉ bị xóa sau khi transaction commit: ghi DB lỗi thì các phần vẫn còn để client gọi
+ * lại complete; phần sót lại do xóa lỗi sẽ được OrphanedFileGcJob dọn khi quét prefix {@code uploads/}.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CompleteChunkedUploadUseCaseImpl implements CompleteChunkedUploadUseCase {
+
+    private final MinioService minioService;
+    private final FileUploadSessionJpaRepository uploadSessionRepo;
+    private final FileUploadPartJpaRepository uploadPartRepo;
+    private final FileMetadataJpaRepository fileMetadataRepo;
+    private final DocumentCacheService documentCacheService;
+    private final FilePreviewQueue filePreviewQueue;
+    private final FileTextExtractionQueue fileTextExtractionQueue;
+
+    @Override
+    @Transactional
+    public Result<UUID> execute(ChunkedUploadRequest request) {
+        Optional<FileUploadSessionEntity> opt = uploadSessionRepo
+                .findByIdAndDocumentId(request.getUploadId(), request.getDocumentId());
+        if (opt.isEmpty() || !FileUploadSessionEntity.MODE_CHUNKED.equals(opt.get().getUploadMode())) {
+            return Result.failure("Phiên tải lên không tồn tại");
+        }
+
+        FileUploadSessionEntity session = opt.get();
+        if (FileUploadSessionEntity.STATUS_COMPLETED.equals(session.getStatus())) {
+            return Result.success(session.getId());
+        }
+        if (!session.isPending()) {
+            return Result.failure("Phiên tải lên đã bị hủy");
+        }
+
+        List<FileUploadPartEntity> parts = uploadPartRepo.findAllBySessionIdOrderByPartNumberAsc(session.getId());
+        List<Integer> missing = new ArrayList<>();
+        List<String> sources = new ArrayList<>(session.getTotalParts());
+        int index = 0;
+        for (int partNumber = 1; partNumber <= session.getTotalParts(); partNumber++) {
+            FileUploadPartEntity part = index < parts.size() ? parts.get(index) : null;
+            if (part == null || part.getPartNumber() != partNumber) {
+                missing.add(partNumber);
+                continue;
+            }
+            sources.add(part.getObjectPath());
+            index++;
+        }
+        if (!missing.isEmpty()) {
+            return Result.failure("Còn thiếu " + missing.size() + " phần: "
+                    + missing.subList(0, Math.min(missing.size(), 20)));
+        }
+
+        minioService.composeObject(session.getObjectPath(), sources, session.getContentType());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                minioService.removeObjects(sources);
+            }
+        });
+
+        fileMetadataRepo.save(FileMetadataEntity.builder()
+                .id(session.getId())
+                .documentId(session.getDocumentId())
+                .originalFilename(session.getOriginalFilename())
+                .storedFilename(session.getStoredFilename())
+                .filePath(session.getObjectPath())
+                .fileSize(session.getDeclaredSize())
+                .contentType(session.getContentType())
+                .fileExtension(session.getFileExtension())
+                .fileCategory(FileStoragePaths.DOCUMENT_CATEGORY)
+                .bucketName(minioService.getBucketName())
+                .uploadedBy(session.getUploadedBy())
+                .uploadedAt(LocalDateTime.now())
+                .isPublic(false)
+                .description(session.getDescription())
+                .build());
+
+        filePreviewQueue.enqueue(session.getId(), session.getContentType());
+        fileTextExtractionQueue.enqueue(session.getId(), session.getDocumentId(), session.getContentType());
+        uploadPartRepo.deleteAllBySessionId(session.getId());
+        session.setStatus(FileUploadSessionEntity.STATUS_COMPLETED);
+        session.setCompletedAt(LocalDateTime.now());
+        uploadSessionRepo.save(session);
+
+        documentCacheService.evictAllListCaches();
+        log.info("Completed chunked upload {} ({} parts) for document {}",
+                session.getId(), session.getTotalParts(), session.getDocumentId());
+        return Result.success(session.getId());
+    }
+}
@@ -0,0 +1,116 @@
+package com.td.infrastructure.documents;
+
+import com.td.application.common.models.Result;
+import com.td.application.documents.CompleteFileUploadRequest;
+import com.td.application.documents.CompleteFileUploadUseCase;
+import com.td.application.documents.DocumentCacheService;
+import com.td.infrastructure.config.MinIOProperties;
+import com.td.infrastructure.config.MinioService;
+import com.td.infrastructure.persistence.entity.FileMetadataEntity;
+import com.td.infrastructure.persistence.entity.FileUploadSessionEntity;
+import com.td.infrastructure.persistence.repository.FileMetadataJpaRepository;
+import com.td.infrastructure.persistence.repository.FileUploadSessionJpaRepository;
+import com.td.infrastructure.extraction.FileTextExtractionQueue;
+import com.td.infrastructure.preview.FilePreviewQueue;
+import io.minio.StatObjectResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Callback sau khi client PUT xong qua presigned URL: kiểm tra object trên MinIO rồi mới ghi file_metadata.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CompleteFileUploadUseCaseImpl implements CompleteFileUploadUseCase {
+
+    private final MinioService minioService;
+    private final MinIOProperties minioProperties;
+    private final FileUploadSessionJpaRepository uploadSessionRepo;
+    private final FileMetadataJpaRepository fileMetadataRepo;
+    private final DocumentCacheService documentCacheService;
+    private final FilePreviewQueue filePreviewQueue;
+    private final FileTextExtractionQueue fileTextExtractionQueue;
+
+    @Override
+    @Transactional
+    public Result<UUID> execute(CompleteFileUploadRequest request) {
+        Optional<FileUploadSessionEntity> opt = uploadSessionRepo
+                .findByIdAndDocumentId(request.getFileId(), request.getDocumentId());
+        if (opt.isEmpty()) {
+            return Result.failure("Phiên tải lên không tồn tại");
+        }
+
+        FileUploadSessionEntity session = opt.get();
+        if (FileUploadSessionEntity.STATUS_COMPLETED.equals(session.getStatus())) {
+            // Client gọi lại callback (retry) thì trả kết quả cũ
+            return Result.success(session.getId());
+        }
+        if (!session.isPending()) {
+            return Result.failure("Phiên tải lên đã bị hủy");
+        }
+
+        Optional<StatObjectResponse> stat = minioService.statObject(session.getObjectPath());
+        if (stat.isEmpty()) {
+            return session.getExpiresAt().isBefore(LocalDateTime.now())
+                    ? Result.failure("Phiên tải lên đã hết hạn")
+                    : Result.failure("Chưa tìm thấy tệp trên máy chủ lưu trữ, hãy tải lên trước khi xác nhận");
+        }
+
+        long actualSize = stat.get().size();
+        long maxSize = minioProperties.getStreamingUpload().getMaxSize();
+        if (actualSize > maxSize) {
+            abort(session);
+            return Result.failure("Tệp vượt quá kích thước tối đa " + maxSize + " bytes");
+        }
+        if (session.getDeclaredSize() == null || session.getDeclaredSize() != actualSize) {
+            abort(session);
+            return Result.failure("Kích thước tệp không khớp với khai báo (" + session.getDeclaredSize()
+                    + " != " + actualSize + ")");
+        }
+
+        String contentType = StringUtils.hasText(stat.get().contentType())
+                ? stat.get().contentType()
+                : session.getContentType();
+
+        fileMetadataRepo.save(FileMetadataEntity.builder()
+                .id(session.getId())
+                .documentId(session.getDocumentId())
+                .originalFilename(session.getOriginalFilename())
+                .storedFilename(session.getStoredFilename())
+                .filePath(session.getObjectPath())
+                .fileSize(actualSize)
+                .contentType(contentType)
+                .fileExtension(session.getFileExtension())
+                .fileCategory(FileStoragePaths.DOCUMENT_CATEGORY)
+                .bucketName(minioService.getBucketName())
+                .uploadedBy(session.getUploadedBy())
+                .uploadedAt(LocalDateTime.now())
+                .isPublic(false)
+                .description(session.getDescription())
+                .build());
+
+        filePreviewQueue.enqueue(session.getId(), contentType);
+        fileTextExtractionQueue.enqueue(session.getId(), session.getDocumentId(), contentType);
+        session.setStatus(FileUploadSessionEntity.STATUS_COMPLETED);
+        session.setCompletedAt(LocalDateTime.now());
+        uploadSessionRepo.save(session);
+
+        documentCacheService.evictAllListCaches();
+        log.info("Completed presigned upload {} for document {}", session.getId(), session.getDocumentId());
+        return Result.success(session.getId());
+    }
+
+    private void abort(FileUploadSessionEntity session) {
+        minioService.removeObject(session.getObjectPath());
+        session.setStatus(FileUploadSessionEntity.STATUS_ABORTED);
+        uploadSessionRepo.save(session);
+    }
+}
@@ -0,0 +1,206 @@
+package com.td.infrastructure.documents;
+
+import com.td.infrastructure.config.MinioService;
+import com.td.infrastructure.persistence.entity.FileBlobEntity;
+import com.td.infrastructure.persistence.repository.FileBlobJpaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Lưu nội dung tệp theo SHA-256 theo hai bước.
+ *
+ * <p>{@link #stage} stream tệp lên object tạm dưới {@code staging/} và tính digest, không mở transaction nên
+ * client chậm không giữ kết nối DB. {@link #commit} chạy trong transaction ghi file_metadata: nếu đã có blob cùng
+ * digest thì chỉ tăng ref_count, ngược lại copy server-side thành blob và thêm dòng file_blobs. Object tạm được xóa
+ * khi transaction kết thúc; transaction rollback thì blob vừa copy cũng bị xóa, nên ref_count không lệch với
+ * file_metadata đã commit.</p>
+ */
+@Slf4j
+@Component
+public class ContentAddressedStorage {
+
+    private static final String BLOB_PREFIX = "blobs/sha256/";
+    static final String STAGING_PREFIX = "staging/";
+
+    private final MinioService minioService;
+    private final FileBlobJpaRepository blobRepo;
+    // Chỉ dùng để dọn blob sau khi transaction ghi đã rollback, lúc đó không còn transaction nào đang mở
+    private final TransactionTemplate cleanupTransaction;
+
+    public ContentAddressedStorage(
+            MinioService minioService,
+            FileBlobJpaRepository blobRepo,
+            PlatformTransactionManager transactionManager) {
+        this.minioService = minioService;
+        this.blobRepo = blobRepo;
+        this.cleanupTransaction = new TransactionTemplate(transactionManager);
+        this.cleanupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public record StagedContent(String stagingPath, String digest, long size, String contentType) {
+    }
+
+    public record StoredBlob(String digest, String objectPath, long size) {
+    }
+
+    static String blobPath(String digest) {
+        return BLOB_PREFIX + digest.substring(0, 2) + "/" + digest.substring(2, 4) + "/" + digest;
+    }
+
+    /**
+     * Stream nội dung lên object tạm và tính SHA-256. Gọi ngoài transaction; nơi gọi phải {@link #commit} hoặc
+     * {@link #discard} kết quả.
+     */
+    public StagedContent stage(InputStream content, long size, String contentType) {
+        MessageDigest sha256 = newSha256();
+        CountingInputStream counting = new CountingInputStream(new DigestInputStream(content, sha256));
+        String stagingPath = STAGING_PREFIX + UUID.randomUUID();
+
+        try {
+            minioService.uploadObject(stagingPath, counting, size, contentType);
+        } catch (RuntimeException ex) {
+            minioService.removeObject(stagingPath);
+            throw ex;
+        }
+        return new StagedContent(stagingPath, HexFormat.of().formatHex(sha256.digest()), counting.count, contentType);
+    }
+
+    /**
+     * Tăng tham chiếu của blob ứng với nội dung đã stage (tạo blob nếu chưa có), trong transaction của nơi gọi.
+     *
+     * <p>Khóa advisory theo digest giữ tới hết transaction, nên các lượt tải lên cùng nội dung và bước dọn sau
+     * rollback chạy tuần tự: không lượt nào xóa nhầm blob mà lượt khác vừa tạo.</p>
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public StoredBlob commit(StagedContent staged) {
+        String digest = staged.digest();
+        String objectPath = blobPath(digest);
+        boolean created = false;
+        try {
+            blobRepo.lockDigest(digest);
+            if (blobRepo.incrementRefCount(digest, LocalDateTime.now()) == 0) {
+                minioService.copyObject(staged.stagingPath(), objectPath);
+                created = true;
+                LocalDateTime now = LocalDateTime.now();
+                blobRepo.saveAndFlush(FileBlobEntity.builder()
+                        .contentDigest(digest)
+                        .objectPath(objectPath)
+                        .fileSize(staged.size())
+                        .contentType(staged.contentType())
+                        .refCount(1L)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build());
+            } else {
+                log.debug("Reused blob {} for {} bytes", digest, staged.size());
+            }
+        } finally {
+            registerCleanup(staged, created);
+        }
+        return new StoredBlob(digest, objectPath, staged.size());
+    }
+
+    /**
+     * Bỏ nội dung đã stage khi không ghi được metadata (hoặc lỗi trước khi kịp {@link #commit}).
+     */
+    public void discard(StagedContent staged) {
+        if (staged != null) {
+            minioService.removeObject(staged.stagingPath());
+        }
+    }
+
+    /**
+     * Giảm tham chiếu khi bản ghi file_metadata bị xóa. Blob về 0 sẽ được {@link FileBlobGcJob} dọn sau.
+     */
+    @Transactional
+    public void release(String digest) {
+        if (blobRepo.decrementRefCount(digest, LocalDateTime.now()) == 0) {
+            log.warn("Blob {} không tồn tại hoặc đã hết tham chiếu", digest);
+        }
+    }
+
+    private void registerCleanup(StagedContent staged, boolean createdBlob) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                discard(staged);
+                if (createdBlob && status != STATUS_COMMITTED) {
+                    removeUncommittedBlob(staged.digest());
+                }
+            }
+        });
+    }
+
+    private void removeUncommittedBlob(String digest) {
+        try {
+            cleanupTransaction.executeWithoutResult(status -> {
+                blobRepo.lockDigest(digest);
+                // Lượt tải lên khác cùng nội dung có thể đã tạo lại blob sau khi transaction này rollback
+                if (!blobRepo.existsById(digest)) {
+                    minioService.removeObject(blobPath(digest));
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Không dọn được blob {} sau rollback: {}", digest, ex.getMessage());
+        }
+    }
+
+    private MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 không khả dụng", e);
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
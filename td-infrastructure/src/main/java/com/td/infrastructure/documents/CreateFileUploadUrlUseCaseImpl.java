@@ -0,0 +1,98 @@
+package com.td.infrastructure.documents;
+
+import com.td.application.common.models.Result;
+import com.td.application.documents.CreateFileUploadUrlRequest;
+import com.td.application.documents.CreateFileUploadUrlUseCase;
+import com.td.application.documents.DocumentRepository;
+import com.td.application.documents.FileUploadUrlDto;
+import com.td.infrastructure.config.MinIOProperties;
+import com.td.infrastructure.config.MinioService;
+import com.td.infrastructure.persistence.entity.FileUploadSessionEntity;
+import com.td.infrastructure.persistence.repository.FileUploadSessionJpaRepository;
+import com.td.infrastructure.security.CurrentUserContextResolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cấp presigned PUT để client tải tệp thẳng lên MinIO, app server chỉ ghi nhận phiên tải lên.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CreateFileUploadUrlUseCaseImpl implements CreateFileUploadUrlUseCase {
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final MinioService minioService;
+    private final MinIOProperties minioProperties;
+    private final FileUploadSessionJpaRepository uploadSessionRepo;
+    private final DocumentRepository documentRepository;
+    private final CurrentUserContextResolver currentUserContextResolver;
+
+    @Override
+    public Result<FileUploadUrlDto> execute(CreateFileUploadUrlRequest request) {
+        if (request.getDocumentId() == null) {
+            return Result.failure("Document ID không được để trống");
+        }
+        if (!StringUtils.hasText(request.getFileName())) {
+            return Result.failure("File name không được để trống");
+        }
+        // Presigned PUT không giới hạn được kích thước body: bắt buộc khai báo, bước complete đối chiếu với object thật
+        long maxSize = minioProperties.getStreamingUpload().getMaxSize();
+        if (request.getFileSize() == null || request.getFileSize() < 0) {
+            return Result.failure("File size không được để trống");
+        }
+        if (request.getFileSize() > maxSize) {
+            return Result.failure("Tệp vượt quá kích thước tối đa " + maxSize + " bytes");
+        }
+        // URL ký sẵn cho phép ghi thẳng vào bucket nên chỉ cấp cho document còn tồn tại
+        if (documentRepository.findById(request.getDocumentId()).filter(document -> !document.isDeleted()).isEmpty()) {
+            return Result.failure("Document không tồn tại hoặc đã bị xóa");
+        }
+
+        MinIOProperties.Presign presign = minioService.getPresignProperties();
+        UUID fileId = UUID.randomUUID();
+        String extension = FileStoragePaths.extractExtension(request.getFileName());
+        String storedName = FileStoragePaths.storedName(fileId, extension);
+        String objectPath = FileStoragePaths.objectPath(request.getDocumentId(), storedName);
+        String contentType = StringUtils.hasText(request.getMimeType()) ? request.getMimeType() : DEFAULT_CONTENT_TYPE;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(presign.getUploadExpiry());
+
+        String uploadUrl = minioService.presignedPutUrl(objectPath, presign.getUploadExpiry());
+
+        uploadSessionRepo.save(FileUploadSessionEntity.builder()
+                .id(fileId)
+                .documentId(request.getDocumentId())
+                .uploadMode(FileUploadSessionEntity.MODE_PRESIGNED)
+                .status(FileUploadSessionEntity.STATUS_PENDING)
+                .objectPath(objectPath)
+                .originalFilename(request.getFileName())
+                .storedFilename(storedName)
+                .fileExtension(extension.isEmpty() ? null : extension)
+                .contentType(contentType)
+                .declaredSize(request.getFileSize())
+                .description(request.getDescription())
+                .uploadedBy(currentUserContextResolver.resolveCurrentUserUuid().orElse(null))
+                .createdAt(now)
+                .expiresAt(expiresAt)
+                .build());
+
+        log.info("Created presigned upload {} for document {}", fileId, request.getDocumentId());
+        return Result.success(FileUploadUrlDto.builder()
+                .fileId(fileId)
+                .documentId(request.getDocumentId())
+                .uploadUrl(uploadUrl)
+                .method("PUT")
+                .headers(Map.of("Content-Type", contentType))
+                .expiresAt(expiresAt)
+                .completeUrl("/api/v1/documents/" + request.getDocumentId() + "/files/" + fileId + "/complete")
+                .build());
+    }
+}
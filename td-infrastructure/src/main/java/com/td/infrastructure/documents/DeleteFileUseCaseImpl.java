@@ -5,12 +5,15 @@ import com.td.application.documents.DocumentCacheService;
 import com.td.application.documents.DeleteFileRequest;
 import com.td.application.documents.DeleteFileUseCase;
 import com.td.infrastructure.config.MinioService;
+import com.td.infrastructure.extraction.FileTextExtractionQueue;
 import com.td.infrastructure.persistence.entity.FileMetadataEntity;
 import com.td.infrastructure.persistence.repository.FileMetadataJpaRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -21,9 +24,12 @@ public class DeleteFileUseCaseImpl implements DeleteFileUseCase {
 
     private final FileMetadataJpaRepository fileMetadataRepo;
     private final MinioService minioService;
+    private final ContentAddressedStorage contentAddressedStorage;
     private final DocumentCacheService documentCacheService;
+    private final FileTextExtractionQueue fileTextExtractionQueue;
 
     @Override
+    @Transactional
     public Result<UUID> execute(DeleteFileRequest request) {
         Optional<FileMetadataEntity> opt = fileMetadataRepo
                 .findByIdAndDocumentId(request.getFileId(), request.getDocumentId());
@@ -31,8 +37,17 @@ public class DeleteFileUseCaseImpl implements DeleteFileUseCase {
             return Result.failure("File không tìm thấy");
         }
         FileMetadataEntity entity = opt.get();
-        minioService.removeObject(entity.getFilePath());
+        if (entity.getContentDigest() != null) {
+            // Blob dùng chung với tài liệu khác: chỉ giảm tham chiếu, job GC sẽ xóa object khi về 0
+            contentAddressedStorage.release(entity.getContentDigest());
+        } else {
+            minioService.removeObject(entity.getFilePath());
+        }
+        List<FileMetadataEntity> previews = fileMetadataRepo.findAllBySourceFileIdIn(List.of(entity.getId()));
+        minioService.removeObjects(previews.stream().map(FileMetadataEntity::getFilePath).toList());
+        fileMetadataRepo.deleteAll(previews);
         fileMetadataRepo.delete(entity);
+        fileTextExtractionQueue.remove(entity.getId(), request.getDocumentId());
         documentCacheService.evictAllListCaches();
         log.info("Deleted file {} from document {}", request.getFileId(), request.getDocumentId());
         return Result.success(request.getFileId());
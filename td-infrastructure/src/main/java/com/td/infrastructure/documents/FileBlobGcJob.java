@@ -0,0 +1,79 @@
+package com.td.infrastructure.documents;
+
+import com.td.infrastructure.config.MinIOProperties;
+import com.td.infrastructure.config.MinioService;
+import com.td.infrastructure.persistence.entity.FileBlobEntity;
+import com.td.infrastructure.persistence.repository.FileBlobJpaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Xóa blob không còn bản ghi file_metadata nào tham chiếu.
+ *
+ * <p>Mỗi blob được xóa trong transaction riêng, giữ khóa dòng file_blobs trong lúc xóa object:
+ * lượt tải lên cùng nội dung chạy đồng thời sẽ chờ khóa rồi tạo lại blob thay vì tham chiếu object đã mất.</p>
+ */
+@Slf4j
+@Component
+public class FileBlobGcJob {
+
+    private final FileBlobJpaRepository blobRepo;
+    private final MinioService minioService;
+    private final MinIOProperties minioProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public FileBlobGcJob(
+            FileBlobJpaRepository blobRepo,
+            MinioService minioService,
+            MinIOProperties minioProperties,
+            PlatformTransactionManager transactionManager) {
+        this.blobRepo = blobRepo;
+        this.minioService = minioService;
+        this.minioProperties = minioProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.minio.dedup.gc-initial-delay:PT10M}",
+        fixedDelayString = "${app.minio.dedup.gc-delay:PT1H}")
+    public void collectUnreferencedBlobs() {
+        MinIOProperties.Dedup config = minioProperties.getDedup();
+        LocalDateTime cutoff = LocalDateTime.now().minus(config.getGcGracePeriod());
+        int removed = 0;
+
+        try {
+            List<String> candidates = blobRepo.findUnreferencedBefore(
+                cutoff, PageRequest.of(0, Math.max(1, config.getGcBatchSize())));
+            for (String digest : candidates) {
+                Boolean deleted = transactionTemplate.execute(status -> deleteIfUnreferenced(digest, cutoff));
+                if (Boolean.TRUE.equals(deleted)) {
+                    removed++;
+                }
+            }
+        } catch (Exception ex) {
+            log.warn("Dọn blob không còn tham chiếu thất bại: {}", ex.getMessage());
+        }
+
+        if (removed > 0) {
+            log.info("Đã xóa {} blob không còn tham chiếu", removed);
+        }
+    }
+
+    private boolean deleteIfUnreferenced(String digest, LocalDateTime cutoff) {
+        FileBlobEntity blob = blobRepo.findForUpdate(digest).orElse(null);
+        if (blob == null || blob.getRefCount() > 0 || !blob.getUpdatedAt().isBefore(cutoff)) {
+            return false;
+        }
+
+        minioService.removeObject(blob.getObjectPath());
+        blobRepo.delete(blob);
+        return true;
+    }
+}
@@ -0,0 +1,26 @@
+package com.td.infrastructure.documents;
+
+/**
+ * Quy ước đặt tên object trên MinIO cho tệp tin của tài liệu.
+ */
+final class FileStoragePaths {
+
+    static final String DOCUMENT_CATEGORY = "DOCUMENT";
+
+    private FileStoragePaths() {
+    }
+
+    static String extractExtension(String fileName) {
+        if (fileName == null) return "";
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 ? fileName.substring(dot + 1).toLowerCase() : "";
+    }
+
+    static String storedName(Object fileId, String extension) {
+        return fileId + (extension.isEmpty() ? "" : "." + extension);
+    }
+
+    static String objectPath(Object documentId, String storedName) {
+        return "documents/" + documentId + "/" + storedName;
+    }
+}
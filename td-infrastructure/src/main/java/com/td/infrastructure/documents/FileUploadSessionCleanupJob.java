@@ -0,0 +1,53 @@
+package com.td.infrastructure.documents;
+
+import com.td.infrastructure.config.MinIOProperties;
+import com.td.infrastructure.persistence.entity.FileUploadSessionEntity;
+import com.td.infrastructure.persistence.repository.FileUploadSessionJpaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Dọn các phiên tải lên (chunked/presigned) quá hạn mà client bỏ dở, tránh object tạm nằm mãi trên MinIO.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileUploadSessionCleanupJob {
+
+    private final FileUploadSessionJpaRepository uploadSessionRepo;
+    private final ChunkedUploadSupport chunkedUploadSupport;
+    private final MinIOProperties minioProperties;
+
+    @Scheduled(
+        initialDelayString = "${app.minio.chunked-upload.cleanup-initial-delay:PT5M}",
+        fixedDelayString = "${app.minio.chunked-upload.cleanup-delay:PT30M}")
+    public void cleanupExpiredSessions() {
+        int batchSize = Math.max(1, minioProperties.getChunkedUpload().getCleanupBatchSize());
+        int aborted = 0;
+        try {
+            while (true) {
+                List<FileUploadSessionEntity> expired =
+                    uploadSessionRepo.findExpiredPending(LocalDateTime.now(), PageRequest.of(0, batchSize));
+                for (FileUploadSessionEntity session : expired) {
+                    chunkedUploadSupport.abort(session);
+                    aborted++;
+                }
+                if (expired.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception ex) {
+            log.warn("Dọn phiên tải lên quá hạn thất bại: {}", ex.getMessage());
+        }
+
+        if (aborted > 0) {
+            log.info("Đã hủy {} phiên tải lên quá hạn", aborted);
+        }
+    }
+}
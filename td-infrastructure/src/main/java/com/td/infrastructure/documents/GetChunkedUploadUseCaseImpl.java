@@ -0,0 +1,35 @@
+package com.td.infrastructure.documents;
+
+import com.td.application.common.models.Result;
+import com.td.application.documents.ChunkedUploadDto;
+import com.td.application.documents.ChunkedUploadRequest;
+import com.td.application.documents.GetChunkedUploadUseCase;
+import com.td.infrastructure.persistence.entity.FileUploadSessionEntity;
+import com.td.infrastructure.persistence.repository.FileUploadPartJpaRepository;
+import com.td.infrastructure.persistence.repository.FileUploadSessionJpaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class GetChunkedUploadUseCaseImpl implements GetChunkedUploadUseCase {
+
+    private final FileUploadSessionJpaRepository uploadSessionRepo;
+    private final FileUploadPartJpaRepository uploadPartRepo;
+    private final ChunkedUploadSupport chunkedUploadSupport;
+
+    @Override
+    public Result<ChunkedUploadDto> execute(ChunkedUploadRequest request) {
+        Optional<FileUploadSessionEntity> opt = uploadSessionRepo
+                .findByIdAndDocumentId(request.getUploadId(), request.getDocumentId());
+        if (opt.isEmpty() || !FileUploadSessionEntity.MODE_CHUNKED.equals(opt.get().getUploadMode())) {
+            return Result.failure("Phiên tải lên không tồn tại");
+        }
+
+        FileUploadSessionEntity session = opt.get();
+        return Result.success(chunkedUploadSupport.toDto(
+                session, uploadPartRepo.findAllBySessionIdOrderByPartNumberAsc(session.getId())));
+    }
+}
@@ -0,0 +1,45 @@
+package com.td.infrastructure.documents;
+
+import com.td.application.common.models.Result;
+import com.td.application.documents.FileDto;
+import com.td.application.documents.GetFilePreviewRequest;
+import com.td.application.documents.GetFilePreviewUseCase;
+import com.td.infrastructure.persistence.entity.FileMetadataEntity;
+import com.td.infrastructure.persistence.repository.FileMetadataJpaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class GetFilePreviewUseCaseImpl implements GetFilePreviewUseCase {
+
+    private final FileMetadataJpaRepository fileMetadataRepo;
+
+    @Override
+    public Result<FileDto> execute(GetFilePreviewRequest request) {
+        if (fileMetadataRepo.findByIdAndDocumentId(request.getFileId(), request.getDocumentId()).isEmpty()) {
+            return Result.failure("File không tìm thấy");
+        }
+
+        Optional<FileMetadataEntity> opt = fileMetadataRepo
+                .findFirstBySourceFileIdAndVariant(request.getFileId(), request.getVariant());
+        if (opt.isEmpty()) {
+            return Result.failure("Ảnh xem trước chưa sẵn sàng");
+        }
+        FileMetadataEntity e = opt.get();
+        return Result.success(FileDto.builder()
+                .fileId(e.getId())
+                .documentId(request.getDocumentId())
+                .fileName(e.getStoredFilename())
+                .originalFileName(e.getOriginalFilename())
+                .fileSize(e.getFileSize())
+                .mimeType(e.getContentType())
+                .uploadDate(e.getUploadedAt())
+                .storagePath(e.getFilePath())
+                .isPrimary(false)
+                .version(1)
+                .build());
+    }
+}
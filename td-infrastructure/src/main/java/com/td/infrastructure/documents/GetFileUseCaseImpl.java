@@ -37,6 +37,7 @@ public class GetFileUseCaseImpl implements GetFileUseCase {
                 .storagePath(e.getFilePath())
                 .isPrimary(false)
                 .version(1)
+                .checksum(e.getContentDigest())
                 .build());
     }
 }
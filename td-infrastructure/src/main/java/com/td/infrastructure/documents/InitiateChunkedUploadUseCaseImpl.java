@@ -0,0 +1,87 @@
+package com.td.infrastructure.documents;
+
+import com.td.application.common.models.Result;
+import com.td.application.documents.ChunkedUploadDto;
+import com.td.application.documents.DocumentRepository;
+import com.td.application.documents.InitiateChunkedUploadRequest;
+import com.td.application.documents.InitiateChunkedUploadUseCase;
+import com.td.infrastructure.config.MinIOProperties;
+import com.td.infrastructure.persistence.entity.FileUploadSessionEntity;
+import com.td.infrastructure.persistence.repository.FileUploadSessionJpaRepository;
+import com.td.infrastructure.security.CurrentUserContextResolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InitiateChunkedUploadUseCaseImpl implements InitiateChunkedUploadUseCase {
+
+    private final MinIOProperties minioProperties;
+    private final FileUploadSessionJpaRepository uploadSessionRepo;
+    private final ChunkedUploadSupport chunkedUploadSupport;
+    private final DocumentRepository documentRepository;
+    private final CurrentUserContextResolver currentUserContextResolver;
+
+    @Override
+    public Result<ChunkedUploadDto> execute(InitiateChunkedUploadRequest request) {
+        if (request.getDocumentId() == null) {
+            return Result.failure("Document ID không được để trống");
+        }
+        if (!StringUtils.hasText(request.getFileName())) {
+            return Result.failure("File name không được để trống");
+        }
+        if (request.getFileSize() == null || request.getFileSize() <= 0) {
+            return Result.failure("File size không hợp lệ");
+        }
+        // file_metadata.document_id không có khóa ngoại: kiểm tra trước khi client tải lên từng phần
+        if (documentRepository.findById(request.getDocumentId()).filter(document -> !document.isDeleted()).isEmpty()) {
+            return Result.failure("Document không tồn tại hoặc đã bị xóa");
+        }
+
+        MinIOProperties.ChunkedUpload config = minioProperties.getChunkedUpload();
+        long partSize = request.getPartSize() != null ? request.getPartSize() : config.getDefaultPartSize();
+        if (partSize < config.getMinPartSize() || partSize > config.getMaxPartSize()) {
+            return Result.failure("Part size phải nằm trong khoảng " + config.getMinPartSize()
+                    + " - " + config.getMaxPartSize() + " bytes");
+        }
+
+        long totalParts = (request.getFileSize() + partSize - 1) / partSize;
+        if (totalParts > config.getMaxParts()) {
+            return Result.failure("Tệp quá lớn so với part size, vượt quá " + config.getMaxParts() + " phần");
+        }
+
+        UUID uploadId = UUID.randomUUID();
+        String extension = FileStoragePaths.extractExtension(request.getFileName());
+        String storedName = FileStoragePaths.storedName(uploadId, extension);
+        LocalDateTime now = LocalDateTime.now();
+
+        FileUploadSessionEntity session = uploadSessionRepo.save(FileUploadSessionEntity.builder()
+                .id(uploadId)
+                .documentId(request.getDocumentId())
+                .uploadMode(FileUploadSessionEntity.MODE_CHUNKED)
+                .status(FileUploadSessionEntity.STATUS_PENDING)
+                .objectPath(FileStoragePaths.objectPath(request.getDocumentId(), storedName))
+                .originalFilename(request.getFileName())
+                .storedFilename(storedName)
+                .fileExtension(extension.isEmpty() ? null : extension)
+                .contentType(StringUtils.hasText(request.getMimeType()) ? request.getMimeType() : null)
+                .declaredSize(request.getFileSize())
+                .description(request.getDescription())
+                .uploadedBy(currentUserContextResolver.resolveCurrentUserUuid().orElse(null))
+                .partSize(partSize)
+                .totalParts((int) totalParts)
+                .createdAt(now)
+                .expiresAt(now.plus(config.getSessionTtl()))
+                .build());
+
+        log.info("Initiated chunked upload {} ({} parts) for document {}", uploadId, totalParts, request.getDocumentId());
+        return Result.success(chunkedUploadSupport.toDto(session, List.of()));
+    }
+}
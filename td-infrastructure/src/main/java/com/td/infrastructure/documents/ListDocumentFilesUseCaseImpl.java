@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -21,6 +22,12 @@ public class ListDocumentFilesUseCaseImpl implements ListDocumentFilesUseCase {
     @Override
     public PaginationResponse<FileDto> execute(UUID documentId) {
         List<FileMetadataEntity> entities = fileMetadataRepo.findAllByDocumentId(documentId);
+        Set<UUID> withPreview = entities.isEmpty()
+                ? Set.of()
+                : fileMetadataRepo.findAllBySourceFileIdIn(entities.stream().map(FileMetadataEntity::getId).toList())
+                    .stream()
+                    .map(FileMetadataEntity::getSourceFileId)
+                    .collect(Collectors.toSet());
         List<FileDto> items = entities.stream().map(e -> FileDto.builder()
                 .fileId(e.getId())
                 .documentId(e.getDocumentId())
@@ -33,6 +40,8 @@ public class ListDocumentFilesUseCaseImpl implements ListDocumentFilesUseCase {
                 .storagePath(e.getFilePath())
                 .isPrimary(false)
                 .version(1)
+                .checksum(e.getContentDigest())
+                .hasPreview(withPreview.contains(e.getId()))
                 .build()
         ).collect(Collectors.toList());
 
@@ -0,0 +1,326 @@
+package com.td.infrastructure.documents;
+
+import com.td.application.documents.OrphanedFilesReportDto;
+import com.td.infrastructure.config.MinIOProperties;
+import com.td.infrastructure.config.MinioService;
+import com.td.infrastructure.persistence.entity.FileMetadataEntity;
+import com.td.infrastructure.persistence.repository.FileMetadataJpaRepository;
+import com.td.infrastructure.persistence.repository.FilePreviewJobJpaRepository;
+import com.td.infrastructure.persistence.repository.FileTextExtractionJpaRepository;
+import com.td.infrastructure.persistence.repository.FileUploadPartJpaRepository;
+import com.td.infrastructure.persistence.repository.FileUploadSessionJpaRepository;
+import io.minio.messages.Item;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Dọn tệp mồ côi giữa MinIO và file_metadata.
+ *
+ * <p>Bước 1 xóa bản ghi file_metadata của tài liệu đã xóa cứng (hoặc xóa mềm quá hạn giữ lại) cùng object
+ * của chúng. Bước 2 liệt kê bucket theo prefix, từng batch đối chiếu với file_metadata và phiên tải lên đang mở,
+ * rồi xóa object không ai tham chiếu bằng một request DeleteObjects. Vị trí quét bucket được giữ giữa các lần
+ * chạy nên mỗi lần chỉ xử lý một phần bucket.</p>
+ */
+@Slf4j
+@Component
+public class OrphanedFileGcJob {
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final FileMetadataJpaRepository fileMetadataRepo;
+    private final FileUploadSessionJpaRepository uploadSessionRepo;
+    private final FileUploadPartJpaRepository uploadPartRepo;
+    private final FilePreviewJobJpaRepository previewJobRepo;
+    private final FileTextExtractionJpaRepository textExtractionRepo;
+    private final ContentAddressedStorage contentAddressedStorage;
+    private final MinioService minioService;
+    private final MinIOProperties minioProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // Vị trí quét bucket; khởi động lại thì quét lại từ đầu, không ảnh hưởng tính đúng
+    private int prefixIndex;
+    private String objectCursor;
+
+    public OrphanedFileGcJob(
+            FileMetadataJpaRepository fileMetadataRepo,
+            FileUploadSessionJpaRepository uploadSessionRepo,
+            FileUploadPartJpaRepository uploadPartRepo,
+            FilePreviewJobJpaRepository previewJobRepo,
+            FileTextExtractionJpaRepository textExtractionRepo,
+            ContentAddressedStorage contentAddressedStorage,
+            MinioService minioService,
+            MinIOProperties minioProperties,
+            PlatformTransactionManager transactionManager) {
+        this.fileMetadataRepo = fileMetadataRepo;
+        this.uploadSessionRepo = uploadSessionRepo;
+        this.uploadPartRepo = uploadPartRepo;
+        this.previewJobRepo = previewJobRepo;
+        this.textExtractionRepo = textExtractionRepo;
+        this.contentAddressedStorage = contentAddressedStorage;
+        this.minioService = minioService;
+        this.minioProperties = minioProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.minio.orphan-gc.initial-delay:PT15M}",
+        fixedDelayString = "${app.minio.orphan-gc.fixed-delay:PT6H}")
+    public void scheduledCollect() {
+        MinIOProperties.OrphanGc config = minioProperties.getOrphanGc();
+        if (!config.isEnabled() || running.get()) {
+            return;
+        }
+
+        try {
+            collect(config.isDryRun());
+        } catch (Exception ex) {
+            log.warn("Dọn tệp mồ côi thất bại: {}", ex.getMessage());
+        }
+    }
+
+    public OrphanedFilesReportDto collect(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Job dọn tệp mồ côi đang chạy");
+        }
+
+        try {
+            return run(minioProperties.getOrphanGc(), dryRun);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private OrphanedFilesReportDto run(MinIOProperties.OrphanGc config, boolean dryRun) {
+        Report report = new Report(Math.max(0, config.getReportSampleSize()));
+        LocalDateTime startedAt = LocalDateTime.now();
+        String message;
+
+        try {
+            collectOrphanedFiles(config, dryRun, startedAt, report);
+            boolean passCompleted = collectOrphanedObjects(config, dryRun, startedAt, report);
+            message = passCompleted
+                ? "Đã quét hết bucket, lần chạy sau bắt đầu lại từ đầu"
+                : "Lần chạy sau tiếp tục từ object " + report.cursor;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            message = "Job dọn tệp mồ côi bị dừng giữa chừng";
+        } catch (Exception ex) {
+            log.warn("Dọn tệp mồ côi dừng tại object {}: {}", report.cursor, ex.getMessage());
+            message = "Dừng do lỗi: " + ex.getMessage();
+        }
+
+        if (dryRun) {
+            log.info("Dry-run dọn tệp mồ côi: {} bản ghi, {} object ({} bytes) mồ côi",
+                report.orphanedFiles, report.orphanedObjects, report.orphanedBytes);
+        } else if (report.deletedFiles > 0 || report.deletedObjects > 0) {
+            log.info("Dọn tệp mồ côi: xóa {} bản ghi file_metadata, {} object ({} bytes)",
+                report.deletedFiles, report.deletedObjects, report.orphanedBytes);
+        }
+
+        return OrphanedFilesReportDto.builder()
+            .dryRun(dryRun)
+            .startedAt(startedAt)
+            .finishedAt(LocalDateTime.now())
+            .orphanedFiles(report.orphanedFiles)
+            .deletedFiles(report.deletedFiles)
+            .scannedObjects(report.scannedObjects)
+            .orphanedObjects(report.orphanedObjects)
+            .orphanedBytes(report.orphanedBytes)
+            .deletedObjects(report.deletedObjects)
+            .sampleFileIds(report.sampleFileIds)
+            .sampleObjectPaths(report.sampleObjectPaths)
+            .cursor(report.cursor)
+            .message(message)
+            .build();
+    }
+
+    private void collectOrphanedFiles(
+            MinIOProperties.OrphanGc config,
+            boolean dryRun,
+            LocalDateTime now,
+            Report report) throws InterruptedException {
+        LocalDateTime uploadedBefore = now.minus(config.getObjectGracePeriod());
+        LocalDateTime deletedBefore = now.minus(config.getSoftDeletedRetention());
+        int batchSize = Math.max(1, config.getBatchSize());
+        UUID afterId = MIN_UUID;
+
+        for (int batch = 0; batch < Math.max(1, config.getMaxBatchesPerRun()); batch++) {
+            List<FileMetadataEntity> orphans =
+                fileMetadataRepo.findOrphaned(uploadedBefore, deletedBefore, afterId, batchSize);
+            if (orphans.isEmpty()) {
+                return;
+            }
+            afterId = orphans.get(orphans.size() - 1).getId();
+
+            report.orphanedFiles += orphans.size();
+            for (FileMetadataEntity orphan : orphans) {
+                report.sampleFile(orphan.getId());
+            }
+
+            if (!dryRun) {
+                List<String> objectPaths = new ArrayList<>();
+                Integer deleted = transactionTemplate.execute(status -> deleteFiles(orphans, objectPaths));
+                report.deletedFiles += deleted == null ? 0 : deleted;
+                // Object xóa lỗi sẽ được bước quét bucket nhặt lại ở lần sau
+                report.deletedObjects += objectPaths.size() - minioService.removeObjects(objectPaths);
+            }
+
+            if (orphans.size() < batchSize) {
+                return;
+            }
+            throttle(config);
+        }
+    }
+
+    private int deleteFiles(List<FileMetadataEntity> orphans, List<String> objectPaths) {
+        int deleted = 0;
+        List<UUID> ids = new ArrayList<>(orphans.size());
+        for (FileMetadataEntity orphan : orphans) {
+            // Node khác đã xóa trước thì bỏ qua, tránh giảm tham chiếu blob hai lần
+            if (fileMetadataRepo.removeById(orphan.getId()) == 0) {
+                continue;
+            }
+            deleted++;
+            ids.add(orphan.getId());
+            if (orphan.getContentDigest() != null) {
+                contentAddressedStorage.release(orphan.getContentDigest());
+            } else {
+                objectPaths.add(orphan.getFilePath());
+            }
+        }
+
+        if (!ids.isEmpty()) {
+            previewJobRepo.deleteAllByIdInBatch(ids);
+            textExtractionRepo.deleteAllByIdInBatch(ids);
+        }
+        return deleted;
+    }
+
+    /**
+     * @return true nếu đã quét hết mọi prefix trong lần chạy này
+     */
+    private boolean collectOrphanedObjects(
+            MinIOProperties.OrphanGc config,
+            boolean dryRun,
+            LocalDateTime now,
+            Report report) throws InterruptedException {
+        List<String> prefixes = config.getPrefixes();
+        if (prefixes == null || prefixes.isEmpty()) {
+            return true;
+        }
+
+        ZonedDateTime cutoff = now.minus(config.getObjectGracePeriod()).atZone(ZoneId.systemDefault());
+        int batchSize = Math.max(1, config.getBatchSize());
+        // Dry-run không được làm lệch vị trí quét của job thật
+        int index = prefixIndex < prefixes.size() ? prefixIndex : 0;
+        String cursor = objectCursor;
+        boolean passCompleted = false;
+
+        try {
+            for (int batch = 0; batch < Math.max(1, config.getMaxBatchesPerRun()); batch++) {
+                String prefix = prefixes.get(index);
+                List<Item> items = minioService.listObjects(prefix, cursor, batchSize);
+                report.scannedObjects += items.size();
+
+                List<Item> orphans = findUnreferenced(items, cutoff);
+                List<String> orphanPaths = new ArrayList<>(orphans.size());
+                for (Item orphan : orphans) {
+                    orphanPaths.add(orphan.objectName());
+                    report.orphanedBytes += orphan.size();
+                    report.sampleObject(orphan.objectName());
+                }
+                report.orphanedObjects += orphans.size();
+                if (!dryRun && !orphanPaths.isEmpty()) {
+                    report.deletedObjects += orphanPaths.size() - minioService.removeObjects(orphanPaths);
+                }
+
+                if (items.size() < batchSize) {
+                    index++;
+                    cursor = null;
+                    if (index >= prefixes.size()) {
+                        index = 0;
+                        passCompleted = true;
+                        break;
+                    }
+                } else {
+                    cursor = items.get(items.size() - 1).objectName();
+                }
+                throttle(config);
+            }
+        } finally {
+            report.cursor = cursor;
+            if (!dryRun) {
+                prefixIndex = index;
+                objectCursor = cursor;
+            }
+        }
+        return passCompleted;
+    }
+
+    private List<Item> findUnreferenced(List<Item> items, ZonedDateTime cutoff) {
+        List<Item> candidates = items.stream()
+            .filter(item -> item.lastModified() != null && item.lastModified().isBefore(cutoff))
+            .toList();
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        List<String> paths = candidates.stream().map(Item::objectName).toList();
+        Set<String> referenced = new HashSet<>(fileMetadataRepo.findExistingFilePaths(paths));
+        referenced.addAll(uploadSessionRepo.findPendingObjectPaths(paths));
+        referenced.addAll(uploadPartRepo.findExistingObjectPaths(paths));
+        return candidates.stream()
+            .filter(item -> !referenced.contains(item.objectName()))
+            .toList();
+    }
+
+    private void throttle(MinIOProperties.OrphanGc config) throws InterruptedException {
+        if (config.getThrottleMillis() > 0) {
+            Thread.sleep(config.getThrottleMillis());
+        }
+    }
+
+    private static final class Report {
+
+        private final int sampleSize;
+        private final List<UUID> sampleFileIds = new ArrayList<>();
+        private final List<String> sampleObjectPaths = new ArrayList<>();
+        private long orphanedFiles;
+        private long deletedFiles;
+        private long scannedObjects;
+        private long orphanedObjects;
+        private long orphanedBytes;
+        private long deletedObjects;
+        private String cursor;
+
+        private Report(int sampleSize) {
+            this.sampleSize = sampleSize;
+        }
+
+        private void sampleFile(UUID fileId) {
+            if (sampleFileIds.size() < sampleSize) {
+                sampleFileIds.add(fileId);
+            }
+        }
+
+        private void sampleObject(String objectPath) {
+            if (sampleObjectPaths.size() < sampleSize) {
+                sampleObjectPaths.add(objectPath);
+            }
+        }
+    }
+}
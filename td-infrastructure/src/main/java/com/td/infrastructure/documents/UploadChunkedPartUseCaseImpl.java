@@ -0,0 +1,72 @@
+package com.td.infrastructure.documents;
+
+import com.td.application.common.models.Result;
+import com.td.application.documents.ChunkedUploadPartDto;
+import com.td.application.documents.UploadChunkedPartRequest;
+import com.td.application.documents.UploadChunkedPartUseCase;
+import com.td.infrastructure.config.MinioService;
+import com.td.infrastructure.persistence.entity.FileUploadPartEntity;
+import com.td.infrastructure.persistence.entity.FileUploadSessionEntity;
+import com.td.infrastructure.persistence.repository.FileUploadPartJpaRepository;
+import com.td.infrastructure.persistence.repository.FileUploadSessionJpaRepository;
+import io.minio.ObjectWriteResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Nhận một phần của chunked upload. Các phần độc lập nhau nên client có thể gửi song song;
+ * gửi lại cùng part_number sẽ ghi đè phần cũ (retry an toàn).
+ */
+@Service
+@RequiredArgsConstructor
+public class UploadChunkedPartUseCaseImpl implements UploadChunkedPartUseCase {
+
+    private static final String PART_CONTENT_TYPE = "application/octet-stream";
+
+    private final MinioService minioService;
+    private final FileUploadSessionJpaRepository uploadSessionRepo;
+    private final FileUploadPartJpaRepository uploadPartRepo;
+    private final ChunkedUploadSupport chunkedUploadSupport;
+
+    @Override
+    public Result<ChunkedUploadPartDto> execute(UploadChunkedPartRequest request) {
+        Optional<FileUploadSessionEntity> opt = uploadSessionRepo
+                .findByIdAndDocumentId(request.getUploadId(), request.getDocumentId());
+        if (opt.isEmpty() || !FileUploadSessionEntity.MODE_CHUNKED.equals(opt.get().getUploadMode())) {
+            return Result.failure("Phiên tải lên không tồn tại");
+        }
+
+        FileUploadSessionEntity session = opt.get();
+        if (!session.isPending()) {
+            return Result.failure("Phiên tải lên không còn nhận dữ liệu (" + session.getStatus() + ")");
+        }
+        if (session.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return Result.failure("Phiên tải lên đã hết hạn");
+        }
+        if (request.getPartNumber() < 1 || request.getPartNumber() > session.getTotalParts()) {
+            return Result.failure("Part number phải nằm trong khoảng 1 - " + session.getTotalParts());
+        }
+
+        long expectedSize = ChunkedUploadSupport.expectedPartSize(session, request.getPartNumber());
+        if (request.getContentLength() >= 0 && request.getContentLength() != expectedSize) {
+            return Result.failure("Phần " + request.getPartNumber() + " phải có đúng " + expectedSize + " bytes");
+        }
+
+        String objectPath = ChunkedUploadSupport.partObjectPath(session.getId(), request.getPartNumber());
+        ObjectWriteResponse response = minioService.uploadObject(
+                objectPath, request.getContent(), expectedSize, PART_CONTENT_TYPE);
+
+        FileUploadPartEntity part = uploadPartRepo.save(FileUploadPartEntity.builder()
+                .sessionId(session.getId())
+                .partNumber(request.getPartNumber())
+                .objectPath(objectPath)
+                .partSize(expectedSize)
+                .etag(response != null ? response.etag() : null)
+                .uploadedAt(LocalDateTime.now())
+                .build());
+        return Result.success(chunkedUploadSupport.toPartDto(part));
+    }
+}
@@ -0,0 +1,93 @@
+package com.td.infrastructure.documents;
+
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.mime.MimeTypes;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+
+/**
+ * Xác định MIME type từ vài KB đầu của stream tải lên mà không đọc lại tệp: phần đầu được giữ trong bộ nhớ
+ * và nối lại trước phần còn lại, nên MinIO vẫn nhận stream gốc trong cùng một lượt đọc.
+ */
+final class UploadContentInspector {
+
+    private static final int SNIFF_BYTES = 8 * 1024;
+    private static final String GENERIC_TYPE = "application/octet-stream";
+    private static final MimeTypes MIME_TYPES = MimeTypes.getDefaultMimeTypes();
+
+    private UploadContentInspector() {
+    }
+
+    record InspectedContent(InputStream content, String contentType) {
+    }
+
+    /**
+     * @param maxSize giới hạn số byte đọc được, vượt quá thì stream ném IOException; {@code <= 0} để bỏ qua
+     */
+    static InspectedContent inspect(InputStream content, String fileName, String declaredType, long maxSize)
+            throws IOException {
+        InputStream source = maxSize > 0 ? new SizeLimitedInputStream(content, maxSize) : content;
+        byte[] head = source.readNBytes(SNIFF_BYTES);
+
+        // Ưu tiên kiểu nhận diện từ nội dung, client khai báo sai (vd. HTML gắn nhãn PDF) không được tin
+        String detected = detect(head, fileName);
+        String contentType = !GENERIC_TYPE.equals(detected) ? detected
+                : StringUtils.hasText(declaredType) ? declaredType : GENERIC_TYPE;
+        return new InspectedContent(new SequenceInputStream(new ByteArrayInputStream(head), source), contentType);
+    }
+
+    private static String detect(byte[] head, String fileName) {
+        Metadata metadata = new Metadata();
+        if (fileName != null) {
+            metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, fileName);
+        }
+        try (TikaInputStream stream = TikaInputStream.get(head)) {
+            return MIME_TYPES.detect(stream, metadata).toString();
+        } catch (IOException ex) {
+            return GENERIC_TYPE;
+        }
+    }
+
+    private static final class SizeLimitedInputStream extends FilterInputStream {
+
+        private final long maxSize;
+        private long count;
+
+        private SizeLimitedInputStream(InputStream in, long maxSize) {
+            super(in);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                advance(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                advance(read);
+            }
+            return read;
+        }
+
+        private void advance(long read) throws IOException {
+            count += read;
+            if (count > maxSize) {
+                throw new IOException("Tệp vượt quá kích thước tối đa " + maxSize + " bytes");
+            }
+        }
+    }
+}
@@ -2,63 +2,155 @@ package com.td.infrastructure.documents;
 
 import com.td.application.common.models.Result;
 import com.td.application.documents.DocumentCacheService;
+import com.td.application.documents.DocumentRepository;
 import com.td.application.documents.UploadFileRequest;
 import com.td.application.documents.UploadFileUseCase;
+import com.td.infrastructure.config.MinIOProperties;
 import com.td.infrastructure.config.MinioService;
 import com.td.infrastructure.persistence.entity.FileMetadataEntity;
 import com.td.infrastructure.persistence.repository.FileMetadataJpaRepository;
-import lombok.RequiredArgsConstructor;
+import com.td.infrastructure.extraction.FileTextExtractionQueue;
+import com.td.infrastructure.preview.FilePreviewQueue;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * Tải tệp lên qua app server. Stream nội dung lên MinIO (đồng thời đo kích thước, tính SHA-256 và nhận dạng MIME)
+ * diễn ra ngoài transaction, nên client gửi chậm không giữ kết nối DB; transaction chỉ mở cho bước ghi ref_count,
+ * file_metadata và các hàng đợi xử lý. Ghi DB lỗi thì object vừa tải lên bị xóa.
+ *
+ * <p>Document được kiểm tra trước khi đọc body, để request gửi tới document không tồn tại bị từ chối ngay thay vì
+ * stream cả tệp (tới {@code app.minio.streaming-upload.max-size}) rồi mới lỗi khi ghi metadata.</p>
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UploadFileUseCaseImpl implements UploadFileUseCase {
 
     private final MinioService minioService;
+    private final MinIOProperties minioProperties;
+    private final ContentAddressedStorage contentAddressedStorage;
+    private final DocumentRepository documentRepository;
     private final FileMetadataJpaRepository fileMetadataRepo;
     private final DocumentCacheService documentCacheService;
+    private final FilePreviewQueue filePreviewQueue;
+    private final FileTextExtractionQueue fileTextExtractionQueue;
+    private final TransactionTemplate transactionTemplate;
+
+    public UploadFileUseCaseImpl(
+            MinioService minioService,
+            MinIOProperties minioProperties,
+            ContentAddressedStorage contentAddressedStorage,
+            DocumentRepository documentRepository,
+            FileMetadataJpaRepository fileMetadataRepo,
+            DocumentCacheService documentCacheService,
+            FilePreviewQueue filePreviewQueue,
+            FileTextExtractionQueue fileTextExtractionQueue,
+            PlatformTransactionManager transactionManager) {
+        this.minioService = minioService;
+        this.minioProperties = minioProperties;
+        this.contentAddressedStorage = contentAddressedStorage;
+        this.documentRepository = documentRepository;
+        this.fileMetadataRepo = fileMetadataRepo;
+        this.documentCacheService = documentCacheService;
+        this.filePreviewQueue = filePreviewQueue;
+        this.fileTextExtractionQueue = fileTextExtractionQueue;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     @Override
     public Result<UUID> execute(UploadFileRequest request) {
         UUID fileId = UUID.randomUUID();
-        String extension = extractExtension(request.getFileName());
-        String storedName = fileId + (extension.isEmpty() ? "" : "." + extension);
-        String objectPath = "documents/" + request.getDocumentId() + "/" + storedName;
+        String extension = FileStoragePaths.extractExtension(request.getFileName());
+        String storedName = FileStoragePaths.storedName(fileId, extension);
+        long declaredSize = request.getFileSize() != null ? request.getFileSize() : -1;
+        long maxSize = minioProperties.getStreamingUpload().getMaxSize();
+        if (declaredSize > maxSize) {
+            return Result.failure("Tệp vượt quá kích thước tối đa " + maxSize + " bytes");
+        }
+        if (documentRepository.findById(request.getDocumentId()).filter(document -> !document.isDeleted()).isEmpty()) {
+            return Result.failure("Document không tồn tại hoặc đã bị xóa");
+        }
+
+        // Kích thước, SHA-256 (khi bật dedup) và MIME type đều được tính trong lúc stream lên MinIO
+        UploadContentInspector.InspectedContent inspected;
+        try {
+            inspected = UploadContentInspector.inspect(
+                    request.getFileContent(), request.getFileName(), request.getMimeType(), maxSize);
+        } catch (IOException e) {
+            return Result.failure("Không đọc được nội dung tệp: " + e.getMessage());
+        }
+        InputStream content = inspected.content();
+        String contentType = inspected.contentType();
+
+        if (minioProperties.getDedup().isEnabled()) {
+            ContentAddressedStorage.StagedContent staged = contentAddressedStorage.stage(content, declaredSize, contentType);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    ContentAddressedStorage.StoredBlob blob = contentAddressedStorage.commit(staged);
+                    saveMetadata(request, fileId, storedName, extension, blob.objectPath(), blob.size(),
+                            contentType, blob.digest());
+                });
+            } catch (RuntimeException ex) {
+                // commit() tự dọn object tạm khi transaction kết thúc; gọi lại để chắc chắn khi lỗi xảy ra trước đó
+                contentAddressedStorage.discard(staged);
+                throw ex;
+            }
+        } else {
+            String objectPath = FileStoragePaths.objectPath(request.getDocumentId(), storedName);
+            minioService.uploadObject(objectPath, content, declaredSize, contentType);
+            long fileSize = Math.max(declaredSize, 0L);
+            if (declaredSize < 0) {
+                // Body không có Content-Length: lấy kích thước thực tế từ object vừa ghi
+                fileSize = minioService.statObject(objectPath).map(stat -> stat.size()).orElse(0L);
+            }
+            long storedSize = fileSize;
+            try {
+                transactionTemplate.executeWithoutResult(status -> saveMetadata(
+                        request, fileId, storedName, extension, objectPath, storedSize, contentType, null));
+            } catch (RuntimeException ex) {
+                minioService.removeObject(objectPath);
+                throw ex;
+            }
+        }
 
-        minioService.uploadObject(objectPath, request.getFileContent(),
-                request.getFileSize() != null ? request.getFileSize() : -1,
-                request.getMimeType());
+        documentCacheService.evictAllListCaches();
+        log.info("Uploaded file {} for document {}", fileId, request.getDocumentId());
+        return Result.success(fileId);
+    }
 
-        FileMetadataEntity entity = FileMetadataEntity.builder()
+    private void saveMetadata(
+            UploadFileRequest request,
+            UUID fileId,
+            String storedName,
+            String extension,
+            String objectPath,
+            long fileSize,
+            String contentType,
+            String contentDigest) {
+        fileMetadataRepo.save(FileMetadataEntity.builder()
                 .id(fileId)
                 .documentId(request.getDocumentId())
                 .originalFilename(request.getFileName())
                 .storedFilename(storedName)
                 .filePath(objectPath)
-                .fileSize(request.getFileSize() != null ? request.getFileSize() : 0L)
-                .contentType(request.getMimeType())
+                .fileSize(fileSize)
+                .contentType(contentType)
                 .fileExtension(extension.isEmpty() ? null : extension)
-                .fileCategory("DOCUMENT")
+                .fileCategory(FileStoragePaths.DOCUMENT_CATEGORY)
                 .bucketName(minioService.getBucketName())
                 .uploadedAt(LocalDateTime.now())
                 .isPublic(false)
                 .description(request.getDescription())
-                .build();
-
-        fileMetadataRepo.save(entity);
-        documentCacheService.evictAllListCaches();
-        log.info("Uploaded file {} for document {}", fileId, request.getDocumentId());
-        return Result.success(fileId);
-    }
-
-    private String extractExtension(String fileName) {
-        if (fileName == null) return "";
-        int dot = fileName.lastIndexOf('.');
-        return dot >= 0 ? fileName.substring(dot + 1).toLowerCase() : "";
+                .contentDigest(contentDigest)
+                .build());
+        filePreviewQueue.enqueue(fileId, contentType);
+        fileTextExtractionQueue.enqueue(fileId, request.getDocumentId(), contentType);
     }
 }
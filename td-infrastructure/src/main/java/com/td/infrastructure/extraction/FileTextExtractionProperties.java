@@ -0,0 +1,22 @@
+package com.td.infrastructure.extraction;
+
+import com.td.infrastructure.jobs.LeasedJobProperties;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "app.text-extraction")
+@Data
+public class FileTextExtractionProperties implements LeasedJobProperties {
+    private boolean enabled = true;
+    // Parse Office/PDF tốn CPU và bộ nhớ, chạy ít luồng để không tranh tài nguyên với request
+    private int workerThreads = 1;
+    private int maxAttempts = 3;
+    private long retryDelaySeconds = 60;
+    private long leaseSeconds = 600;
+    // Tệp lớn hơn ngưỡng này không trích xuất
+    private long maxSourceBytes = 50L * 1024 * 1024;
+    // Số ký tự tối đa giữ lại cho mỗi tệp, phần sau bị cắt
+    private int maxCharsPerFile = 200_000;
+}
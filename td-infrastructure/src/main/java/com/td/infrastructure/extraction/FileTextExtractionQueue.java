@@ -0,0 +1,68 @@
+package com.td.infrastructure.extraction;
+
+import com.td.infrastructure.persistence.entity.FileTextExtractionEntity;
+import com.td.infrastructure.persistence.repository.FileTextExtractionJpaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Đưa tệp vừa tải lên vào hàng đợi trích xuất văn bản. Job được ghi cùng transaction với file_metadata,
+ * worker chỉ được đánh thức sau khi transaction commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class FileTextExtractionQueue {
+
+    private final FileTextExtractionJpaRepository extractionRepo;
+    private final FileTextExtractionProperties properties;
+    private final FileTextExtractionWorker worker;
+
+    public void enqueue(UUID fileId, UUID documentId, String contentType) {
+        if (!properties.isEnabled() || documentId == null || !FileTextExtractor.supports(contentType)) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        extractionRepo.save(FileTextExtractionEntity.builder()
+            .fileId(fileId)
+            .documentId(documentId)
+            .status(FileTextExtractionEntity.STATUS_PENDING)
+            .attempts(0)
+            .availableAt(now)
+            .createdAt(now)
+            .updatedAt(now)
+            .build());
+
+        afterCommit(worker::wakeUp);
+    }
+
+    /**
+     * Xóa văn bản của tệp bị xóa và cập nhật lại index của tài liệu sau khi transaction commit.
+     */
+    public void remove(UUID fileId, UUID documentId) {
+        if (!extractionRepo.existsById(fileId)) {
+            return;
+        }
+
+        extractionRepo.deleteById(fileId);
+        afterCommit(() -> worker.reindexDocument(documentId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
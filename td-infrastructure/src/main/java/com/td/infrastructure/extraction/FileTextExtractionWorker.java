@@ -0,0 +1,120 @@
+package com.td.infrastructure.extraction;
+
+import com.td.application.documents.DocumentRepository;
+import com.td.application.documents.DocumentSearchService;
+import com.td.infrastructure.config.MinioService;
+import com.td.infrastructure.jobs.LeasedJobRunner;
+import com.td.infrastructure.persistence.entity.FileMetadataEntity;
+import com.td.infrastructure.persistence.repository.FileMetadataJpaRepository;
+import com.td.infrastructure.persistence.repository.FileTextExtractionJpaRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Worker xử lý hàng đợi file_text_extractions với số luồng cố định.
+ *
+ * <p>Văn bản được parse thẳng từ stream MinIO (Tika tự spool ra tệp tạm khi định dạng cần truy cập ngẫu nhiên),
+ * lưu vào bảng phụ rồi tài liệu được index lại để trường attachmentText có nội dung mới. Request API
+ * không bao giờ phải parse tệp. Việc nhận job bằng lease và thử lại do {@link LeasedJobRunner} đảm nhận.</p>
+ */
+@Slf4j
+@Component
+public class FileTextExtractionWorker {
+
+    private final FileTextExtractionJpaRepository extractionRepo;
+    private final FileMetadataJpaRepository fileMetadataRepo;
+    private final DocumentRepository documentRepository;
+    private final DocumentSearchService documentSearchService;
+    private final MinioService minioService;
+    private final FileTextExtractor extractor;
+    private final FileTextExtractionProperties properties;
+    private final LeasedJobRunner runner;
+
+    public FileTextExtractionWorker(
+            FileTextExtractionJpaRepository extractionRepo,
+            FileMetadataJpaRepository fileMetadataRepo,
+            DocumentRepository documentRepository,
+            DocumentSearchService documentSearchService,
+            MinioService minioService,
+            FileTextExtractor extractor,
+            FileTextExtractionProperties properties) {
+        this.extractionRepo = extractionRepo;
+        this.fileMetadataRepo = fileMetadataRepo;
+        this.documentRepository = documentRepository;
+        this.documentSearchService = documentSearchService;
+        this.minioService = minioService;
+        this.extractor = extractor;
+        this.properties = properties;
+        this.runner = new LeasedJobRunner("file-text-extraction", extractionRepo, properties, this::process);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdown();
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.text-extraction.poll-initial-delay:PT45S}",
+        fixedDelayString = "${app.text-extraction.poll-interval:PT30S}")
+    public void poll() {
+        wakeUp();
+    }
+
+    /**
+     * Yêu cầu quét hàng đợi; nhiều lần gọi dồn lại thành một lượt quét.
+     */
+    public void wakeUp() {
+        runner.wakeUp();
+    }
+
+    /**
+     * Index lại tài liệu ở luồng nền, dùng khi văn bản tệp đính kèm thay đổi.
+     */
+    public void reindexDocument(UUID documentId) {
+        runner.executeInBackground(() -> reindex(documentId));
+    }
+
+    private void process(UUID fileId) throws Exception {
+        FileMetadataEntity source = fileMetadataRepo.findById(fileId).orElse(null);
+        if (source == null) {
+            runner.finish(fileId, "Tệp gốc đã bị xóa");
+            return;
+        }
+        if (source.getFileSize() != null && source.getFileSize() > properties.getMaxSourceBytes()) {
+            runner.finish(fileId, "Bỏ qua: tệp vượt quá " + properties.getMaxSourceBytes() + " bytes");
+            return;
+        }
+
+        FileTextExtractor.ExtractedText extracted;
+        try (InputStream in = minioService.getObject(source.getFilePath())) {
+            extracted = extractor.extract(in, source.getContentType(), source.getOriginalFilename(),
+                properties.getMaxCharsPerFile());
+        }
+
+        extractionRepo.complete(fileId, runner.owner(), extracted.text(), extracted.text().length(),
+            extracted.truncated(), LocalDateTime.now());
+        if (!extracted.text().isEmpty()) {
+            reindex(source.getDocumentId());
+        }
+    }
+
+    private void reindex(UUID documentId) {
+        if (documentId == null) {
+            return;
+        }
+        try {
+            // Tài liệu đã xóa mềm đã được gỡ khỏi index, không được đưa trở lại
+            documentRepository.findById(documentId)
+                .filter(document -> !document.isDeleted())
+                .ifPresent(documentSearchService::index);
+        } catch (Exception ex) {
+            log.warn("Index lại document {} sau khi trích xuất văn bản thất bại: {}", documentId, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.td.infrastructure.extraction;
+
+import org.apache.tika.Tika;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Trích xuất văn bản thuần từ tệp đính kèm bằng Apache Tika, giới hạn số ký tự ngay trong lúc parse.
+ */
+@Component
+public class FileTextExtractor {
+
+    private static final List<String> SUPPORTED_PREFIXES = List.of(
+        "text/",
+        "application/pdf",
+        "application/rtf",
+        "application/msword",
+        "application/vnd.ms-excel",
+        "application/vnd.ms-powerpoint",
+        "application/vnd.openxmlformats-officedocument.",
+        "application/vnd.oasis.opendocument.");
+
+    // Facade Tika an toàn khi dùng chung giữa các luồng
+    private final Tika tika = new Tika();
+
+    public record ExtractedText(String text, boolean truncated) {
+    }
+
+    public static boolean supports(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String normalized = contentType.toLowerCase(Locale.ROOT);
+        return SUPPORTED_PREFIXES.stream().anyMatch(normalized::startsWith);
+    }
+
+    public ExtractedText extract(InputStream content, String contentType, String fileName, int maxChars)
+            throws IOException, TikaException {
+        Metadata metadata = new Metadata();
+        if (contentType != null) {
+            metadata.set(Metadata.CONTENT_TYPE, contentType);
+        }
+        if (fileName != null) {
+            metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, fileName);
+        }
+
+        // Đọc dư một ký tự để biết văn bản có bị cắt hay không
+        String raw = tika.parseToString(content, metadata, maxChars + 1);
+        boolean truncated = raw.length() > maxChars;
+        // PostgreSQL TEXT không nhận ký tự NUL; gộp khoảng trắng để văn bản lưu gọn hơn
+        String text = raw.replace('\u0000', ' ').replaceAll("\\s+", " ").trim();
+        if (text.length() > maxChars) {
+            text = text.substring(0, maxChars);
+        }
+        return new ExtractedText(text, truncated);
+    }
+}
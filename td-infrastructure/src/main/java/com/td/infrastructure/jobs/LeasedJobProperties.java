@@ -0,0 +1,17 @@
+package com.td.infrastructure.jobs;
+
+/**
+ * Cấu hình chung của một hàng đợi job nhận bằng lease; các lớp {@code @ConfigurationProperties} tương ứng implement.
+ */
+public interface LeasedJobProperties {
+
+    boolean isEnabled();
+
+    int getWorkerThreads();
+
+    int getMaxAttempts();
+
+    long getRetryDelaySeconds();
+
+    long getLeaseSeconds();
+}
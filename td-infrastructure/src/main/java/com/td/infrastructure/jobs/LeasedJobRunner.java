@@ -0,0 +1,173 @@
+package com.td.infrastructure.jobs;
+
+import com.td.infrastructure.persistence.repository.LeasedJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chạy một hàng đợi job nhận bằng lease trên DB với số luồng cố định.
+ *
+ * <p>Job được nhận bằng lease nên nhiều node có thể chạy song song; node chết giữa chừng thì job được nhận lại
+ * khi lease hết hạn. Một luồng dispatcher quét hàng đợi theo số slot còn trống, các lần {@link #wakeUp()} dồn lại
+ * thành một lượt quét. Callback xử lý tự kết thúc job ({@link #finish}, hoặc cập nhật riêng của bảng); nếu
+ * callback ném lỗi, job được trả lại hàng đợi với thời gian chờ tăng dần cho tới khi hết số lần thử.</p>
+ */
+@Slf4j
+public class LeasedJobRunner {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_DONE = "DONE";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @FunctionalInterface
+    public interface JobProcessor {
+        void process(UUID fileId) throws Exception;
+    }
+
+    private final String name;
+    private final LeasedJobRepository repository;
+    private final LeasedJobProperties properties;
+    private final JobProcessor processor;
+    private final ExecutorService workers;
+    private final ExecutorService dispatcher;
+    private final Semaphore slots;
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean(false);
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+
+    /**
+     * @param name tên hàng đợi, dùng làm tiền tố tên luồng và trong log
+     */
+    public LeasedJobRunner(
+            String name,
+            LeasedJobRepository repository,
+            LeasedJobProperties properties,
+            JobProcessor processor) {
+        this.name = name;
+        this.repository = repository;
+        this.properties = properties;
+        this.processor = processor;
+
+        int threads = Math.max(1, properties.getWorkerThreads());
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.slots = new Semaphore(threads);
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Yêu cầu quét hàng đợi; nhiều lần gọi dồn lại thành một lượt quét.
+     */
+    public void wakeUp() {
+        if (properties.isEnabled() && dispatchScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                dispatchScheduled.set(false);
+                dispatch();
+            });
+        }
+    }
+
+    /**
+     * Chạy việc nhẹ trên luồng dispatcher, tách khỏi luồng gọi nhưng không chiếm slot của worker.
+     */
+    public void executeInBackground(Runnable task) {
+        dispatcher.execute(task);
+    }
+
+    /**
+     * Kết thúc job thành công; {@code message} ghi lại lý do khi job bị bỏ qua.
+     */
+    public void finish(UUID fileId, String message) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.release(fileId, owner, STATUS_DONE, now, message, now);
+    }
+
+    private void dispatch() {
+        int free = slots.availablePermits();
+        if (free == 0) {
+            return;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<UUID> ready = repository.findReadyIds(now, PageRequest.of(0, free * 2));
+            for (UUID fileId : ready) {
+                if (!slots.tryAcquire()) {
+                    return;
+                }
+                if (repository.claim(fileId, owner, now.plusSeconds(properties.getLeaseSeconds()), now) == 0) {
+                    slots.release();
+                    continue;
+                }
+                workers.execute(() -> {
+                    try {
+                        run(fileId);
+                    } finally {
+                        slots.release();
+                        wakeUp();
+                    }
+                });
+            }
+        } catch (Exception ex) {
+            log.warn("Quét hàng đợi {} thất bại: {}", name, ex.getMessage());
+        }
+    }
+
+    private void run(UUID fileId) {
+        try {
+            processor.process(fileId);
+        } catch (Exception ex) {
+            retryOrFail(fileId, ex);
+        }
+    }
+
+    private void retryOrFail(UUID fileId, Exception ex) {
+        try {
+            int attempts = repository.findAttempts(fileId).orElse(properties.getMaxAttempts());
+            String error = ex.getClass().getSimpleName() + ": " + ex.getMessage();
+            if (error.length() > MAX_ERROR_LENGTH) {
+                error = error.substring(0, MAX_ERROR_LENGTH);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            if (attempts >= properties.getMaxAttempts()) {
+                log.warn("Job {} của tệp {} thất bại sau {} lần: {}", name, fileId, attempts, error);
+                repository.release(fileId, owner, STATUS_FAILED, now, error, now);
+            } else {
+                repository.release(fileId, owner, STATUS_PENDING,
+                    now.plusSeconds(properties.getRetryDelaySeconds() * attempts), error, now);
+            }
+        } catch (Exception releaseEx) {
+            // Lease sẽ hết hạn và job được nhận lại ở lượt quét sau
+            log.warn("Không trả được job {} của tệp {} về hàng đợi: {}", name, fileId, releaseEx.getMessage());
+        }
+    }
+}
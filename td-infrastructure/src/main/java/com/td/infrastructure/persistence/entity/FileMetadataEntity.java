@@ -57,4 +57,19 @@ public class FileMetadataEntity {
 
     @Column(name = "description")
     private String description;
+
+    /**
+     * SHA-256 của blob dùng chung (bảng file_blobs), NULL nếu object thuộc riêng bản ghi này.
+     */
+    @Column(name = "content_digest")
+    private String contentDigest;
+
+    /**
+     * Tệp gốc nếu bản ghi là ảnh thu nhỏ/xem trước sinh ra từ pipeline preview.
+     */
+    @Column(name = "source_file_id")
+    private UUID sourceFileId;
+
+    @Column(name = "variant")
+    private String variant;
 }
@@ -0,0 +1,47 @@
+package com.td.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "file_upload_parts")
+@IdClass(FileUploadPartEntity.PartId.class)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileUploadPartEntity {
+
+    @Id
+    @Column(name = "session_id", nullable = false)
+    private UUID sessionId;
+
+    @Id
+    @Column(name = "part_number", nullable = false)
+    private Integer partNumber;
+
+    @Column(name = "object_path", nullable = false)
+    private String objectPath;
+
+    @Column(name = "part_size", nullable = false)
+    private Long partSize;
+
+    @Column(name = "etag")
+    private String etag;
+
+    @Column(name = "uploaded_at", nullable = false)
+    private LocalDateTime uploadedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PartId implements Serializable {
+        private UUID sessionId;
+        private Integer partNumber;
+    }
+}
@@ -0,0 +1,80 @@
+package com.td.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "file_upload_sessions")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileUploadSessionEntity {
+
+    public static final String MODE_PRESIGNED = "PRESIGNED";
+    public static final String MODE_CHUNKED = "CHUNKED";
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_ABORTED = "ABORTED";
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @Column(name = "document_id", nullable = false)
+    private UUID documentId;
+
+    @Column(name = "upload_mode", nullable = false)
+    private String uploadMode;
+
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "object_path", nullable = false)
+    private String objectPath;
+
+    @Column(name = "original_filename", nullable = false)
+    private String originalFilename;
+
+    @Column(name = "stored_filename", nullable = false)
+    private String storedFilename;
+
+    @Column(name = "file_extension")
+    private String fileExtension;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "declared_size")
+    private Long declaredSize;
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "uploaded_by")
+    private UUID uploadedBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "part_size")
+    private Long partSize;
+
+    @Column(name = "total_parts")
+    private Integer totalParts;
+
+    public boolean isPending() {
+        return STATUS_PENDING.equals(status);
+    }
+}
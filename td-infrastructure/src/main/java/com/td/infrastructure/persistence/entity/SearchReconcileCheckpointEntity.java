@@ -0,0 +1,51 @@
+package com.td.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "search_reconcile_checkpoints")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchReconcileCheckpointEntity {
+
+    @Id
+    @Column(name = "job_name", nullable = false)
+    private String jobName;
+
+    @Column(name = "last_document_id")
+    private UUID lastDocumentId;
+
+    @Column(name = "locked_by")
+    private String lockedBy;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_run_started_at")
+    private LocalDateTime lastRunStartedAt;
+
+    @Column(name = "last_run_finished_at")
+    private LocalDateTime lastRunFinishedAt;
+
+    @Column(name = "last_pass_completed_at")
+    private LocalDateTime lastPassCompletedAt;
+
+    @Column(name = "last_scanned", nullable = false)
+    private long lastScanned;
+
+    @Column(name = "last_reindexed", nullable = false)
+    private long lastReindexed;
+
+    @Column(name = "last_deleted", nullable = false)
+    private long lastDeleted;
+
+    @Column(name = "last_message")
+    private String lastMessage;
+}
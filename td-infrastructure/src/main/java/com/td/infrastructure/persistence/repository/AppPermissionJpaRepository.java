@@ -4,6 +4,7 @@ import com.td.domain.sharedcore.AppPermission;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,4 +17,7 @@ public interface AppPermissionJpaRepository extends BaseRepository<AppPermission
 
     @Query("SELECT p FROM AppPermission p WHERE p.id = :id AND p.deletedOn IS NULL")
     Optional<AppPermission> findByIdAndDeletedOnIsNull(@Param("id") UUID id);
+
+    @Query("SELECT p.code FROM AppPermission p WHERE p.isActive = true AND p.deletedOn IS NULL ORDER BY p.code")
+    List<String> findActiveCodes();
 }
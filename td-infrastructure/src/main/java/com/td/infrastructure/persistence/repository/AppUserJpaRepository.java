@@ -4,6 +4,7 @@ import com.td.domain.sharedcore.AppUser;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -21,4 +22,25 @@ public interface AppUserJpaRepository extends BaseRepository<AppUser> {
 
     @Query("SELECT u FROM AppUser u WHERE u.keycloakSubject = :keycloakSubject AND u.deletedOn IS NULL")
     Optional<AppUser> findByKeycloakSubjectAndDeletedOnIsNull(@Param("keycloakSubject") String keycloakSubject);
+
+    /**
+     * Quyền hiệu lực của người dùng: user → vai trò (theo đơn vị, NULL là toàn hệ thống) → quyền, trong một truy vấn.
+     * Mỗi dòng là [organization_id, role_code, permission_code]; permission_code NULL nếu vai trò chưa gán quyền.
+     */
+    @Query(value = """
+        SELECT ur.organization_id, r.code, p.code
+        FROM app_users u
+        JOIN app_user_roles ur
+          ON ur.user_id = u.id AND ur.is_active = TRUE AND ur.deleted_on IS NULL
+        JOIN app_roles r
+          ON r.id = ur.role_id AND r.is_active = TRUE AND r.deleted_on IS NULL
+        LEFT JOIN app_role_permissions rp
+          ON rp.role_id = r.id AND rp.is_active = TRUE AND rp.deleted_on IS NULL
+        LEFT JOIN app_permissions p
+          ON p.id = rp.permission_id AND p.is_active = TRUE AND p.deleted_on IS NULL
+        WHERE u.keycloak_subject = :keycloakSubject
+          AND u.is_active = TRUE
+          AND u.deleted_on IS NULL
+        """, nativeQuery = true)
+    List<Object[]> findEffectiveGrants(@Param("keycloakSubject") String keycloakSubject);
 }
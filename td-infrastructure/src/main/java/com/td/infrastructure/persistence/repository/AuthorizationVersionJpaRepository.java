@@ -0,0 +1,14 @@
+package com.td.infrastructure.persistence.repository;
+
+import com.td.infrastructure.persistence.entity.AuthorizationVersionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface AuthorizationVersionJpaRepository extends JpaRepository<AuthorizationVersionEntity, String> {
+
+    @Query("SELECT v.version FROM AuthorizationVersionEntity v WHERE v.scope = :scope")
+    Optional<Long> findVersion(@Param("scope") String scope);
+}
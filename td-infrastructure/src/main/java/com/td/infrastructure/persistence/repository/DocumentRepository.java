@@ -1,5 +1,10 @@
 package com.td.infrastructure.persistence.repository;
 
+import com.td.application.common.models.DataScopeFilter;
+import com.td.application.documents.DocumentFacetBucketDto;
+import com.td.application.documents.DocumentFacetsDto;
+import com.td.application.documents.DocumentVersionRef;
+import com.td.application.documents.SearchDocumentFacetsRequest;
 import com.td.application.documents.SearchDocumentsRequest;
 import com.td.domain.documents.BusinessDocument;
 import jakarta.persistence.EntityManager;
@@ -8,6 +13,12 @@ import jakarta.persistence.Query;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +56,149 @@ public abstract class DocumentRepository implements com.td.application.documents
         jpaRepository.delete(entity);
     }
 
+    @Override
+    public List<DocumentVersionRef> findActiveVersionRefsAfter(UUID afterId, int limit) {
+        StringBuilder sql = new StringBuilder("""
+            SELECT d.id, d.version_no
+            FROM documents d
+            WHERE d.deleted_on IS NULL
+            """);
+        if (afterId != null) {
+            sql.append(" AND d.id > :afterId");
+        }
+        sql.append(" ORDER BY d.id LIMIT :limit");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        query.setParameter("limit", Math.max(1, limit));
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        List<DocumentVersionRef> refs = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            UUID id = row[0] instanceof UUID uuid ? uuid : UUID.fromString(String.valueOf(row[0]));
+            refs.add(new DocumentVersionRef(id, ((Number) row[1]).longValue()));
+        }
+        return refs;
+    }
+
+    @Override
+    public List<BusinessDocument> findAllByIds(Collection<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return jpaRepository.findAllById(ids);
+    }
+
+    @Override
+    public DocumentFacetsDto countFacets(SearchDocumentFacetsRequest request) {
+        SearchDocumentsRequest searchRequest = request.toSearchRequest();
+        List<String> facetNames = request.getFacets() == null ? List.of() : request.getFacets();
+        List<DocumentSearchSupport.AttributeFilterRule> filterRules =
+            DocumentSearchSupport.parseAttributeFilters(searchRequest.getAttributeFilters());
+
+        if (!filterRules.isEmpty()) {
+            List<BusinessDocument> candidates = findCandidates(searchRequest, filterRules);
+            return DocumentSearchSupport.countFacetsInMemory(
+                candidates, filterRules, facetNames, request.getSize(), request.normalizedDateInterval());
+        }
+
+        StringBuilder filters = new StringBuilder(" WHERE d.deleted_on IS NULL");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        appendCommonFilters(filters, parameters, searchRequest);
+
+        Query countQuery = entityManager.createNativeQuery("SELECT COUNT(*) FROM documents d" + filters);
+        parameters.forEach(countQuery::setParameter);
+        long totalDocuments = ((Number) countQuery.getSingleResult()).longValue();
+
+        Map<String, List<DocumentFacetBucketDto>> facets = new LinkedHashMap<>();
+        for (String facet : facetNames) {
+            if (facet != null) {
+                facets.put(facet, countFacet(facet, filters.toString(), parameters, request));
+            }
+        }
+
+        return DocumentFacetsDto.builder()
+            .totalDocuments(totalDocuments)
+            .facets(facets)
+            .build();
+    }
+
+    private List<DocumentFacetBucketDto> countFacet(
+            String facet,
+            String filters,
+            Map<String, Object> filterParameters,
+            SearchDocumentFacetsRequest request) {
+        Map<String, Object> parameters = new LinkedHashMap<>(filterParameters);
+        String keyExpression;
+        String join = "";
+        boolean dateFacet = false;
+
+        if (facet.startsWith(SearchDocumentFacetsRequest.FACET_ATTRIBUTE_PREFIX)) {
+            keyExpression = jsonObjectFieldExpression("d.attributes_json", ":facetAttributeKey");
+            parameters.put("facetAttributeKey", facet.substring(SearchDocumentFacetsRequest.FACET_ATTRIBUTE_PREFIX.length()));
+        } else {
+            switch (facet) {
+                case SearchDocumentFacetsRequest.FACET_DOCUMENT_TYPE -> keyExpression = foldedTextExpression("d.document_type");
+                case SearchDocumentFacetsRequest.FACET_STATUS -> keyExpression = foldedTextExpression("d.status");
+                case SearchDocumentFacetsRequest.FACET_TAGS -> {
+                    join = jsonArrayElementsJoin("d.tags_json", "facet_tag");
+                    keyExpression = foldedTextExpression("facet_tag.value");
+                }
+                case SearchDocumentFacetsRequest.FACET_CREATED_ON -> {
+                    keyExpression = dateTruncExpression(request.normalizedDateInterval(), "d.created_on");
+                    dateFacet = true;
+                }
+                default -> {
+                    return List.of();
+                }
+            }
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ")
+            .append(keyExpression).append(" AS facet_key, COUNT(*) AS facet_count FROM documents d ")
+            .append(join)
+            .append(filters)
+            .append(" AND ").append(keyExpression).append(" IS NOT NULL")
+            .append(" GROUP BY facet_key");
+        if (dateFacet) {
+            sql.append(" ORDER BY facet_key");
+        } else {
+            sql.append(" ORDER BY facet_count DESC, facet_key LIMIT :facetSize");
+            parameters.put("facetSize", Math.max(1, request.getSize()));
+        }
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        parameters.forEach(query::setParameter);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        List<DocumentFacetBucketDto> buckets = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String key = dateFacet ? toFacetDate(row[0]) : String.valueOf(row[0]);
+            buckets.add(new DocumentFacetBucketDto(key, ((Number) row[1]).longValue()));
+        }
+        return buckets;
+    }
+
+    private String toFacetDate(Object value) {
+        if (value instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate().toString();
+        }
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toLocalDate().toString();
+        }
+        if (value instanceof Instant instant) {
+            return instant.atZone(ZoneId.systemDefault()).toLocalDate().toString();
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.toLocalDate().toString();
+        }
+        return String.valueOf(value);
+    }
+
     @Override
     public Page<BusinessDocument> searchDeleted(SearchDocumentsRequest request, Pageable pageable) {
         return DocumentSearchSupport.searchDeletedWithJpa(jpaRepository, request, pageable);
@@ -89,6 +243,21 @@ public abstract class DocumentRepository implements com.td.application.documents
             Map<String, Object> parameters,
             List<DocumentSearchSupport.AttributeFilterRule> filterRules);
 
+    /**
+     * Mệnh đề JOIN trải mảng JSON trong cột thành các dòng, alias.value là từng phần tử dạng text.
+     */
+    protected abstract String jsonArrayElementsJoin(String column, String alias);
+
+    protected abstract String jsonObjectFieldExpression(String column, String keyParameter);
+
+    /**
+     * Khóa facet dạng text đã hạ chữ thường và bỏ dấu, cùng khóa với keyword {@code folding_normalizer} bên
+     * Elasticsearch để facet không đổi khóa theo backend.
+     */
+    protected abstract String foldedTextExpression(String expression);
+
+    protected abstract String dateTruncExpression(String interval, String column);
+
     protected String toJsonPath(String key) {
         String escaped = key == null ? "" : key.replace("\\", "\\\\").replace("\"", "\\\"");
         return "$.\"" + escaped + "\"";
@@ -122,5 +291,31 @@ public abstract class DocumentRepository implements com.td.application.documents
             sql.append(" AND LOWER(COALESCE(d.status, '')) = :status");
             parameters.put("status", request.getStatus().trim().toLowerCase());
         }
+
+        appendDataScopeFilter(sql, parameters, request.getDataScope());
+    }
+
+    /**
+     * Tập đơn vị đã được mở rộng sẵn (closure) nên chỉ là một IN trên cột có index, không đệ quy.
+     */
+    private void appendDataScopeFilter(StringBuilder sql, Map<String, Object> parameters, DataScopeFilter dataScope) {
+        if (dataScope == null || dataScope.isUnrestricted()) {
+            return;
+        }
+        if (dataScope.matchesNothing()) {
+            sql.append(" AND 1 = 0");
+            return;
+        }
+
+        List<String> conditions = new ArrayList<>(2);
+        if (!dataScope.getOrganizationIds().isEmpty()) {
+            conditions.add("d.organization_id IN (:scopeOrganizationIds)");
+            parameters.put("scopeOrganizationIds", dataScope.getOrganizationIds());
+        }
+        if (dataScope.getOwnerId() != null) {
+            conditions.add("d.created_by = :scopeOwnerId");
+            parameters.put("scopeOwnerId", dataScope.getOwnerId());
+        }
+        sql.append(" AND (").append(String.join(" OR ", conditions)).append(")");
     }
 }
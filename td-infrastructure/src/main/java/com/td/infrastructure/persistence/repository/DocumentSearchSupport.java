@@ -2,6 +2,10 @@ package com.td.infrastructure.persistence.repository;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.td.application.common.models.DataScopeFilter;
+import com.td.application.documents.DocumentFacetBucketDto;
+import com.td.application.documents.DocumentFacetsDto;
+import com.td.application.documents.SearchDocumentFacetsRequest;
 import com.td.application.documents.SearchDocumentsRequest;
 import com.td.domain.documents.BusinessDocument;
 import jakarta.persistence.criteria.Predicate;
@@ -12,19 +16,28 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.DayOfWeek;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 final class DocumentSearchSupport {
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() { };
+    private static final TypeReference<List<Object>> LIST_TYPE = new TypeReference<>() { };
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
 
     static final String OPERATOR_EQUALS = "equals";
     static final String OPERATOR_CONTAINS = "contains";
@@ -61,6 +74,119 @@ final class DocumentSearchSupport {
         return toPage(sortDocuments(filtered, pageable == null ? Sort.unsorted() : pageable.getSort()), pageable);
     }
 
+    static DocumentFacetsDto countFacetsInMemory(
+            List<BusinessDocument> candidates,
+            List<AttributeFilterRule> filterRules,
+            List<String> facetNames,
+            int size,
+            String dateInterval) {
+        List<BusinessDocument> filtered = (candidates == null ? List.<BusinessDocument>of() : candidates).stream()
+            .filter(document -> matchesAllFilters(document, filterRules))
+            .toList();
+
+        Map<String, List<DocumentFacetBucketDto>> facets = new LinkedHashMap<>();
+        for (String facet : facetNames) {
+            Map<String, Long> counts = new HashMap<>();
+            for (BusinessDocument document : filtered) {
+                for (String key : facetKeys(document, facet, dateInterval)) {
+                    counts.merge(key, 1L, Long::sum);
+                }
+            }
+            facets.put(facet, toFacetBuckets(counts, SearchDocumentFacetsRequest.FACET_CREATED_ON.equals(facet), size));
+        }
+
+        return DocumentFacetsDto.builder()
+            .totalDocuments(filtered.size())
+            .facets(facets)
+            .build();
+    }
+
+    static List<DocumentFacetBucketDto> toFacetBuckets(Map<String, Long> counts, boolean dateFacet, int size) {
+        Comparator<Map.Entry<String, Long>> order = dateFacet
+            ? Map.Entry.comparingByKey()
+            : Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+        return counts.entrySet().stream()
+            .sorted(order)
+            .limit(dateFacet ? Long.MAX_VALUE : Math.max(1, size))
+            .map(entry -> new DocumentFacetBucketDto(entry.getKey(), entry.getValue()))
+            .toList();
+    }
+
+    static LocalDate truncateDate(LocalDate date, String dateInterval) {
+        return switch (dateInterval) {
+            case "day" -> date;
+            case "week" -> date.with(DayOfWeek.MONDAY);
+            case "year" -> date.withDayOfYear(1);
+            default -> date.withDayOfMonth(1);
+        };
+    }
+
+    private static List<String> facetKeys(BusinessDocument document, String facet, String dateInterval) {
+        if (facet == null) {
+            return List.of();
+        }
+
+        if (facet.startsWith(SearchDocumentFacetsRequest.FACET_ATTRIBUTE_PREFIX)) {
+            String attributeKey = facet.substring(SearchDocumentFacetsRequest.FACET_ATTRIBUTE_PREFIX.length());
+            Object value = parseAttributes(document.getAttributesJson()).get(attributeKey);
+            List<String> keys = new ArrayList<>();
+            if (value instanceof Iterable<?> iterable) {
+                iterable.forEach(item -> addFacetKey(keys, item));
+            } else {
+                addFacetKey(keys, value);
+            }
+            return keys;
+        }
+
+        return switch (facet) {
+            case SearchDocumentFacetsRequest.FACET_DOCUMENT_TYPE -> foldedKey(document.getDocumentType());
+            case SearchDocumentFacetsRequest.FACET_STATUS -> foldedKey(document.getStatus());
+            case SearchDocumentFacetsRequest.FACET_TAGS -> parseTags(document.getTagsJson());
+            case SearchDocumentFacetsRequest.FACET_CREATED_ON -> document.getCreatedOn() == null
+                ? List.of()
+                : List.of(truncateDate(document.getCreatedOn().toLocalDate(), dateInterval).toString());
+            default -> List.of();
+        };
+    }
+
+    private static List<String> foldedKey(String value) {
+        return value == null || value.isBlank() ? List.of() : List.of(foldFacetKey(value.trim()));
+    }
+
+    /**
+     * Hạ chữ thường và bỏ dấu tiếng Việt (kể cả đ → d), khớp khóa facet của {@code folding_normalizer} trong
+     * Elasticsearch và {@code unaccent(lower(...))} trong PostgreSQL.
+     */
+    static String foldFacetKey(String value) {
+        String decomposed = Normalizer.normalize(value.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").replace('đ', 'd');
+    }
+
+    private static void addFacetKey(List<String> keys, Object value) {
+        if (value != null && !String.valueOf(value).isBlank()) {
+            keys.add(String.valueOf(value).trim());
+        }
+    }
+
+    private static List<String> parseTags(String tagsJson) {
+        try {
+            if (tagsJson == null || tagsJson.isBlank()) {
+                return List.of();
+            }
+
+            List<String> tags = new ArrayList<>();
+            for (Object tag : OBJECT_MAPPER.readValue(tagsJson, LIST_TYPE)) {
+                if (tag != null && !String.valueOf(tag).isBlank()) {
+                    tags.add(foldFacetKey(String.valueOf(tag).trim()));
+                }
+            }
+            return tags;
+        } catch (Exception ex) {
+            return List.of();
+        }
+    }
+
     static List<AttributeFilterRule> parseAttributeFilters(Map<String, Object> attributeFilters) {
         if (attributeFilters == null || attributeFilters.isEmpty()) {
             return List.of();
@@ -102,7 +228,8 @@ final class DocumentSearchSupport {
 
         return Specification.where(withKeyword(request.getKeyword()))
             .and(withDocumentType(request.getDocumentType()))
-            .and(withStatus(request.getStatus()));
+            .and(withStatus(request.getStatus()))
+            .and(withDataScope(request.getDataScope()));
     }
 
     private static AttributeFilterRule parseFilter(String rawKey, Object rawValue) {
@@ -439,6 +566,26 @@ final class DocumentSearchSupport {
         };
     }
 
+    private static Specification<BusinessDocument> withDataScope(DataScopeFilter dataScope) {
+        return (root, query, cb) -> {
+            if (dataScope == null || dataScope.isUnrestricted()) {
+                return cb.conjunction();
+            }
+            if (dataScope.matchesNothing()) {
+                return cb.disjunction();
+            }
+
+            List<Predicate> allowed = new ArrayList<>(2);
+            if (!dataScope.getOrganizationIds().isEmpty()) {
+                allowed.add(root.get("organizationId").in(dataScope.getOrganizationIds()));
+            }
+            if (dataScope.getOwnerId() != null) {
+                allowed.add(cb.equal(root.get("createdBy"), dataScope.getOwnerId()));
+            }
+            return cb.or(allowed.toArray(new Predicate[0]));
+        };
+    }
+
     static record AttributeFilterRule(String key, String operator, Object value, Object from, Object to) {
     }
 }
\ No newline at end of file
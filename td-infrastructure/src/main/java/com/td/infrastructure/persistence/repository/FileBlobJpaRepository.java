@@ -0,0 +1,46 @@
+package com.td.infrastructure.persistence.repository;
+
+import com.td.infrastructure.persistence.entity.FileBlobEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface FileBlobJpaRepository extends JpaRepository<FileBlobEntity, String> {
+
+    /**
+     * Khóa advisory theo digest, giữ tới hết transaction hiện tại: tuần tự hóa việc tạo và dọn blob cùng nội dung.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtextextended(:digest, 0))", nativeQuery = true)
+    Integer lockDigest(@Param("digest") String digest);
+
+    @Modifying
+    @Query("""
+        UPDATE FileBlobEntity b
+        SET b.refCount = b.refCount + 1, b.updatedAt = :now
+        WHERE b.contentDigest = :digest
+        """)
+    int incrementRefCount(@Param("digest") String digest, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+        UPDATE FileBlobEntity b
+        SET b.refCount = b.refCount - 1, b.updatedAt = :now
+        WHERE b.contentDigest = :digest AND b.refCount > 0
+        """)
+    int decrementRefCount(@Param("digest") String digest, @Param("now") LocalDateTime now);
+
+    @Query("SELECT b.contentDigest FROM FileBlobEntity b WHERE b.refCount <= 0 AND b.updatedAt < :cutoff ORDER BY b.updatedAt")
+    List<String> findUnreferencedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM FileBlobEntity b WHERE b.contentDigest = :digest")
+    Optional<FileBlobEntity> findForUpdate(@Param("digest") String digest);
+}
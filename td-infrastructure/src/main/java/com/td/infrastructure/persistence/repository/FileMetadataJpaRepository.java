@@ -2,9 +2,15 @@ package com.td.infrastructure.persistence.repository;
 
 import com.td.infrastructure.persistence.entity.FileMetadataEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface FileMetadataJpaRepository extends JpaRepository<FileMetadataEntity, UUID> {
@@ -12,4 +18,39 @@ public interface FileMetadataJpaRepository extends JpaRepository<FileMetadataEnt
     List<FileMetadataEntity> findAllByDocumentId(UUID documentId);
 
     Optional<FileMetadataEntity> findByIdAndDocumentId(UUID id, UUID documentId);
+
+    List<FileMetadataEntity> findAllBySourceFileIdIn(Collection<UUID> sourceFileIds);
+
+    Optional<FileMetadataEntity> findFirstBySourceFileIdAndVariant(UUID sourceFileId, String variant);
+
+    @Query("SELECT f.filePath FROM FileMetadataEntity f WHERE f.filePath IN :paths")
+    Set<String> findExistingFilePaths(@Param("paths") Collection<String> paths);
+
+    /**
+     * Bản ghi mồ côi: tài liệu đã bị xóa cứng, xóa mềm trước {@code deletedBefore}, hoặc ảnh xem trước
+     * mà tệp gốc không còn. Keyset theo id, bắt đầu từ UUID toàn số 0.
+     */
+    @Query(value = """
+        SELECT f.* FROM file_metadata f
+        LEFT JOIN documents d ON d.id = f.document_id
+        WHERE f.id > :afterId
+          AND f.uploaded_at < :uploadedBefore
+          AND ((f.document_id IS NOT NULL AND (d.id IS NULL OR d.deleted_on < :deletedBefore))
+            OR (f.source_file_id IS NOT NULL
+                AND NOT EXISTS (SELECT 1 FROM file_metadata s WHERE s.id = f.source_file_id)))
+        ORDER BY f.id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<FileMetadataEntity> findOrphaned(
+            @Param("uploadedBefore") LocalDateTime uploadedBefore,
+            @Param("deletedBefore") LocalDateTime deletedBefore,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit);
+
+    /**
+     * Xóa theo id và trả về số dòng bị xóa, để hai node chạy song song không giảm tham chiếu blob hai lần.
+     */
+    @Modifying
+    @Query("DELETE FROM FileMetadataEntity f WHERE f.id = :id")
+    int removeById(@Param("id") UUID id);
 }
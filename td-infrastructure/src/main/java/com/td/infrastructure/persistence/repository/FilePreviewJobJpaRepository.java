@@ -0,0 +1,68 @@
+package com.td.infrastructure.persistence.repository;
+
+import com.td.infrastructure.persistence.entity.FilePreviewJobEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface FilePreviewJobJpaRepository extends JpaRepository<FilePreviewJobEntity, UUID>, LeasedJobRepository {
+
+    /**
+     * Job sẵn sàng: đang chờ tới lượt, hoặc đang chạy nhưng worker giữ lease đã chết.
+     */
+    @Query("""
+        SELECT j.fileId FROM FilePreviewJobEntity j
+        WHERE (j.status = 'PENDING' AND j.availableAt <= :now)
+           OR (j.status = 'RUNNING' AND j.lockedUntil < :now)
+        ORDER BY j.availableAt
+        """)
+    List<UUID> findReadyIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT j.attempts FROM FilePreviewJobEntity j WHERE j.fileId = :fileId")
+    Optional<Integer> findAttempts(@Param("fileId") UUID fileId);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE FilePreviewJobEntity j
+        SET j.status = 'RUNNING', j.lockedBy = :owner, j.lockedUntil = :lockedUntil,
+            j.attempts = j.attempts + 1, j.updatedAt = :now
+        WHERE j.fileId = :fileId
+          AND ((j.status = 'PENDING' AND j.availableAt <= :now)
+            OR (j.status = 'RUNNING' AND j.lockedUntil < :now))
+        """)
+    int claim(
+        @Param("fileId") UUID fileId,
+        @Param("owner") String owner,
+        @Param("lockedUntil") LocalDateTime lockedUntil,
+        @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE FilePreviewJobEntity j
+        SET j.status = :status, j.lockedBy = NULL, j.lockedUntil = NULL,
+            j.availableAt = :availableAt, j.lastError = :error, j.updatedAt = :now
+        WHERE j.fileId = :fileId AND j.lockedBy = :owner
+        """)
+    int release(
+        @Param("fileId") UUID fileId,
+        @Param("owner") String owner,
+        @Param("status") String status,
+        @Param("availableAt") LocalDateTime availableAt,
+        @Param("error") String error,
+        @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM FilePreviewJobEntity j WHERE j.status = 'DONE' AND j.updatedAt < :cutoff")
+    int deleteDoneBefore(@Param("cutoff") LocalDateTime cutoff);
+}
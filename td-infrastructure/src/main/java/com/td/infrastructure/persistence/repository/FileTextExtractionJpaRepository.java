@@ -0,0 +1,92 @@
+package com.td.infrastructure.persistence.repository;
+
+import com.td.infrastructure.persistence.entity.FileTextExtractionEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface FileTextExtractionJpaRepository extends JpaRepository<FileTextExtractionEntity, UUID>, LeasedJobRepository {
+
+    /**
+     * Job sẵn sàng: đang chờ tới lượt, hoặc đang chạy nhưng worker giữ lease đã chết.
+     */
+    @Query("""
+        SELECT e.fileId FROM FileTextExtractionEntity e
+        WHERE (e.status = 'PENDING' AND e.availableAt <= :now)
+           OR (e.status = 'RUNNING' AND e.lockedUntil < :now)
+        ORDER BY e.availableAt
+        """)
+    List<UUID> findReadyIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT e.attempts FROM FileTextExtractionEntity e WHERE e.fileId = :fileId")
+    Optional<Integer> findAttempts(@Param("fileId") UUID fileId);
+
+    /**
+     * (documentId, văn bản) của các tệp đã trích xuất xong, theo thứ tự tải lên; văn bản cắt sẵn ở DB.
+     */
+    @Query("""
+        SELECT e.documentId, SUBSTRING(e.extractedText, 1, :maxChars) FROM FileTextExtractionEntity e
+        WHERE e.documentId IN :documentIds AND e.status = 'DONE' AND e.extractedText IS NOT NULL
+        ORDER BY e.documentId, e.createdAt
+        """)
+    List<Object[]> findExtractedTexts(
+        @Param("documentIds") Collection<UUID> documentIds,
+        @Param("maxChars") int maxChars);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE FileTextExtractionEntity e
+        SET e.status = 'RUNNING', e.lockedBy = :owner, e.lockedUntil = :lockedUntil,
+            e.attempts = e.attempts + 1, e.updatedAt = :now
+        WHERE e.fileId = :fileId
+          AND ((e.status = 'PENDING' AND e.availableAt <= :now)
+            OR (e.status = 'RUNNING' AND e.lockedUntil < :now))
+        """)
+    int claim(
+        @Param("fileId") UUID fileId,
+        @Param("owner") String owner,
+        @Param("lockedUntil") LocalDateTime lockedUntil,
+        @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE FileTextExtractionEntity e
+        SET e.status = 'DONE', e.lockedBy = NULL, e.lockedUntil = NULL, e.lastError = NULL,
+            e.extractedText = :text, e.textLength = :textLength, e.truncated = :truncated, e.updatedAt = :now
+        WHERE e.fileId = :fileId AND e.lockedBy = :owner
+        """)
+    int complete(
+        @Param("fileId") UUID fileId,
+        @Param("owner") String owner,
+        @Param("text") String text,
+        @Param("textLength") int textLength,
+        @Param("truncated") boolean truncated,
+        @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE FileTextExtractionEntity e
+        SET e.status = :status, e.lockedBy = NULL, e.lockedUntil = NULL,
+            e.availableAt = :availableAt, e.lastError = :error, e.updatedAt = :now
+        WHERE e.fileId = :fileId AND e.lockedBy = :owner
+        """)
+    int release(
+        @Param("fileId") UUID fileId,
+        @Param("owner") String owner,
+        @Param("status") String status,
+        @Param("availableAt") LocalDateTime availableAt,
+        @Param("error") String error,
+        @Param("now") LocalDateTime now);
+}
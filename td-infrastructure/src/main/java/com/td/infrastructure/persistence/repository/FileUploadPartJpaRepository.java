@@ -0,0 +1,25 @@
+package com.td.infrastructure.persistence.repository;
+
+import com.td.infrastructure.persistence.entity.FileUploadPartEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public interface FileUploadPartJpaRepository
+        extends JpaRepository<FileUploadPartEntity, FileUploadPartEntity.PartId> {
+
+    List<FileUploadPartEntity> findAllBySessionIdOrderByPartNumberAsc(UUID sessionId);
+
+    @Query("SELECT p.objectPath FROM FileUploadPartEntity p WHERE p.objectPath IN :paths")
+    Set<String> findExistingObjectPaths(@Param("paths") Collection<String> paths);
+
+    @Modifying
+    @Query("DELETE FROM FileUploadPartEntity p WHERE p.sessionId = :sessionId")
+    int deleteAllBySessionId(@Param("sessionId") UUID sessionId);
+}
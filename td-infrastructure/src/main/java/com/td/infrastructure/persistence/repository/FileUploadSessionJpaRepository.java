@@ -0,0 +1,25 @@
+package com.td.infrastructure.persistence.repository;
+
+import com.td.infrastructure.persistence.entity.FileUploadSessionEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+public interface FileUploadSessionJpaRepository extends JpaRepository<FileUploadSessionEntity, UUID> {
+
+    Optional<FileUploadSessionEntity> findByIdAndDocumentId(UUID id, UUID documentId);
+
+    @Query("SELECT s FROM FileUploadSessionEntity s WHERE s.status = 'PENDING' AND s.expiresAt < :now ORDER BY s.expiresAt")
+    List<FileUploadSessionEntity> findExpiredPending(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT s.objectPath FROM FileUploadSessionEntity s WHERE s.status = 'PENDING' AND s.objectPath IN :paths")
+    Set<String> findPendingObjectPaths(@Param("paths") Collection<String> paths);
+}
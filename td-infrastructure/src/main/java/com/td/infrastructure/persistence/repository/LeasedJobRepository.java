@@ -0,0 +1,25 @@
+package com.td.infrastructure.persistence.repository;
+
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Thao tác chung của các bảng hàng đợi nhận job bằng lease (file_preview_jobs, file_text_extractions).
+ *
+ * <p>Mỗi repository JPA tự khai báo câu truy vấn cho bảng của mình; {@link com.td.infrastructure.jobs.LeasedJobRunner}
+ * chỉ làm việc qua interface này.</p>
+ */
+public interface LeasedJobRepository {
+
+    List<UUID> findReadyIds(LocalDateTime now, Pageable pageable);
+
+    int claim(UUID fileId, String owner, LocalDateTime lockedUntil, LocalDateTime now);
+
+    int release(UUID fileId, String owner, String status, LocalDateTime availableAt, String error, LocalDateTime now);
+
+    Optional<Integer> findAttempts(UUID fileId);
+}
@@ -0,0 +1,31 @@
+package com.td.infrastructure.persistence.repository;
+
+import com.td.application.sharedcore.OrganizationHierarchyIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Poll version {@code organizations} trong bảng {@code authorization_versions} để index cây tổ chức trên node này
+ * biết thay đổi do node khác (hoặc sửa trực tiếp bằng SQL) ghi vào.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrganizationHierarchyVersionPoller {
+
+    private final OrganizationJpaRepository organizationRepository;
+    private final OrganizationHierarchyIndex organizationHierarchyIndex;
+
+    @Scheduled(
+        initialDelayString = "${app.organization-hierarchy.poll-interval:PT5S}",
+        fixedDelayString = "${app.organization-hierarchy.poll-interval:PT5S}")
+    public void poll() {
+        try {
+            organizationHierarchyIndex.observeVersion(organizationRepository.findHierarchyVersion());
+        } catch (Exception ex) {
+            log.warn("Không đọc được version cây tổ chức: {}", ex.getMessage());
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.td.infrastructure.persistence.repository;
 
 import com.td.domain.sharedcore.Organization;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -18,6 +21,108 @@ public interface OrganizationJpaRepository extends BaseRepository<Organization>
     @Query("SELECT o FROM Organization o WHERE o.id = :id AND o.deletedOn IS NULL")
     Optional<Organization> findByIdAndDeletedOnIsNull(@Param("id") UUID id);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Organization o WHERE o.id = :id AND o.deletedOn IS NULL")
+    Optional<Organization> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Cùng khóa với trigger maintain_organization_closure và prevent_organization_cycle.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtextextended('organizations', 0))", nativeQuery = true)
+    Integer lockHierarchy();
+
     @Query("SELECT o FROM Organization o WHERE o.parentId = :parentId AND o.deletedOn IS NULL")
     List<Organization> findByParentIdAndDeletedOnIsNull(@Param("parentId") UUID parentId);
+
+    @Query(value = """
+        SELECT COALESCE((SELECT version FROM authorization_versions WHERE scope = 'organizations'), 0)
+        """, nativeQuery = true)
+    long findHierarchyVersion();
+
+    @Query(value = """
+        SELECT COUNT(*)
+        FROM organization_closure c
+        JOIN organizations o ON o.id = c.descendant_id
+        WHERE c.ancestor_id = :rootId AND c.depth > 0 AND o.deleted_on IS NULL
+        """, nativeQuery = true)
+    long countLiveDescendants(@Param("rootId") UUID rootId);
+
+    /**
+     * Thay tiền tố full_path và dịch level của toàn bộ hậu duệ trong một câu lệnh; tập hậu duệ lấy từ
+     * organization_closure (trigger đã cập nhật khi parent_id của gốc đổi). Dòng có full_path không bắt đầu
+     * bằng tiền tố cũ bị bỏ qua để nơi gọi dựng lại bằng {@link #rebuildDescendantPaths(UUID)}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        UPDATE organizations o
+        SET full_path = :newPrefix || substr(o.full_path, char_length(:oldPrefix) + 1),
+            level = o.level + :levelDelta,
+            last_modified_on = NOW()
+        FROM organization_closure c
+        WHERE c.ancestor_id = :rootId
+          AND c.descendant_id = o.id
+          AND c.depth > 0
+          AND o.deleted_on IS NULL
+          AND left(o.full_path, char_length(:oldPrefix) + 3) = :oldPrefix || ' / '
+        """, nativeQuery = true)
+    int rewriteDescendantPaths(
+        @Param("rootId") UUID rootId,
+        @Param("oldPrefix") String oldPrefix,
+        @Param("newPrefix") String newPrefix,
+        @Param("levelDelta") int levelDelta);
+
+    /**
+     * Dựng lại level/full_path của cây con từ tên các node bằng CTE đệ quy, dùng khi full_path đã lệch
+     * khỏi tên thực tế (dữ liệu import, sửa tay).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        WITH RECURSIVE subtree AS (
+            SELECT o.id, o.level, o.full_path
+            FROM organizations o
+            WHERE o.id = :rootId
+            UNION ALL
+            SELECT child.id, s.level + 1, s.full_path || ' / ' || child.name
+            FROM organizations child
+            JOIN subtree s ON child.parent_id = s.id
+            WHERE child.deleted_on IS NULL
+        )
+        UPDATE organizations o
+        SET level = s.level,
+            full_path = s.full_path,
+            last_modified_on = NOW()
+        FROM subtree s
+        WHERE o.id = s.id
+          AND o.id <> :rootId
+          AND (o.level <> s.level OR o.full_path <> s.full_path)
+        """, nativeQuery = true)
+    int rebuildDescendantPaths(@Param("rootId") UUID rootId);
+
+    /**
+     * Chuẩn hóa node_type của hậu duệ theo cùng quy tắc với OrganizationHierarchyRules.resolveNodeType: giữ loại
+     * hợp lệ (viết thường), loại trống/sai suy ra từ level hiện tại. Chạy sau khi level đã được cập nhật.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        UPDATE organizations o
+        SET node_type = t.node_type,
+            last_modified_on = NOW()
+        FROM (
+            SELECT d.id,
+                   CASE
+                       WHEN lower(trim(d.node_type)) IN ('agency_level', 'agency', 'unit', 'department')
+                           THEN lower(trim(d.node_type))
+                       WHEN d.level <= 1 THEN 'agency_level'
+                       WHEN d.level = 2 THEN 'agency'
+                       WHEN d.level = 3 THEN 'unit'
+                       ELSE 'department'
+                   END AS node_type
+            FROM organization_closure c
+            JOIN organizations d ON d.id = c.descendant_id
+            WHERE c.ancestor_id = :rootId AND c.depth > 0 AND d.deleted_on IS NULL
+        ) t
+        WHERE o.id = t.id
+          AND o.node_type IS DISTINCT FROM t.node_type
+        """, nativeQuery = true)
+    int resolveDescendantNodeTypes(@Param("rootId") UUID rootId);
 }
@@ -23,4 +23,26 @@ public class PostgresDocumentRepository extends DocumentRepository {
 			parameters.put(parameterName, filterRules.get(index).key());
 		}
 	}
-}
\ No newline at end of file
+
+	@Override
+	protected String jsonArrayElementsJoin(String column, String alias) {
+		return "CROSS JOIN LATERAL jsonb_array_elements_text(CAST(" + column + " AS jsonb)) AS " + alias + "(value) ";
+	}
+
+	@Override
+	protected String jsonObjectFieldExpression(String column, String keyParameter) {
+		return "(CAST(" + column + " AS jsonb) ->> " + keyParameter + ")";
+	}
+
+	@Override
+	protected String foldedTextExpression(String expression) {
+		// unaccent bật trong V1.0.21; bỏ dấu sau khi hạ chữ thường, giống folding_normalizer của Elasticsearch
+		return "unaccent(lower(" + expression + "))";
+	}
+
+	@Override
+	protected String dateTruncExpression(String interval, String column) {
+		// interval đã được whitelist trong SearchDocumentFacetsRequest.normalizedDateInterval
+		return "date_trunc('" + interval + "', " + column + ")";
+	}
+}
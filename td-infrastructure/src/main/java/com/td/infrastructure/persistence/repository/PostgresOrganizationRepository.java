@@ -29,11 +29,31 @@ public class PostgresOrganizationRepository implements OrganizationRepository {
         return jpa.findByIdAndDeletedOnIsNull(id);
     }
 
+    @Override
+    public Optional<Organization> findByIdForUpdate(UUID id) {
+        return jpa.findByIdForUpdate(id);
+    }
+
+    @Override
+    public void lockHierarchy() {
+        jpa.lockHierarchy();
+    }
+
     @Override
     public List<Organization> findByParentIdAndDeletedOnIsNull(UUID parentId) {
         return jpa.findByParentIdAndDeletedOnIsNull(parentId);
     }
 
+    @Override
+    public List<Organization> findAllByDeletedOnIsNull() {
+        return jpa.findAllActive();
+    }
+
+    @Override
+    public long findHierarchyVersion() {
+        return jpa.findHierarchyVersion();
+    }
+
     @Override
     public <S extends Organization> S save(S entity) {
         return jpa.save(entity);
@@ -54,6 +74,19 @@ public class PostgresOrganizationRepository implements OrganizationRepository {
         return jpa.existsByIdentifierAndIdNotAndDeletedOnIsNull(identifier, id);
     }
 
+    @Override
+    public int refreshDescendantPaths(UUID rootId, String oldFullPath, String newFullPath, int levelDelta) {
+        int updated = oldFullPath == null
+            ? 0
+            : jpa.rewriteDescendantPaths(rootId, oldFullPath, newFullPath, levelDelta);
+        if (updated < jpa.countLiveDescendants(rootId)) {
+            // Có node mà full_path không khớp tiền tố cũ: dựng lại phần còn lệch theo tên
+            updated += jpa.rebuildDescendantPaths(rootId);
+        }
+        jpa.resolveDescendantNodeTypes(rootId);
+        return updated;
+    }
+
     @Override
     public Page<Organization> search(SearchOrganizationsRequest request, Pageable pageable) {
         Specification<Organization> spec = Specification
@@ -0,0 +1,51 @@
+package com.td.infrastructure.persistence.repository;
+
+import com.td.infrastructure.persistence.entity.SearchReconcileCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface SearchReconcileCheckpointJpaRepository extends JpaRepository<SearchReconcileCheckpointEntity, String> {
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE SearchReconcileCheckpointEntity c
+        SET c.lockedBy = :owner, c.lockedUntil = :lockedUntil
+        WHERE c.jobName = :jobName
+          AND (c.lockedUntil IS NULL OR c.lockedUntil < :now OR c.lockedBy = :owner)
+        """)
+    int tryAcquireLease(
+        @Param("jobName") String jobName,
+        @Param("owner") String owner,
+        @Param("lockedUntil") LocalDateTime lockedUntil,
+        @Param("now") LocalDateTime now);
+
+    /**
+     * Gia hạn lease đang giữ; trả về 0 nếu lease đã hết hạn và bị node khác lấy mất.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE SearchReconcileCheckpointEntity c
+        SET c.lockedUntil = :lockedUntil
+        WHERE c.jobName = :jobName AND c.lockedBy = :owner
+        """)
+    int renewLease(
+        @Param("jobName") String jobName,
+        @Param("owner") String owner,
+        @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE SearchReconcileCheckpointEntity c
+        SET c.lockedBy = NULL, c.lockedUntil = NULL
+        WHERE c.jobName = :jobName AND c.lockedBy = :owner
+        """)
+    int releaseLease(@Param("jobName") String jobName, @Param("owner") String owner);
+}
@@ -4,6 +4,8 @@ import com.td.domain.sharedcore.UserDataScope;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +13,25 @@ public interface UserDataScopeJpaRepository extends BaseRepository<UserDataScope
 
     @Query("SELECT s FROM UserDataScope s WHERE s.id = :id AND s.deletedOn IS NULL")
     Optional<UserDataScope> findByIdAndDeletedOnIsNull(@Param("id") UUID id);
+
+    /**
+     * Data scope của người dùng, mở rộng qua organization_closure trong cùng truy vấn.
+     * Mỗi dòng là [scope_module, scope_type, organization_id]; scope_org_id NULL nghĩa là đơn vị của người dùng.
+     * Loại thuộc {@code treeScopeTypes} lấy cả đơn vị con, loại khác chỉ lấy chính đơn vị.
+     */
+    @Query(value = """
+        SELECT LOWER(s.scope_module), LOWER(s.scope_type), c.descendant_id
+        FROM app_user_data_scopes s
+        JOIN app_users u
+          ON u.id = s.user_id AND u.is_active = TRUE AND u.deleted_on IS NULL
+        LEFT JOIN organization_closure c
+          ON c.ancestor_id = COALESCE(s.scope_org_id, u.organization_id)
+         AND (c.depth = 0 OR LOWER(s.scope_type) IN (:treeScopeTypes))
+        WHERE u.keycloak_subject = :keycloakSubject
+          AND s.is_active = TRUE
+          AND s.deleted_on IS NULL
+        """, nativeQuery = true)
+    List<Object[]> findExpandedScopes(
+        @Param("keycloakSubject") String keycloakSubject,
+        @Param("treeScopeTypes") Collection<String> treeScopeTypes);
 }
@@ -0,0 +1,164 @@
+package com.td.infrastructure.preview;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Render ảnh thu nhỏ và ảnh xem trước (JPEG) cho ảnh và trang đầu PDF.
+ *
+ * <p>Kích thước ảnh được đọc từ header trước khi giải mã: ảnh vượt {@code app.previews.max-image-pixels} bị từ chối,
+ * ảnh còn lại được giải mã có lấy mẫu thưa để bitmap trong heap chỉ cỡ ảnh xem trước, không phải cỡ ảnh gốc.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class FilePreviewGenerator {
+
+    public static final String VARIANT_THUMBNAIL = "THUMBNAIL";
+    public static final String VARIANT_PREVIEW = "PREVIEW";
+    public static final String OUTPUT_CONTENT_TYPE = "image/jpeg";
+
+    private static final String PDF = "application/pdf";
+    private static final List<String> IMAGE_TYPES = List.of("image/jpeg", "image/png", "image/gif", "image/bmp");
+
+    private final FilePreviewProperties properties;
+
+    public record RenderedPreview(String variant, byte[] content) {
+    }
+
+    /**
+     * Tệp không thể tạo preview (vd. ảnh quá nhiều điểm ảnh); thử lại cũng không khác nên không cần retry.
+     */
+    public static class UnsupportedSourceException extends IOException {
+        public UnsupportedSourceException(String message) {
+            super(message);
+        }
+    }
+
+    public static boolean supports(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String normalized = contentType.toLowerCase(Locale.ROOT);
+        return PDF.equals(normalized) || IMAGE_TYPES.contains(normalized);
+    }
+
+    public List<RenderedPreview> render(File source, String contentType) throws IOException {
+        BufferedImage image = PDF.equalsIgnoreCase(contentType) ? renderFirstPage(source) : readImage(source);
+        if (image == null) {
+            throw new IOException("Không đọc được nội dung ảnh");
+        }
+
+        return List.of(
+            new RenderedPreview(VARIANT_THUMBNAIL, toJpeg(scale(image, properties.getThumbnailSize()))),
+            new RenderedPreview(VARIANT_PREVIEW, toJpeg(scale(image, properties.getPreviewSize()))));
+    }
+
+    private BufferedImage renderFirstPage(File source) throws IOException {
+        try (PDDocument document = Loader.loadPDF(source)) {
+            if (document.getNumberOfPages() == 0) {
+                return null;
+            }
+            // Chọn DPI để cạnh dài của trang vừa bằng kích thước preview, không render thừa
+            PDRectangle box = document.getPage(0).getCropBox();
+            float longestSide = Math.max(box.getWidth(), box.getHeight());
+            float dpi = Math.max(36f, Math.min(200f, properties.getPreviewSize() * 72f / longestSide));
+            // Trang khổ cực lớn: hạ DPI để bitmap không vượt giới hạn điểm ảnh
+            double pixelsAtDpi = (double) box.getWidth() * box.getHeight() * dpi * dpi / (72d * 72d);
+            if (pixelsAtDpi > properties.getMaxImagePixels()) {
+                dpi = (float) (dpi * Math.sqrt(properties.getMaxImagePixels() / pixelsAtDpi));
+            }
+            return new PDFRenderer(document).renderImageWithDPI(0, dpi, ImageType.RGB);
+        }
+    }
+
+    private BufferedImage readImage(File source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long width = reader.getWidth(0);
+                long height = reader.getHeight(0);
+                if (width * height > properties.getMaxImagePixels()) {
+                    throw new UnsupportedSourceException("Ảnh " + width + "x" + height + " vượt quá "
+                        + properties.getMaxImagePixels() + " điểm ảnh");
+                }
+
+                // Bước lấy mẫu giữ cạnh dài không nhỏ hơn kích thước preview, phần còn lại do scale() thu nhỏ
+                int step = (int) Math.max(1L, Math.max(width, height) / Math.max(1, properties.getPreviewSize()));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage image, int maxSide) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double ratio = Math.min(1d, (double) maxSide / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            // JPEG không có alpha: tô nền trắng cho PNG/GIF trong suốt
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] toJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getJpegQuality());
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
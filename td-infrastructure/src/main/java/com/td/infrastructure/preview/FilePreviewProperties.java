@@ -0,0 +1,29 @@
+package com.td.infrastructure.preview;
+
+import com.td.infrastructure.jobs.LeasedJobProperties;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "app.previews")
+@Data
+public class FilePreviewProperties implements LeasedJobProperties {
+    private boolean enabled = true;
+    // Số luồng render đồng thời, render PDF/ảnh tốn CPU và bộ nhớ nên giữ nhỏ
+    private int workerThreads = 2;
+    private int maxAttempts = 3;
+    private long retryDelaySeconds = 60;
+    private long leaseSeconds = 300;
+    // Tệp lớn hơn ngưỡng này không tạo preview
+    private long maxSourceBytes = 100L * 1024 * 1024;
+    // Ảnh (hoặc trang PDF sau khi render) lớn hơn số điểm ảnh này không tạo preview, chặn ảnh nén "bom giải nén"
+    private long maxImagePixels = 50_000_000L;
+    private int thumbnailSize = 256;
+    private int previewSize = 1024;
+    private float jpegQuality = 0.8f;
+    // Job DONE cũ hơn khoảng này bị xóa khỏi file_preview_jobs
+    private Duration doneRetention = Duration.ofDays(7);
+}
@@ -0,0 +1,51 @@
+package com.td.infrastructure.preview;
+
+import com.td.infrastructure.persistence.entity.FilePreviewJobEntity;
+import com.td.infrastructure.persistence.repository.FilePreviewJobJpaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Đưa tệp vừa tải lên vào hàng đợi tạo preview. Job được ghi cùng transaction với file_metadata,
+ * worker chỉ được đánh thức sau khi transaction commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class FilePreviewQueue {
+
+    private final FilePreviewJobJpaRepository jobRepo;
+    private final FilePreviewProperties properties;
+    private final FilePreviewWorker worker;
+
+    public void enqueue(UUID fileId, String contentType) {
+        if (!properties.isEnabled() || !FilePreviewGenerator.supports(contentType)) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        jobRepo.save(FilePreviewJobEntity.builder()
+            .fileId(fileId)
+            .status(FilePreviewJobEntity.STATUS_PENDING)
+            .attempts(0)
+            .availableAt(now)
+            .createdAt(now)
+            .updatedAt(now)
+            .build());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    worker.wakeUp();
+                }
+            });
+        } else {
+            worker.wakeUp();
+        }
+    }
+}
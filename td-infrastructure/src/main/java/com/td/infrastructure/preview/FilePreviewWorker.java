@@ -0,0 +1,182 @@
+package com.td.infrastructure.preview;
+
+import com.td.infrastructure.config.MinioService;
+import com.td.infrastructure.jobs.LeasedJobRunner;
+import com.td.infrastructure.persistence.entity.FileMetadataEntity;
+import com.td.infrastructure.persistence.repository.FileMetadataJpaRepository;
+import com.td.infrastructure.persistence.repository.FilePreviewJobJpaRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Worker xử lý hàng đợi file_preview_jobs với số luồng cố định.
+ *
+ * <p>Việc nhận job bằng lease và thử lại do {@link LeasedJobRunner} đảm nhận. Ngoài lịch quét định kỳ, worker
+ * được đánh thức ngay sau khi transaction tải lên commit.</p>
+ *
+ * <p>Job DONE được giữ lại {@code app.previews.done-retention} rồi xóa định kỳ để bảng không phình theo số tệp.</p>
+ */
+@Slf4j
+@Component
+public class FilePreviewWorker {
+
+    private static final String PREVIEW_CATEGORY = "PREVIEW";
+
+    private final FilePreviewJobJpaRepository jobRepo;
+    private final FileMetadataJpaRepository fileMetadataRepo;
+    private final MinioService minioService;
+    private final FilePreviewGenerator generator;
+    private final FilePreviewProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final LeasedJobRunner runner;
+
+    public FilePreviewWorker(
+            FilePreviewJobJpaRepository jobRepo,
+            FileMetadataJpaRepository fileMetadataRepo,
+            MinioService minioService,
+            FilePreviewGenerator generator,
+            FilePreviewProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this.jobRepo = jobRepo;
+        this.fileMetadataRepo = fileMetadataRepo;
+        this.minioService = minioService;
+        this.generator = generator;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.runner = new LeasedJobRunner("file-preview", jobRepo, properties, this::process);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdown();
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.previews.poll-initial-delay:PT30S}",
+        fixedDelayString = "${app.previews.poll-interval:PT15S}")
+    public void poll() {
+        wakeUp();
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.previews.purge-initial-delay:PT5M}",
+        fixedDelayString = "${app.previews.purge-interval:PT6H}")
+    public void purgeDoneJobs() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            int removed = jobRepo.deleteDoneBefore(LocalDateTime.now().minus(properties.getDoneRetention()));
+            if (removed > 0) {
+                log.info("Đã xóa {} job preview đã hoàn tất", removed);
+            }
+        } catch (Exception ex) {
+            log.warn("Dọn job preview đã hoàn tất thất bại: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Yêu cầu quét hàng đợi; nhiều lần gọi dồn lại thành một lượt quét.
+     */
+    public void wakeUp() {
+        runner.wakeUp();
+    }
+
+    private void process(UUID fileId) throws Exception {
+        FileMetadataEntity source = fileMetadataRepo.findById(fileId).orElse(null);
+        if (source == null) {
+            runner.finish(fileId, "Tệp gốc đã bị xóa");
+            return;
+        }
+        if (source.getFileSize() != null && source.getFileSize() > properties.getMaxSourceBytes()) {
+            runner.finish(fileId, "Bỏ qua: tệp vượt quá " + properties.getMaxSourceBytes() + " bytes");
+            return;
+        }
+
+        Path tempFile = null;
+        try {
+            // PDFBox/ImageIO cần truy cập ngẫu nhiên: tải về tệp tạm thay vì giữ cả tệp trong heap
+            tempFile = Files.createTempFile("preview-", ".src");
+            try (InputStream in = minioService.getObject(source.getFilePath())) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            List<FilePreviewGenerator.RenderedPreview> previews =
+                generator.render(tempFile.toFile(), source.getContentType());
+            replacePreviews(source, previews);
+            runner.finish(fileId, null);
+        } catch (FilePreviewGenerator.UnsupportedSourceException ex) {
+            runner.finish(fileId, "Bỏ qua: " + ex.getMessage());
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (Exception ignored) {
+                    // tệp tạm sẽ bị dọn khi khởi động lại
+                }
+            }
+        }
+    }
+
+    /**
+     * Tải object mới lên trước rồi thay bản ghi preview trong một transaction; object cũ chỉ bị xóa sau khi commit
+     * và khi không trùng đường dẫn vừa ghi đè, nên lỗi giữa chừng không để lại bản ghi trỏ tới object đã mất.
+     */
+    private void replacePreviews(FileMetadataEntity source, List<FilePreviewGenerator.RenderedPreview> previews) {
+        List<FileMetadataEntity> created = new ArrayList<>();
+        for (FilePreviewGenerator.RenderedPreview preview : previews) {
+            String variant = preview.variant().toLowerCase(Locale.ROOT);
+            String storedName = source.getId() + "-" + variant + ".jpg";
+            String objectPath = "previews/" + source.getId() + "/" + variant + ".jpg";
+            minioService.uploadObject(objectPath, new ByteArrayInputStream(preview.content()),
+                preview.content().length, FilePreviewGenerator.OUTPUT_CONTENT_TYPE);
+
+            created.add(FileMetadataEntity.builder()
+                .id(UUID.randomUUID())
+                .originalFilename(storedName)
+                .storedFilename(storedName)
+                .filePath(objectPath)
+                .fileSize((long) preview.content().length)
+                .contentType(FilePreviewGenerator.OUTPUT_CONTENT_TYPE)
+                .fileExtension("jpg")
+                .fileCategory(PREVIEW_CATEGORY)
+                .bucketName(minioService.getBucketName())
+                .uploadedAt(LocalDateTime.now())
+                .isPublic(false)
+                .sourceFileId(source.getId())
+                .variant(preview.variant())
+                .build());
+        }
+
+        List<FileMetadataEntity> existing = transactionTemplate.execute(status -> {
+            List<FileMetadataEntity> old = fileMetadataRepo.findAllBySourceFileIdIn(List.of(source.getId()));
+            fileMetadataRepo.deleteAll(old);
+            fileMetadataRepo.saveAll(created);
+            return old;
+        });
+
+        Set<String> createdPaths = created.stream().map(FileMetadataEntity::getFilePath).collect(Collectors.toSet());
+        for (FileMetadataEntity old : existing) {
+            if (!createdPaths.contains(old.getFilePath())) {
+                minioService.removeObject(old.getFilePath());
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.td.infrastructure.search;
+
+import com.td.infrastructure.persistence.repository.FileTextExtractionJpaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ghép văn bản đã trích xuất của các tệp đính kèm thành trường attachmentText, giới hạn tổng số ký tự mỗi tài liệu.
+ */
+@Component
+@RequiredArgsConstructor
+class DocumentAttachmentTextLoader {
+
+    private final FileTextExtractionJpaRepository extractionRepo;
+    private final DocumentSearchProperties properties;
+
+    String load(UUID documentId) {
+        return loadAll(List.of(documentId)).get(documentId);
+    }
+
+    Map<UUID, String> loadAll(Collection<UUID> documentIds) {
+        int maxChars = properties.getAttachmentTextMaxChars();
+        if (documentIds == null || documentIds.isEmpty() || maxChars <= 0) {
+            return Map.of();
+        }
+
+        Map<UUID, StringBuilder> builders = new HashMap<>();
+        for (Object[] row : extractionRepo.findExtractedTexts(documentIds, maxChars)) {
+            UUID documentId = row[0] instanceof UUID uuid ? uuid : UUID.fromString(String.valueOf(row[0]));
+            String text = (String) row[1];
+            StringBuilder builder = builders.computeIfAbsent(documentId, id -> new StringBuilder());
+            int remaining = maxChars - builder.length() - 1;
+            if (text == null || text.isEmpty() || remaining <= 0) {
+                continue;
+            }
+            if (!builder.isEmpty()) {
+                builder.append('\n');
+            }
+            builder.append(text, 0, Math.min(text.length(), remaining));
+        }
+
+        Map<UUID, String> texts = new HashMap<>();
+        builders.forEach((documentId, builder) -> {
+            if (!builder.isEmpty()) {
+                texts.put(documentId, builder.toString());
+            }
+        });
+        return texts;
+    }
+}
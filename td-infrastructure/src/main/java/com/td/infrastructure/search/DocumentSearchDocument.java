@@ -5,11 +5,14 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.CompletionContext;
+import org.springframework.data.elasticsearch.annotations.CompletionField;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
 import org.springframework.data.elasticsearch.annotations.Mapping;
 import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
 
 import java.util.Collections;
 import java.util.List;
@@ -25,6 +28,11 @@ import java.util.Map;
 public class DocumentSearchDocument {
 
     public static final String INDEX_NAME = "documents-search";
+    public static final String SUGGEST_FIELD = "titleSuggest";
+    public static final String SUGGEST_CONTEXT_DOCUMENT_TYPE = "documentType";
+    public static final String SUGGEST_CONTEXT_STATUS = "status";
+    // Completion field có context bắt buộc phải có ít nhất một giá trị context khi index
+    public static final String SUGGEST_CONTEXT_NONE = "_none";
 
     @Id
     private String id;
@@ -32,6 +40,12 @@ public class DocumentSearchDocument {
     @Field(type = FieldType.Text)
     private String title;
 
+    @CompletionField(maxInputLength = 100, contexts = {
+        @CompletionContext(name = DocumentSearchDocument.SUGGEST_CONTEXT_DOCUMENT_TYPE, type = CompletionContext.ContextMappingType.CATEGORY),
+        @CompletionContext(name = DocumentSearchDocument.SUGGEST_CONTEXT_STATUS, type = CompletionContext.ContextMappingType.CATEGORY)
+    })
+    private Completion titleSuggest;
+
     @Field(type = FieldType.Keyword)
     private String documentType;
 
@@ -60,6 +74,10 @@ public class DocumentSearchDocument {
     @Field(type = FieldType.Text)
     private String searchText;
 
+    // Văn bản trích xuất từ tệp đính kèm, chỉ dùng để tìm kiếm/highlight, không trả về client
+    @Field(type = FieldType.Text)
+    private String attachmentText;
+
     @Field(type = FieldType.Long)
     private long versionNo;
 
@@ -71,4 +89,11 @@ public class DocumentSearchDocument {
 
     @Field(type = FieldType.Boolean)
     private boolean deleted;
+
+    // Dùng cho lọc data scope: đơn vị sở hữu và người tạo
+    @Field(type = FieldType.Keyword)
+    private String organizationId;
+
+    @Field(type = FieldType.Keyword)
+    private String createdBy;
 }
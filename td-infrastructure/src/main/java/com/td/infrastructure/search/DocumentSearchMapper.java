@@ -4,14 +4,17 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.td.application.documents.DocumentDto;
 import com.td.domain.documents.BusinessDocument;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 
@@ -21,11 +24,13 @@ final class DocumentSearchMapper {
     private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() { };
     private static final TypeReference<List<String>> STRING_LIST_TYPE = new TypeReference<>() { };
     private static final String ATTRIBUTE_KEYS_METADATA_KEY = "__documentAttributeKeys";
+    private static final int SUGGEST_MAX_INPUT_LENGTH = 100;
+    private static final int SUGGEST_SUFFIX_WORDS = 3;
 
     private DocumentSearchMapper() {
     }
 
-    static DocumentSearchDocument toSearchDocument(BusinessDocument document) {
+    static DocumentSearchDocument toSearchDocument(BusinessDocument document, String attachmentText) {
         Map<String, Object> customFields = toMap(document.getAttributesJson());
         Map<String, Object> storedMetadata = toMap(document.getMetadataJson());
         ResponseProjection projection = splitForResponse(customFields, storedMetadata);
@@ -34,6 +39,7 @@ final class DocumentSearchMapper {
         return DocumentSearchDocument.builder()
             .id(String.valueOf(document.getId()))
             .title(document.getTitle())
+            .titleSuggest(buildTitleSuggest(document))
             .documentType(document.getDocumentType())
             .status(document.getStatus())
             .content(document.getContent())
@@ -42,10 +48,13 @@ final class DocumentSearchMapper {
             .metadata(projection.metadata())
             .extraFields(projection.topLevelFields())
             .searchText(buildSearchText(document, tags, projection))
+            .attachmentText(attachmentText)
             .versionNo(document.getVersionNo())
             .createdOnEpochMs(toEpochMillis(document.getCreatedOn()))
             .lastModifiedOnEpochMs(toEpochMillis(document.getLastModifiedOn()))
             .deleted(document.isDeleted())
+            .organizationId(document.getOrganizationId() == null ? null : document.getOrganizationId().toString())
+            .createdBy(document.getCreatedBy() == null ? null : document.getCreatedBy().toString())
             .build();
     }
 
@@ -67,6 +76,43 @@ final class DocumentSearchMapper {
         return dto;
     }
 
+    /**
+     * Input cho completion suggester: toàn bộ tiêu đề và các hậu tố bắt đầu từ vài từ đầu,
+     * để gõ một từ ở giữa tiêu đề vẫn gợi ý được.
+     */
+    private static Completion buildTitleSuggest(BusinessDocument document) {
+        String title = document.getTitle() == null ? "" : document.getTitle().trim();
+        if (title.isEmpty()) {
+            return null;
+        }
+
+        List<String> inputs = new ArrayList<>();
+        inputs.add(truncate(title, SUGGEST_MAX_INPUT_LENGTH));
+        String[] words = title.split("\\s+");
+        for (int index = 1; index < Math.min(words.length, SUGGEST_SUFFIX_WORDS + 1); index++) {
+            String suffix = String.join(" ", Arrays.copyOfRange(words, index, words.length));
+            inputs.add(truncate(suffix, SUGGEST_MAX_INPUT_LENGTH));
+        }
+
+        Completion completion = new Completion(inputs.toArray(String[]::new));
+        Map<String, List<String>> contexts = new LinkedHashMap<>();
+        contexts.put(DocumentSearchDocument.SUGGEST_CONTEXT_DOCUMENT_TYPE, List.of(toSuggestContext(document.getDocumentType())));
+        contexts.put(DocumentSearchDocument.SUGGEST_CONTEXT_STATUS, List.of(toSuggestContext(document.getStatus())));
+        completion.setContexts(contexts);
+        return completion;
+    }
+
+    static String toSuggestContext(String value) {
+        if (value == null || value.isBlank()) {
+            return DocumentSearchDocument.SUGGEST_CONTEXT_NONE;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
     private static String buildSearchText(
             BusinessDocument document,
             List<String> tags,
@@ -9,4 +9,29 @@ import org.springframework.stereotype.Component;
 @Data
 public class DocumentSearchProperties {
     private boolean enabled = true;
+
+    /**
+     * Bật thêm mệnh đề fuzzy (trọng số thấp) trên title.folded để bắt lỗi gõ phím.
+     * Mặc định tắt vì analyzer ICU + asciifolding đã xử lý có dấu/không dấu.
+     */
+    private boolean fuzzyKeywordEnabled = false;
+
+    /**
+     * Tổng số ký tự văn bản tệp đính kèm tối đa đưa vào trường attachmentText của mỗi tài liệu.
+     */
+    private int attachmentTextMaxChars = 1_000_000;
+
+    private Reconcile reconcile = new Reconcile();
+
+    @Data
+    public static class Reconcile {
+        private boolean enabled = true;
+        // Số document PostgreSQL so sánh mỗi batch
+        private int batchSize = 500;
+        // Số batch tối đa mỗi lần chạy, lần sau tiếp tục từ checkpoint
+        private int maxBatchesPerRun = 200;
+        // Nghỉ giữa các batch để không dồn tải lên DB và cluster
+        private long throttleMillis = 200;
+        private long leaseSeconds = 600;
+    }
 }
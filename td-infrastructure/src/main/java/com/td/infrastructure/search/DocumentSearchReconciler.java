@@ -0,0 +1,323 @@
+package com.td.infrastructure.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonData;
+import com.td.application.documents.DocumentRepository;
+import com.td.application.documents.DocumentSearchReconcileReportDto;
+import com.td.application.documents.DocumentVersionRef;
+import com.td.infrastructure.persistence.entity.SearchReconcileCheckpointEntity;
+import com.td.infrastructure.persistence.repository.SearchReconcileCheckpointJpaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Đối soát index documents-search với PostgreSQL theo từng dải id.
+ *
+ * <p>Mỗi batch keyset-scan (id, version_no) từ PostgreSQL, đọc (_id, versionNo) trong cùng dải id
+ * từ Elasticsearch bằng docvalue_fields (không tải _source), sau đó chỉ reindex bản ghi thiếu/cũ
+ * và xóa bản ghi mồ côi. Con trỏ được lưu sau mỗi batch để lần chạy sau tiếp tục.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentSearchReconciler {
+
+    static final String JOB_NAME = "documents-search";
+    private static final String ID_FIELD = "id";
+    private static final String VERSION_FIELD = "versionNo";
+    private static final int ES_PAGE_SIZE = 1000;
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations operations;
+    private final DocumentRepository documentRepository;
+    private final SearchReconcileCheckpointJpaRepository checkpointRepository;
+    private final DocumentAttachmentTextLoader attachmentTextLoader;
+    private final DocumentSearchProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+
+    @Scheduled(
+        initialDelayString = "${app.elasticsearch.reconcile.initial-delay:PT2M}",
+        fixedDelayString = "${app.elasticsearch.reconcile.fixed-delay:PT15M}")
+    public void scheduledReconcile() {
+        if (!properties.isEnabled() || !properties.getReconcile().isEnabled()) {
+            return;
+        }
+
+        try {
+            reconcile();
+        } catch (Exception ex) {
+            log.warn("Job đối soát Elasticsearch thất bại: {}", ex.getMessage());
+        }
+    }
+
+    public DocumentSearchReconcileReportDto reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            return getReport();
+        }
+
+        try {
+            DocumentSearchProperties.Reconcile config = properties.getReconcile();
+            LocalDateTime startedAt = LocalDateTime.now();
+            if (checkpointRepository.tryAcquireLease(
+                    JOB_NAME, owner, startedAt.plusSeconds(config.getLeaseSeconds()), startedAt) == 0) {
+                log.debug("Job đối soát Elasticsearch đang chạy ở node khác, bỏ qua lần này");
+                return getReport();
+            }
+
+            try {
+                return runBatches(config, startedAt);
+            } finally {
+                checkpointRepository.releaseLease(JOB_NAME, owner);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public DocumentSearchReconcileReportDto getReport() {
+        SearchReconcileCheckpointEntity checkpoint = checkpointRepository.findById(JOB_NAME).orElse(null);
+        if (checkpoint == null) {
+            return DocumentSearchReconcileReportDto.builder()
+                .running(running.get())
+                .message("Chưa có checkpoint đối soát")
+                .build();
+        }
+
+        return DocumentSearchReconcileReportDto.builder()
+            .running(running.get() || isLeaseActive(checkpoint))
+            .cursor(checkpoint.getLastDocumentId())
+            .lastRunStartedAt(checkpoint.getLastRunStartedAt())
+            .lastRunFinishedAt(checkpoint.getLastRunFinishedAt())
+            .lastPassCompletedAt(checkpoint.getLastPassCompletedAt())
+            .scanned(checkpoint.getLastScanned())
+            .reindexed(checkpoint.getLastReindexed())
+            .deleted(checkpoint.getLastDeleted())
+            .message(checkpoint.getLastMessage())
+            .build();
+    }
+
+    private DocumentSearchReconcileReportDto runBatches(
+            DocumentSearchProperties.Reconcile config,
+            LocalDateTime startedAt) {
+        SearchReconcileCheckpointEntity checkpoint = checkpointRepository.findById(JOB_NAME)
+            .orElseGet(() -> SearchReconcileCheckpointEntity.builder().jobName(JOB_NAME).build());
+        checkpoint.setLastRunStartedAt(startedAt);
+
+        if (!operations.indexOps(DocumentSearchDocument.class).exists()) {
+            return finish(checkpoint, 0, 0, 0, "Index chưa được khởi tạo. Hãy chạy reindex trước");
+        }
+
+        UUID cursor = checkpoint.getLastDocumentId();
+        long scanned = 0L;
+        long reindexed = 0L;
+        long deleted = 0L;
+        boolean passCompleted = false;
+
+        try {
+            for (int batch = 0; batch < Math.max(1, config.getMaxBatchesPerRun()); batch++) {
+                if (!renewLease(checkpoint, config)) {
+                    // Node khác đã lấy lease: không ghi checkpoint nữa để không đè con trỏ và lease của node đó
+                    log.warn("Mất lease đối soát Elasticsearch tại cursor {}, dừng lần chạy này", cursor);
+                    return getReport();
+                }
+
+                List<DocumentVersionRef> refs =
+                    documentRepository.findActiveVersionRefsAfter(cursor, config.getBatchSize());
+                boolean lastBatch = refs.size() < config.getBatchSize();
+                UUID upperBound = lastBatch ? null : refs.get(refs.size() - 1).id();
+
+                Map<String, Long> indexedVersions = loadIndexedVersions(cursor, upperBound);
+                List<UUID> staleIds = new ArrayList<>();
+                Set<String> activeIds = new HashSet<>();
+                for (DocumentVersionRef ref : refs) {
+                    String id = ref.id().toString();
+                    activeIds.add(id);
+                    Long indexedVersion = indexedVersions.get(id);
+                    if (indexedVersion == null || indexedVersion != ref.versionNo()) {
+                        staleIds.add(ref.id());
+                    }
+                }
+
+                List<String> orphanIds = indexedVersions.keySet().stream()
+                    .filter(id -> !activeIds.contains(id))
+                    .toList();
+
+                reindexed += reindex(staleIds);
+                deleted += deleteOrphans(orphanIds);
+                scanned += refs.size();
+
+                cursor = upperBound;
+                checkpoint.setLastDocumentId(cursor);
+                checkpointRepository.save(checkpoint);
+
+                if (lastBatch) {
+                    passCompleted = true;
+                    break;
+                }
+
+                if (config.getThrottleMillis() > 0) {
+                    Thread.sleep(config.getThrottleMillis());
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return finish(checkpoint, scanned, reindexed, deleted, "Job đối soát bị dừng giữa chừng");
+        } catch (Exception ex) {
+            log.warn("Đối soát Elasticsearch dừng tại cursor {}: {}", cursor, ex.getMessage());
+            return finish(checkpoint, scanned, reindexed, deleted, "Đối soát dừng do lỗi: " + ex.getMessage());
+        }
+
+        if (passCompleted) {
+            checkpoint.setLastPassCompletedAt(LocalDateTime.now());
+        }
+        String message = passCompleted
+            ? "Đã quét hết documents, vòng quét tiếp theo bắt đầu lại từ đầu"
+            : "Đã xử lý " + config.getMaxBatchesPerRun() + " batch, lần chạy sau tiếp tục từ checkpoint";
+        return finish(checkpoint, scanned, reindexed, deleted, message);
+    }
+
+    /**
+     * Gia hạn lease trước mỗi batch để lần chạy dài (nhiều batch, có throttle) không bị node khác chen vào khi lease
+     * ban đầu hết hạn. Entity checkpoint được cập nhật theo để lần save sau không ghi lại hạn lease cũ.
+     */
+    private boolean renewLease(SearchReconcileCheckpointEntity checkpoint, DocumentSearchProperties.Reconcile config) {
+        LocalDateTime lockedUntil = LocalDateTime.now().plusSeconds(config.getLeaseSeconds());
+        if (checkpointRepository.renewLease(JOB_NAME, owner, lockedUntil) == 0) {
+            return false;
+        }
+        checkpoint.setLockedBy(owner);
+        checkpoint.setLockedUntil(lockedUntil);
+        return true;
+    }
+
+    private DocumentSearchReconcileReportDto finish(
+            SearchReconcileCheckpointEntity checkpoint,
+            long scanned,
+            long reindexed,
+            long deleted,
+            String message) {
+        checkpoint.setLastRunFinishedAt(LocalDateTime.now());
+        checkpoint.setLastScanned(scanned);
+        checkpoint.setLastReindexed(reindexed);
+        checkpoint.setLastDeleted(deleted);
+        checkpoint.setLastMessage(message);
+        checkpointRepository.save(checkpoint);
+
+        if (reindexed > 0 || deleted > 0) {
+            log.info("Đối soát Elasticsearch: scanned={}, reindexed={}, deleted={}", scanned, reindexed, deleted);
+        }
+        return getReport();
+    }
+
+    /**
+     * Đọc (_id, versionNo) trong dải (lowerExclusive, upperInclusive] theo thứ tự id, không tải _source.
+     */
+    private Map<String, Long> loadIndexedVersions(UUID lowerExclusive, UUID upperInclusive) throws IOException {
+        Query rangeQuery = Query.of(q -> q.range(r -> {
+            r.field(ID_FIELD);
+            if (lowerExclusive != null) {
+                r.gt(JsonData.of(lowerExclusive.toString()));
+            }
+            if (upperInclusive != null) {
+                r.lte(JsonData.of(upperInclusive.toString()));
+            }
+            return r;
+        }));
+
+        Map<String, Long> versions = new HashMap<>();
+        List<FieldValue> searchAfter = null;
+        while (true) {
+            List<FieldValue> after = searchAfter;
+            SearchResponse<Void> response = elasticsearchClient.search(s -> {
+                s.index(DocumentSearchDocument.INDEX_NAME)
+                    .query(rangeQuery)
+                    .source(src -> src.fetch(false))
+                    .docvalueFields(f -> f.field(VERSION_FIELD))
+                    .sort(so -> so.field(f -> f.field(ID_FIELD).order(SortOrder.Asc)))
+                    .trackTotalHits(t -> t.enabled(false))
+                    .size(ES_PAGE_SIZE);
+                if (after != null) {
+                    s.searchAfter(after);
+                }
+                return s;
+            }, Void.class);
+
+            List<Hit<Void>> hits = response.hits().hits();
+            for (Hit<Void> hit : hits) {
+                versions.put(hit.id(), readVersion(hit));
+            }
+
+            if (hits.size() < ES_PAGE_SIZE) {
+                return versions;
+            }
+            searchAfter = hits.get(hits.size() - 1).sort();
+        }
+    }
+
+    private long readVersion(Hit<Void> hit) {
+        JsonData value = hit.fields().get(VERSION_FIELD);
+        if (value == null) {
+            return -1L;
+        }
+
+        try {
+            return value.toJson().asJsonArray().getJsonNumber(0).longValue();
+        } catch (Exception ex) {
+            return -1L;
+        }
+    }
+
+    private long reindex(List<UUID> staleIds) {
+        if (staleIds.isEmpty()) {
+            return 0L;
+        }
+
+        Map<UUID, String> attachmentTexts = attachmentTextLoader.loadAll(staleIds);
+        List<DocumentSearchDocument> documents = documentRepository.findAllByIds(staleIds).stream()
+            .filter(document -> !document.isDeleted())
+            .map(document -> DocumentSearchMapper.toSearchDocument(document, attachmentTexts.get(document.getId())))
+            .toList();
+        if (!documents.isEmpty()) {
+            operations.save(documents);
+        }
+        return documents.size();
+    }
+
+    private long deleteOrphans(List<String> orphanIds) {
+        if (orphanIds.isEmpty()) {
+            return 0L;
+        }
+
+        NativeQuery query = NativeQuery.builder()
+            .withQuery(Query.of(q -> q.ids(i -> i.values(orphanIds))))
+            .build();
+        operations.delete(query, DocumentSearchDocument.class);
+        return orphanIds.size();
+    }
+
+    private boolean isLeaseActive(SearchReconcileCheckpointEntity checkpoint) {
+        return checkpoint.getLockedUntil() != null && checkpoint.getLockedUntil().isAfter(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,134 @@
+package com.td.infrastructure.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.CompletionContext;
+import co.elastic.clients.elasticsearch.core.search.CompletionSuggestOption;
+import co.elastic.clients.elasticsearch.core.search.Suggestion;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.td.application.common.TextNormalizer;
+import com.td.application.documents.DocumentSuggestionDto;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Gợi ý tiêu đề cho typeahead bằng completion suggester (FST trong bộ nhớ của ES, không chấm điểm full-text).
+ */
+@Component
+@RequiredArgsConstructor
+class DocumentTitleSuggester {
+
+    private static final String SUGGESTION_NAME = "title";
+    private static final List<String> SOURCE_FIELDS = List.of("title", "documentType", "status");
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    // L1 theo tiền tố: người dùng gõ/xóa lặp lại cùng tiền tố trong vài giây, tránh gọi lại cluster
+    private final Cache<String, List<DocumentSuggestionDto>> localCache = Caffeine.newBuilder()
+        .maximumSize(20_000)
+        .expireAfterWrite(Duration.ofSeconds(30))
+        .build();
+
+    List<DocumentSuggestionDto> suggest(String prefix, String documentType, String status, int size) {
+        String normalizedPrefix = TextNormalizer.normalize(prefix).toLowerCase(Locale.ROOT);
+        String cacheKey = normalizedPrefix + '|'
+            + contextKey(documentType) + '|'
+            + contextKey(status) + '|'
+            + size;
+
+        List<DocumentSuggestionDto> cached = localCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<DocumentSuggestionDto> suggestions = query(normalizedPrefix, documentType, status, size);
+        localCache.put(cacheKey, suggestions);
+        return suggestions;
+    }
+
+    private List<DocumentSuggestionDto> query(String prefix, String documentType, String status, int size) {
+        Map<String, List<CompletionContext>> contexts = new LinkedHashMap<>();
+        addContext(contexts, DocumentSearchDocument.SUGGEST_CONTEXT_DOCUMENT_TYPE, documentType);
+        addContext(contexts, DocumentSearchDocument.SUGGEST_CONTEXT_STATUS, status);
+
+        SearchResponse<SuggestionSource> response;
+        try {
+            response = elasticsearchClient.search(s -> s
+                .index(DocumentSearchDocument.INDEX_NAME)
+                .size(0)
+                .source(src -> src.filter(f -> f.includes(SOURCE_FIELDS)))
+                .suggest(sg -> sg.suggesters(SUGGESTION_NAME, fs -> fs
+                    .prefix(prefix)
+                    .completion(c -> {
+                        c.field(DocumentSearchDocument.SUGGEST_FIELD)
+                            .size(size)
+                            .skipDuplicates(true);
+                        if (!contexts.isEmpty()) {
+                            c.contexts(contexts);
+                        }
+                        return c;
+                    }))),
+                SuggestionSource.class);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Không thể lấy gợi ý từ Elasticsearch: " + ex.getMessage(), ex);
+        }
+
+        List<DocumentSuggestionDto> suggestions = new ArrayList<>();
+        List<Suggestion<SuggestionSource>> results = response.suggest().getOrDefault(SUGGESTION_NAME, List.of());
+        for (Suggestion<SuggestionSource> result : results) {
+            if (!result.isCompletion()) {
+                continue;
+            }
+            for (CompletionSuggestOption<SuggestionSource> option : result.completion().options()) {
+                SuggestionSource source = option.source();
+                suggestions.add(DocumentSuggestionDto.builder()
+                    .id(parseUuid(option.id()))
+                    .title(source != null && source.getTitle() != null ? source.getTitle() : option.text())
+                    .documentType(source == null ? null : source.getDocumentType())
+                    .status(source == null ? null : source.getStatus())
+                    .build());
+            }
+        }
+        return List.copyOf(suggestions);
+    }
+
+    private void addContext(Map<String, List<CompletionContext>> contexts, String name, String value) {
+        if (StringUtils.hasText(value)) {
+            String context = DocumentSearchMapper.toSuggestContext(value);
+            contexts.put(name, List.of(CompletionContext.of(cc -> cc.context(ctx -> ctx.category(context)))));
+        }
+    }
+
+    private String contextKey(String value) {
+        return StringUtils.hasText(value) ? DocumentSearchMapper.toSuggestContext(value) : "*";
+    }
+
+    private UUID parseUuid(String value) {
+        try {
+            return value == null ? null : UUID.fromString(value);
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class SuggestionSource {
+        private String title;
+        private String documentType;
+        private String status;
+    }
+}
@@ -1,11 +1,25 @@
 package com.td.infrastructure.search;
 
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.CalendarInterval;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import com.td.application.common.TextNormalizer;
+import com.td.application.common.models.DataScopeFilter;
 import com.td.application.common.models.PaginationResponse;
 import com.td.application.documents.DocumentDto;
+import com.td.application.documents.DocumentFacetBucketDto;
+import com.td.application.documents.DocumentFacetsDto;
 import com.td.application.documents.DocumentRepository;
+import com.td.application.documents.DocumentSearchReconcileReportDto;
 import com.td.application.documents.DocumentSearchService;
+import com.td.application.documents.DocumentSearchView;
+import com.td.application.documents.DocumentSuggestionDto;
 import com.td.application.documents.DocumentSearchStatusDto;
+import com.td.application.documents.SearchDocumentFacetsRequest;
 import com.td.application.documents.SearchDocumentsRequest;
 import com.td.domain.documents.BusinessDocument;
 import lombok.RequiredArgsConstructor;
@@ -13,15 +27,27 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.IndexOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilterBuilder;
+import org.springframework.data.elasticsearch.core.query.HighlightQuery;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
+import org.springframework.data.elasticsearch.core.query.highlight.Highlight;
+import org.springframework.data.elasticsearch.core.query.highlight.HighlightField;
+import org.springframework.data.elasticsearch.core.query.highlight.HighlightParameters;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -30,10 +56,23 @@ import java.util.UUID;
 public class ElasticsearchDocumentSearchService implements DocumentSearchService {
 
     private static final String BACKEND = "ELASTICSEARCH";
+    // Trường gốc giữ dấu để ưu tiên khớp chính xác, subfield .folded cho từ khóa gõ không dấu
+    private static final List<String> KEYWORD_FIELDS = List.of(
+        "title^6", "title.folded^4",
+        "searchText^3", "searchText.folded^2",
+        "content^2", "content.folded",
+        "attachmentText", "attachmentText.folded^0.5");
+    private static final List<String> HIGHLIGHT_FIELDS = List.of(
+        "title", "title.folded", "content", "content.folded", "attachmentText");
+    private static final int HIGHLIGHT_FRAGMENT_SIZE = 150;
+    private static final int HIGHLIGHT_FRAGMENTS = 3;
 
     private final ElasticsearchOperations operations;
     private final DocumentRepository documentRepository;
     private final DocumentSearchProperties properties;
+    private final DocumentSearchReconciler reconciler;
+    private final DocumentTitleSuggester titleSuggester;
+    private final DocumentAttachmentTextLoader attachmentTextLoader;
 
     @Override
     public boolean isEnabled() {
@@ -67,15 +106,19 @@ public class ElasticsearchDocumentSearchService implements DocumentSearchService
 
         Pageable pageable = buildPageable(request);
         Query esQuery = buildQuery(request);
-        NativeQuery query = NativeQuery.builder()
+        DocumentSearchView view = DocumentSearchView.from(request == null ? null : request.getView());
+        boolean highlight = request != null && request.isHighlight() && StringUtils.hasText(request.getKeyword());
+        var queryBuilder = NativeQuery.builder()
             .withQuery(esQuery)
             .withPageable(pageable)
-            .build();
+            .withSourceFilter(buildSourceFilter(view));
+        if (highlight) {
+            queryBuilder.withHighlightQuery(buildHighlightQuery());
+        }
 
-        var searchHits = operations.search(query, DocumentSearchDocument.class);
+        var searchHits = operations.search(queryBuilder.build(), DocumentSearchDocument.class);
         List<DocumentDto> items = searchHits.getSearchHits().stream()
-            .map(SearchHit::getContent)
-            .map(DocumentSearchMapper::toDto)
+            .map(hit -> toDto(hit, highlight))
             .toList();
 
         long totalItems = searchHits.getTotalHits();
@@ -94,6 +137,57 @@ public class ElasticsearchDocumentSearchService implements DocumentSearchService
         );
     }
 
+    @Override
+    public DocumentFacetsDto facets(SearchDocumentFacetsRequest request) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Elasticsearch đang bị tắt bởi cấu hình");
+        }
+
+        if (!operations.indexOps(DocumentSearchDocument.class).exists()) {
+            throw new IllegalStateException("Index Elasticsearch chưa được khởi tạo. Hãy chạy reindex trước");
+        }
+
+        String dateInterval = request.normalizedDateInterval();
+        var queryBuilder = NativeQuery.builder()
+            .withQuery(buildQuery(request.toSearchRequest()))
+            .withMaxResults(0)
+            .withTrackTotalHits(true);
+
+        List<String> facetNames = request.getFacets() == null ? List.of() : request.getFacets();
+        for (String facet : facetNames) {
+            Aggregation aggregation = buildFacetAggregation(facet, request.getSize(), dateInterval);
+            if (aggregation != null) {
+                queryBuilder.withAggregation(facet, aggregation);
+            }
+        }
+
+        var searchHits = operations.search(queryBuilder.build(), DocumentSearchDocument.class);
+        Map<String, ElasticsearchAggregation> aggregations = searchHits.hasAggregations()
+            ? ((ElasticsearchAggregations) searchHits.getAggregations()).aggregationsAsMap()
+            : Map.of();
+
+        Map<String, List<DocumentFacetBucketDto>> facets = new LinkedHashMap<>();
+        for (String facet : facetNames) {
+            ElasticsearchAggregation aggregation = aggregations.get(facet);
+            if (aggregation != null) {
+                facets.put(facet, toFacetBuckets(aggregation.aggregation().getAggregate()));
+            }
+        }
+
+        return DocumentFacetsDto.builder()
+            .totalDocuments(searchHits.getTotalHits())
+            .facets(facets)
+            .build();
+    }
+
+    @Override
+    public List<DocumentSuggestionDto> suggest(String prefix, String documentType, String status, int size) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("Elasticsearch đang bị tắt bởi cấu hình");
+        }
+        return titleSuggester.suggest(prefix, documentType, status, size);
+    }
+
     @Override
     public long reindexAll() {
         if (!isEnabled()) {
@@ -109,9 +203,11 @@ public class ElasticsearchDocumentSearchService implements DocumentSearchService
                 SearchDocumentsRequest request = new SearchDocumentsRequest();
                 Pageable pageable = PageRequest.of(pageNumber, 200, Sort.by(Sort.Direction.DESC, "lastModifiedOn"));
                 var page = documentRepository.search(request, pageable);
+                Map<UUID, String> attachmentTexts = attachmentTextLoader.loadAll(
+                    page.getContent().stream().map(BusinessDocument::getId).toList());
 
                 for (BusinessDocument document : page.getContent()) {
-                    operations.save(DocumentSearchMapper.toSearchDocument(document));
+                    operations.save(DocumentSearchMapper.toSearchDocument(document, attachmentTexts.get(document.getId())));
                     indexedCount++;
                 }
 
@@ -128,6 +224,14 @@ public class ElasticsearchDocumentSearchService implements DocumentSearchService
         }
     }
 
+    @Override
+    public DocumentSearchReconcileReportDto reconcile() {
+        if (!isEnabled()) {
+            return reconciler.getReport();
+        }
+        return reconciler.reconcile();
+    }
+
     @Override
     public DocumentSearchStatusDto getStatus() {
         if (!isEnabled()) {
@@ -151,6 +255,7 @@ public class ElasticsearchDocumentSearchService implements DocumentSearchService
                     .indexName(DocumentSearchDocument.INDEX_NAME)
                     .indexedDocuments(0)
                     .message("Cluster Elasticsearch reachable nhưng index chưa được khởi tạo. Hãy chạy reindex")
+                    .reconciliation(reconciler.getReport())
                     .build();
             }
 
@@ -166,6 +271,7 @@ public class ElasticsearchDocumentSearchService implements DocumentSearchService
                 .indexName(DocumentSearchDocument.INDEX_NAME)
                 .indexedDocuments(indexedDocuments)
                 .message("Elasticsearch đang hoạt động bình thường")
+                .reconciliation(reconciler.getReport())
                 .build();
         } catch (Exception ex) {
             return DocumentSearchStatusDto.builder()
@@ -193,7 +299,7 @@ public class ElasticsearchDocumentSearchService implements DocumentSearchService
                 return;
             }
 
-            operations.save(DocumentSearchMapper.toSearchDocument(document));
+            operations.save(DocumentSearchMapper.toSearchDocument(document, attachmentTextLoader.load(document.getId())));
         } catch (Exception ex) {
             log.warn("Đồng bộ document {} lên Elasticsearch thất bại: {}", document.getId(), ex.getMessage());
         }
@@ -224,6 +330,116 @@ public class ElasticsearchDocumentSearchService implements DocumentSearchService
         indexOperations.createWithMapping();
     }
 
+    private Aggregation buildFacetAggregation(String facet, int size, String dateInterval) {
+        if (facet == null) {
+            return null;
+        }
+
+        return switch (facet) {
+            case SearchDocumentFacetsRequest.FACET_DOCUMENT_TYPE,
+                 SearchDocumentFacetsRequest.FACET_STATUS,
+                 SearchDocumentFacetsRequest.FACET_TAGS ->
+                Aggregation.of(a -> a.terms(t -> t.field(facet).size(Math.max(1, size))));
+            case SearchDocumentFacetsRequest.FACET_CREATED_ON ->
+                Aggregation.of(a -> a.dateHistogram(d -> d
+                    .field("createdOnEpochMs")
+                    .calendarInterval(toCalendarInterval(dateInterval))
+                    .timeZone(ZoneId.systemDefault().getId())
+                    .minDocCount(1)));
+            default -> null;
+        };
+    }
+
+    private CalendarInterval toCalendarInterval(String dateInterval) {
+        return switch (dateInterval) {
+            case "day" -> CalendarInterval.Day;
+            case "week" -> CalendarInterval.Week;
+            case "year" -> CalendarInterval.Year;
+            default -> CalendarInterval.Month;
+        };
+    }
+
+    private List<DocumentFacetBucketDto> toFacetBuckets(Aggregate aggregate) {
+        if (aggregate.isSterms()) {
+            return aggregate.sterms().buckets().array().stream()
+                .map(bucket -> new DocumentFacetBucketDto(bucket.key().stringValue(), bucket.docCount()))
+                .toList();
+        }
+
+        if (aggregate.isDateHistogram()) {
+            return aggregate.dateHistogram().buckets().array().stream()
+                .map(bucket -> new DocumentFacetBucketDto(
+                    Instant.ofEpochMilli(bucket.key()).atZone(ZoneId.systemDefault()).toLocalDate().toString(),
+                    bucket.docCount()))
+                .toList();
+        }
+
+        return List.of();
+    }
+
+    private DocumentDto toDto(SearchHit<DocumentSearchDocument> hit, boolean highlight) {
+        DocumentDto dto = DocumentSearchMapper.toDto(hit.getContent());
+        if (highlight && !hit.getHighlightFields().isEmpty()) {
+            dto.setHighlights(mergeHighlightFields(hit.getHighlightFields()));
+        }
+        return dto;
+    }
+
+    private SourceFilter buildSourceFilter(DocumentSearchView view) {
+        List<String> excludes = new ArrayList<>();
+        // searchText/attachmentText/titleSuggest chỉ phục vụ truy vấn và gợi ý, không bao giờ cần trả về client
+        excludes.add("searchText");
+        excludes.add("attachmentText");
+        excludes.add("titleSuggest");
+        if (!view.includesContent()) {
+            excludes.add("content");
+        }
+        if (!view.includesMetadata()) {
+            excludes.add("metadata");
+        }
+        if (!view.includesAttributes()) {
+            excludes.add("attributes");
+            excludes.add("extraFields");
+        }
+
+        return new FetchSourceFilterBuilder()
+            .withExcludes(excludes.toArray(String[]::new))
+            .build();
+    }
+
+    private HighlightQuery buildHighlightQuery() {
+        HighlightParameters parameters = HighlightParameters.builder()
+            .withPreTags("<em>")
+            .withPostTags("</em>")
+            .withFragmentSize(HIGHLIGHT_FRAGMENT_SIZE)
+            .withNumberOfFragments(HIGHLIGHT_FRAGMENTS)
+            .withRequireFieldMatch(false)
+            .withEncoder("html")
+            .build();
+
+        List<HighlightField> fields = HIGHLIGHT_FIELDS.stream()
+            .map(HighlightField::new)
+            .toList();
+
+        return new HighlightQuery(new Highlight(parameters, fields), DocumentSearchDocument.class);
+    }
+
+    private Map<String, List<String>> mergeHighlightFields(Map<String, List<String>> highlightFields) {
+        // Gộp title/title.folded, content/content.folded về tên trường gốc để client dễ hiển thị
+        Map<String, List<String>> merged = new LinkedHashMap<>();
+        highlightFields.forEach((field, fragments) -> {
+            int subfieldIndex = field.indexOf('.');
+            String baseField = subfieldIndex > 0 ? field.substring(0, subfieldIndex) : field;
+            List<String> target = merged.computeIfAbsent(baseField, key -> new ArrayList<>());
+            for (String fragment : fragments) {
+                if (!target.contains(fragment) && target.size() < HIGHLIGHT_FRAGMENTS) {
+                    target.add(fragment);
+                }
+            }
+        });
+        return merged;
+    }
+
     private Pageable buildPageable(SearchDocumentsRequest request) {
         int pageNumber = request == null ? 0 : Math.max(0, request.getPageNumber());
         int pageSize = request == null ? 10 : Math.min(Math.max(1, request.getPageSize()), 100);
@@ -232,7 +448,7 @@ public class ElasticsearchDocumentSearchService implements DocumentSearchService
             case "createdOn" -> "createdOnEpochMs";
             case "lastModifiedOn" -> "lastModifiedOnEpochMs";
             case "versionNo" -> "versionNo";
-            case "title" -> "title";
+            case "title" -> "title.raw";
             case "documentType" -> "documentType";
             case "status" -> "status";
             default -> "lastModifiedOnEpochMs";
@@ -254,24 +470,29 @@ public class ElasticsearchDocumentSearchService implements DocumentSearchService
         List<Query> filterQueries = new ArrayList<>();
 
         if (StringUtils.hasText(request.getKeyword())) {
-            String keyword = request.getKeyword().trim();
-            mustQueries.add(Query.of(q -> q.bool(b -> b
-                .should(s -> s.multiMatch(mm -> mm
-                    .query(keyword)
-                    .fields("title^6", "content^2", "searchText^3")
-                    .fuzziness("AUTO")
-                    .prefixLength(1)
-                    .maxExpansions(50)
-                    .minimumShouldMatch("75%")))
-                .should(s -> s.matchPhrasePrefix(mpp -> mpp
-                    .field("title")
+            String keyword = TextNormalizer.normalize(request.getKeyword());
+            mustQueries.add(Query.of(q -> q.bool(b -> {
+                b.should(s -> s.multiMatch(mm -> mm
                     .query(keyword)
-                    .maxExpansions(25)))
-                .should(s -> s.matchPhrasePrefix(mpp -> mpp
-                    .field("searchText")
+                    .fields(KEYWORD_FIELDS)
+                    .type(TextQueryType.MostFields)
+                    .minimumShouldMatch("75%")));
+                b.should(s -> s.match(m -> m
+                    .field("title.prefix")
                     .query(keyword)
-                    .maxExpansions(25)))
-                .minimumShouldMatch("1"))));
+                    .operator(Operator.And)
+                    .boost(2.0f)));
+                if (properties.isFuzzyKeywordEnabled()) {
+                    b.should(s -> s.match(m -> m
+                        .field("title.folded")
+                        .query(keyword)
+                        .fuzziness("AUTO")
+                        .prefixLength(2)
+                        .maxExpansions(10)
+                        .boost(0.5f)));
+                }
+                return b.minimumShouldMatch("1");
+            })));
         }
 
         if (StringUtils.hasText(request.getDocumentType())) {
@@ -286,6 +507,11 @@ public class ElasticsearchDocumentSearchService implements DocumentSearchService
 
         filterQueries.add(Query.of(q -> q.term(t -> t.field("deleted").value(false))));
 
+        DataScopeFilter dataScope = request.getDataScope();
+        if (dataScope != null && !dataScope.isUnrestricted()) {
+            filterQueries.add(buildDataScopeQuery(dataScope));
+        }
+
         if (mustQueries.isEmpty() && filterQueries.isEmpty()) {
             return Query.of(q -> q.matchAll(m -> m));
         }
@@ -296,4 +522,26 @@ public class ElasticsearchDocumentSearchService implements DocumentSearchService
             return b;
         }));
     }
+
+    /**
+     * Tập đơn vị đã mở rộng sẵn nên là một terms filter (cache được ở node ES), không cần truy vấn cây.
+     */
+    private Query buildDataScopeQuery(DataScopeFilter dataScope) {
+        if (dataScope.matchesNothing()) {
+            return Query.of(q -> q.bool(b -> b.mustNot(m -> m.matchAll(all -> all))));
+        }
+
+        List<FieldValue> organizationIds = dataScope.getOrganizationIds().stream()
+            .map(organizationId -> FieldValue.of(organizationId.toString()))
+            .toList();
+        return Query.of(q -> q.bool(b -> {
+            if (!organizationIds.isEmpty()) {
+                b.should(s -> s.terms(t -> t.field("organizationId").terms(v -> v.value(organizationIds))));
+            }
+            if (dataScope.getOwnerId() != null) {
+                b.should(s -> s.term(t -> t.field("createdBy").value(dataScope.getOwnerId().toString())));
+            }
+            return b.minimumShouldMatch("1");
+        }));
+    }
 }
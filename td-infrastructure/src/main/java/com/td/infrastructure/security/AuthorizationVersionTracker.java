@@ -0,0 +1,49 @@
+package com.td.infrastructure.security;
+
+import com.td.infrastructure.persistence.repository.AuthorizationVersionJpaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Giữ trong bộ nhớ version dữ liệu phân quyền (bảng {@code authorization_versions}, tăng bằng trigger).
+ *
+ * <p>Luồng request chỉ đọc biến volatile; thay đổi vai trò/quyền có hiệu lực trên mọi node sau tối đa một chu kỳ poll.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthorizationVersionTracker {
+
+    static final String PERMISSIONS_SCOPE = "permissions";
+
+    private final AuthorizationVersionJpaRepository authorizationVersionRepository;
+    private volatile long permissionsVersion;
+
+    public long permissionsVersion() {
+        return permissionsVersion;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        poll();
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.security.authorization-version.poll-interval:PT5S}",
+        fixedDelayString = "${app.security.authorization-version.poll-interval:PT5S}")
+    public void poll() {
+        try {
+            long version = authorizationVersionRepository.findVersion(PERMISSIONS_SCOPE).orElse(0L);
+            if (version != permissionsVersion) {
+                log.debug("Version phân quyền thay đổi {} -> {}", permissionsVersion, version);
+                permissionsVersion = version;
+            }
+        } catch (Exception ex) {
+            log.warn("Không đọc được version phân quyền, giữ version {}: {}", permissionsVersion, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.td.infrastructure.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+
+/**
+ * Kiểm tra quyền bằng bitset của {@link CurrentUserContext}.
+ *
+ * <p>Dùng trong {@code @PreAuthorize} theo hai cách:</p>
+ * <pre>
+ * &#64;PreAuthorize("hasPermission(null, 'documents.read')")
+ * &#64;PreAuthorize("&#64;permissions.hasPermission('documents.read')")
+ * </pre>
+ * <p>Ngữ cảnh được memo theo token nên mỗi lần kiểm tra chỉ là một lần tra id mã quyền và một phép test bit.
+ * Evaluator chưa xét quyền theo từng đối tượng: {@code targetDomainObject}/{@code targetId} bị bỏ qua.</p>
+ */
+@Component("permissions")
+@RequiredArgsConstructor
+public class BitSetPermissionEvaluator implements PermissionEvaluator {
+
+    private final CurrentUserContextResolver currentUserContextResolver;
+    private final PermissionRegistry permissionRegistry;
+
+    public boolean hasPermission(String code) {
+        return hasPermission(SecurityContextHolder.getContext().getAuthentication(), code);
+    }
+
+    public boolean hasAnyPermission(String... codes) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        PermissionSet permissionSet = permissionSet(authentication);
+        for (String code : codes) {
+            if (permissionSet.contains(permissionRegistry.idOf(code))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+        return permission instanceof String code && hasPermission(authentication, code);
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType, Object permission) {
+        return permission instanceof String code && hasPermission(authentication, code);
+    }
+
+    private boolean hasPermission(Authentication authentication, String code) {
+        int id = permissionRegistry.idOf(code);
+        return id >= 0 && permissionSet(authentication).contains(id);
+    }
+
+    private PermissionSet permissionSet(Authentication authentication) {
+        return currentUserContextResolver.resolve(authentication)
+            .map(CurrentUserContext::getPermissionSet)
+            .orElse(PermissionSet.EMPTY);
+    }
+}
@@ -0,0 +1,88 @@
+package com.td.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Bọc {@link JwtDecoder} để chỉ xác minh chữ ký RSA một lần cho mỗi token.
+ *
+ * <p>Token giải mã thành công được nhớ theo SHA-256 của token tới đúng thời điểm {@code exp}; token không có
+ * {@code exp} hoặc giải mã lỗi không được nhớ. Trước khi dùng lại, entry phải còn hạn và khóa ký ({@code kid})
+ * phải còn trong JWKS hiện hành, nên khóa bị Keycloak gỡ cũng làm mất hiệu lực các token đã nhớ.</p>
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final KeycloakJwkSetCache jwkSetCache;
+    private final Cache<String, Jwt> verifiedTokens;
+
+    public CachingJwtDecoder(JwtDecoder delegate, KeycloakJwkSetCache jwkSetCache, long maximumSize) {
+        this.delegate = delegate;
+        this.jwkSetCache = jwkSetCache;
+        this.verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new UntilExpiry())
+            .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = sha256(token);
+        Jwt cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && token.equals(cached.getTokenValue()) && isStillUsable(cached)) {
+            return cached;
+        }
+
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            verifiedTokens.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    private boolean isStillUsable(Jwt jwt) {
+        if (!Instant.now().isBefore(jwt.getExpiresAt())) {
+            return false;
+        }
+        Object keyId = jwt.getHeaders().get("kid");
+        return keyId == null || jwkSetCache.containsKeyId(keyId.toString());
+    }
+
+    private String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 không khả dụng", e);
+        }
+    }
+
+    private static final class UntilExpiry implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            return Math.max(0L, Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
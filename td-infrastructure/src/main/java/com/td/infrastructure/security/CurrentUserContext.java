@@ -1,5 +1,7 @@
 package com.td.infrastructure.security;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.td.application.common.models.DataScopeFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,7 +10,10 @@ import lombok.NoArgsConstructor;
 import java.io.Serial;
 import java.io.Serializable;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -21,6 +26,8 @@ public class CurrentUserContext implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
+    static final String ALL_MODULES = "*";
+
     private String subject;
     private UUID userUuid;
     private String userId;
@@ -35,6 +42,33 @@ public class CurrentUserContext implements Serializable {
     @Builder.Default
     private Set<String> permissions = new LinkedHashSet<>();
 
+    /**
+     * {@link #permissions} đã biên dịch sang bitset theo {@link PermissionRegistry}, dùng cho kiểm tra quyền O(1).
+     */
+    @JsonIgnore
+    @Builder.Default
+    private PermissionSet permissionSet = PermissionSet.EMPTY;
+
+    /**
+     * Data scope theo phân hệ (khóa viết thường, {@code *} áp cho mọi phân hệ); phân hệ không có scope là không giới hạn.
+     */
+    @JsonIgnore
+    @Builder.Default
+    private Map<String, DataScopeFilter> dataScopes = new LinkedHashMap<>();
+
     private long profileVersion;
+
+    /**
+     * Version phân quyền DB đã gộp vào {@link #roles}/{@link #permissions}, xem {@link AuthorizationVersionTracker}.
+     */
+    private long authorizationVersion;
     private Instant resolvedAt;
-}
\ No newline at end of file
+
+    public DataScopeFilter dataScopeFor(String module) {
+        DataScopeFilter scope = module == null ? null : dataScopes.get(module.toLowerCase(Locale.ROOT));
+        if (scope == null) {
+            scope = dataScopes.get(ALL_MODULES);
+        }
+        return scope == null ? DataScopeFilter.unrestricted() : scope;
+    }
+}
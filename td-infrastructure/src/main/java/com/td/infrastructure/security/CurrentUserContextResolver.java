@@ -3,79 +3,46 @@ package com.td.infrastructure.security;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.CacheManager;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.time.Instant;
-import java.util.Collection;
-import java.util.LinkedHashSet;
-import java.util.Locale;
+import java.util.HexFormat;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Resolve ngữ cảnh người dùng hiện tại từ JWT.
+ *
+ * <p>Ngữ cảnh được memo theo từng token (jti, hoặc SHA-256 của token nếu không có jti) trong L1 giới hạn kích
+ * thước; trượt L1 thì dựng lại bằng {@link UserContextClaimExtractor}. Bitset quyền vì vậy cũng chỉ biên dịch
+ * một lần cho mỗi token. Token khác (làm mới, đổi vai trò) luôn cho ra ngữ cảnh mới.</p>
+ *
+ * <p>Vai trò/quyền cấp trong DB ({@link EffectivePermissionResolver}, có cache riêng) được gộp vào ngữ cảnh khi
+ * dựng; entry memo cũ hơn version phân quyền hiện tại bị dựng lại, việc kiểm tra chỉ là so sánh một biến volatile.</p>
+ */
 @Component
 @RequiredArgsConstructor
-@Slf4j
 public class CurrentUserContextResolver {
 
-    public static final String USER_CONTEXT_CACHE = "security:user-context";
-    private static final String ROLE_PREFIX = "ROLE_";
+    private final PermissionRegistry permissionRegistry;
+    private final EffectivePermissionResolver effectivePermissionResolver;
+    private final AuthorizationVersionTracker authorizationVersionTracker;
 
-    private final CacheManager cacheManager;
-
-    // L1 near-cache on each app node to reduce Redis roundtrips for hot users.
-    private final Cache<String, CurrentUserContext> localCache = Caffeine.newBuilder()
+    // Token hết hạn bị chặn ở bước xác thực nên entry cũ không bao giờ được dùng lại, TTL chỉ để giải phóng bộ nhớ
+    private final Cache<String, CurrentUserContext> tokenCache = Caffeine.newBuilder()
         .maximumSize(100_000)
-        .expireAfterWrite(Duration.ofSeconds(300)) // slightly longer than Redis TTL to avoid cache stampede
+        .expireAfterWrite(Duration.ofMinutes(5))
         .build();
 
     public Optional<CurrentUserContext> resolveCurrentUserContext() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return Optional.empty();
-        }
-
-        Jwt jwt = extractJwt(authentication);
-        String cacheKey = buildCacheKey(authentication, jwt);
-
-        CurrentUserContext local = localCache.getIfPresent(cacheKey);
-        if (local != null) {
-            return Optional.of(local);
-        }
-
-        org.springframework.cache.Cache redisCache = resolveRedisCache();
-        if (redisCache != null) {
-            try {
-                CurrentUserContext cached = redisCache.get(cacheKey, CurrentUserContext.class);
-                if (cached != null) {
-                    localCache.put(cacheKey, cached);
-                    return Optional.of(cached);
-                }
-            } catch (Exception ex) {
-                log.debug("Read user context from Redis failed for key {}: {}", cacheKey, ex.getMessage());
-            }
-        }
-
-        CurrentUserContext resolved = buildContext(authentication, jwt);
-        localCache.put(cacheKey, resolved);
-
-        if (redisCache != null) {
-            try {
-                redisCache.put(cacheKey, resolved);
-            } catch (Exception ex) {
-                log.debug("Write user context to Redis failed for key {}: {}", cacheKey, ex.getMessage());
-            }
-        }
-
-        return Optional.of(resolved);
+        return resolve(SecurityContextHolder.getContext().getAuthentication());
     }
 
     public Optional<UUID> resolveCurrentUserUuid() {
@@ -83,232 +50,47 @@ public class CurrentUserContextResolver {
             .map(CurrentUserContext::getUserUuid);
     }
 
-    private org.springframework.cache.Cache resolveRedisCache() {
-        return cacheManager.getCache(USER_CONTEXT_CACHE);
-    }
-
-    private Jwt extractJwt(Authentication authentication) {
-        if (authentication instanceof JwtAuthenticationToken jwtAuthenticationToken) {
-            return jwtAuthenticationToken.getToken();
-        }
-        return null;
-    }
-
-    private String buildCacheKey(Authentication authentication, Jwt jwt) {
-        String issuer = claimAsString(jwt, "iss");
-        String subject = claimAsString(jwt, "sub");
-        String activeOrgId = firstNonBlank(
-            claimAsString(jwt, "active_org_id"),
-            claimAsString(jwt, "unit_id"),
-            claimAsString(jwt, "agency_id")
-        );
-        long profileVersion = parseLong(
-            firstNonBlank(
-                claimAsString(jwt, "profile_version"),
-                claimAsString(jwt, "ctx_version"),
-                claimAsString(jwt, "version")
-            ),
-            0L
-        );
-
-        String principal = firstNonBlank(subject, authentication.getName());
-        return "ctx:"
-            + safe(issuer) + ':'
-            + safe(principal) + ':'
-            + safe(activeOrgId) + ':'
-            + profileVersion;
-    }
-
-    private CurrentUserContext buildContext(Authentication authentication, Jwt jwt) {
-        String subject = firstNonBlank(claimAsString(jwt, "sub"), authentication.getName());
-        String userId = firstNonBlank(
-            claimAsString(jwt, "id"),
-            claimAsString(jwt, "user_id"),
-            subject
-        );
-        UUID userUuid = firstParsableUuid(
-            claimAsString(jwt, "user_uuid"),
-            claimAsString(jwt, "id"),
-            claimAsString(jwt, "sub")
-        );
-
-        String username = firstNonBlank(
-            claimAsString(jwt, "preferred_username"),
-            claimAsString(jwt, "username"),
-            authentication.getName()
-        );
-
-        Set<String> roles = extractRoles(authentication);
-        Set<String> permissions = extractPermissions(jwt);
-
-        return CurrentUserContext.builder()
-            .subject(subject)
-            .userUuid(userUuid)
-            .userId(userId)
-            .username(username)
-            .issuer(claimAsString(jwt, "iss"))
-            .activeOrgId(firstNonBlank(
-                claimAsString(jwt, "active_org_id"),
-                claimAsString(jwt, "unit_id"),
-                claimAsString(jwt, "agency_id")
-            ))
-            .agencyId(claimAsString(jwt, "agency_id"))
-            .roles(roles)
-            .permissions(permissions)
-            .profileVersion(parseLong(firstNonBlank(
-                claimAsString(jwt, "profile_version"),
-                claimAsString(jwt, "ctx_version"),
-                claimAsString(jwt, "version")
-            ), 0L))
-            .resolvedAt(Instant.now())
-            .build();
-    }
-
-    private Set<String> extractRoles(Authentication authentication) {
-        Set<String> roles = new LinkedHashSet<>();
-
-        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-        if (authorities == null || authorities.isEmpty()) {
-            return roles;
-        }
-
-        for (GrantedAuthority authority : authorities) {
-            if (authority == null || authority.getAuthority() == null) {
-                continue;
-            }
-            String value = authority.getAuthority().trim();
-            if (value.startsWith(ROLE_PREFIX) && value.length() > ROLE_PREFIX.length()) {
-                roles.add(value.substring(ROLE_PREFIX.length()));
-            } else if (!value.isEmpty()) {
-                roles.add(value);
-            }
-        }
-
-        return roles;
-    }
-
-    private Set<String> extractPermissions(Jwt jwt) {
-        Set<String> permissions = new LinkedHashSet<>();
-        if (jwt == null) {
-            return permissions;
-        }
-
-        Object rawPermissions = jwt.getClaims().get("permissions");
-        permissions.addAll(toStringSet(rawPermissions));
-
-        // Legacy token compatibility: old systems put semicolon-separated permissions in claim "roles".
-        String legacyRoles = claimAsString(jwt, "roles");
-        if (legacyRoles != null && !legacyRoles.isBlank()) {
-            String[] split = legacyRoles.split(";");
-            for (String item : split) {
-                if (item != null && !item.isBlank()) {
-                    permissions.add(item.trim());
-                }
-            }
-        }
-
-        return permissions;
-    }
-
-    private Set<String> toStringSet(Object raw) {
-        Set<String> values = new LinkedHashSet<>();
-        if (raw == null) {
-            return values;
-        }
-
-        if (raw instanceof Collection<?> collection) {
-            for (Object item : collection) {
-                if (item != null) {
-                    String value = String.valueOf(item).trim();
-                    if (!value.isEmpty()) {
-                        values.add(value);
-                    }
-                }
-            }
-            return values;
-        }
-
-        String asText = String.valueOf(raw);
-        if (asText.contains(";")) {
-            String[] split = asText.split(";");
-            for (String item : split) {
-                if (item != null && !item.isBlank()) {
-                    values.add(item.trim());
-                }
-            }
-            return values;
-        }
-
-        if (!asText.isBlank()) {
-            values.add(asText.trim());
-        }
-        return values;
-    }
-
-    private String claimAsString(Jwt jwt, String claimName) {
-        if (jwt == null || claimName == null || claimName.isBlank()) {
-            return null;
+    Optional<CurrentUserContext> resolve(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return Optional.empty();
         }
 
-        Object value = jwt.getClaims().get(claimName);
-        if (value == null) {
-            return null;
+        if (!(authentication instanceof JwtAuthenticationToken jwtAuthentication)) {
+            return Optional.of(build(null, authentication));
         }
-        String text = String.valueOf(value).trim();
-        return text.isEmpty() ? null : text;
-    }
 
-    private String firstNonBlank(String... values) {
-        if (values == null || values.length == 0) {
-            return null;
+        Jwt jwt = jwtAuthentication.getToken();
+        String key = tokenKey(jwt);
+        CurrentUserContext context = tokenCache.get(key, ignored -> build(jwt, authentication));
+        if (context.getAuthorizationVersion() < authorizationVersionTracker.permissionsVersion()) {
+            // Vai trò/quyền trong DB đã đổi kể từ khi memo: dựng lại với quyền hiệu lực mới
+            context = build(jwt, authentication);
+            tokenCache.put(key, context);
         }
-        for (String value : values) {
-            if (value != null && !value.isBlank()) {
-                return value.trim();
-            }
-        }
-        return null;
+        return Optional.of(context);
     }
 
-    private long parseLong(String value, long fallback) {
-        try {
-            if (value == null || value.isBlank()) {
-                return fallback;
-            }
-            return Long.parseLong(value.trim());
-        } catch (Exception ex) {
-            return fallback;
-        }
+    private CurrentUserContext build(Jwt jwt, Authentication authentication) {
+        String subject = jwt != null && jwt.getSubject() != null ? jwt.getSubject() : authentication.getName();
+        EffectivePermissions granted = effectivePermissionResolver.resolve(subject);
+        return UserContextClaimExtractor.extract(jwt, authentication, granted, permissionRegistry);
     }
 
-    private UUID firstParsableUuid(String... values) {
-        if (values == null || values.length == 0) {
-            return null;
-        }
-        for (String value : values) {
-            UUID parsed = parseUuid(value);
-            if (parsed != null) {
-                return parsed;
-            }
+    private String tokenKey(Jwt jwt) {
+        String jti = jwt.getId();
+        if (jti != null && !jti.isBlank()) {
+            Object issuer = jwt.getClaims().get("iss");
+            return "jti:" + issuer + ':' + jti;
         }
-        return null;
+        return "sha256:" + sha256(jwt.getTokenValue());
     }
 
-    private UUID parseUuid(String value) {
+    private String sha256(String value) {
         try {
-            if (value == null || value.isBlank()) {
-                return null;
-            }
-            return UUID.fromString(value.trim());
-        } catch (Exception ex) {
-            return null;
-        }
-    }
-
-    private String safe(String value) {
-        if (value == null || value.isBlank()) {
-            return "_";
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 không khả dụng", e);
         }
-        return value.trim().toLowerCase(Locale.ROOT);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package com.td.infrastructure.security;
+
+import com.td.application.common.interfaces.DataScopeProvider;
+import com.td.application.common.models.DataScopeFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Lấy data scope từ {@link CurrentUserContext} đã memo theo token, nên không tốn truy vấn trên luồng request.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserDataScopeProvider implements DataScopeProvider {
+
+    private final CurrentUserContextResolver currentUserContextResolver;
+
+    @Override
+    public DataScopeFilter currentScope(String module) {
+        return currentUserContextResolver.resolveCurrentUserContext()
+            .map(context -> context.dataScopeFor(module))
+            .orElse(DataScopeFilter.unrestricted());
+    }
+
+    @Override
+    public UUID currentOrganizationId() {
+        return currentUserContextResolver.resolveCurrentUserContext()
+            .map(CurrentUserContext::getActiveOrgId)
+            .map(this::parseUuid)
+            .orElse(null);
+    }
+
+    private UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
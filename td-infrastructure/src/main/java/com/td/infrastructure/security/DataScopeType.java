@@ -0,0 +1,42 @@
+package com.td.infrastructure.security;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Các loại {@code app_user_data_scopes.scope_type} được hỗ trợ (không phân biệt hoa thường, có vài tên đồng nghĩa).
+ */
+enum DataScopeType {
+
+    /** Toàn bộ dữ liệu của phân hệ. */
+    ALL(Set.of("all")),
+    /** Chỉ đơn vị được chỉ định (hoặc đơn vị của người dùng nếu scope_org_id để trống). */
+    ORGANIZATION(Set.of("org", "organization", "unit")),
+    /** Đơn vị được chỉ định và toàn bộ đơn vị con. */
+    ORGANIZATION_TREE(Set.of("org_tree", "org_and_children", "subtree")),
+    /** Chỉ bản ghi do chính người dùng tạo. */
+    SELF(Set.of("self", "own"));
+
+    private final Set<String> codes;
+
+    DataScopeType(Set<String> codes) {
+        this.codes = codes;
+    }
+
+    Set<String> codes() {
+        return codes;
+    }
+
+    static DataScopeType from(String code) {
+        if (code == null) {
+            return null;
+        }
+        String normalized = code.trim().toLowerCase(Locale.ROOT);
+        for (DataScopeType type : values()) {
+            if (type.codes.contains(normalized)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
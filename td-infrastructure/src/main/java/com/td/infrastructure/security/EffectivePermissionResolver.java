@@ -0,0 +1,148 @@
+package com.td.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.td.infrastructure.persistence.repository.AppUserJpaRepository;
+import com.td.infrastructure.persistence.repository.UserDataScopeJpaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tính vai trò/quyền hiệu lực cấp trong DB (app_user_roles → app_roles → app_role_permissions) và data scope
+ * (app_user_data_scopes mở rộng qua organization_closure) theo người dùng.
+ *
+ * <p>Kết quả được cache theo keycloak subject ở L1 (Caffeine) và L2 (Redis, dùng chung giữa các node), gắn version
+ * phân quyền tại thời điểm tính. Entry cũ hơn version hiện tại bị bỏ qua và tính lại, nên DB chỉ bị chạm
+ * khi người dùng chưa có trong cache hoặc dữ liệu phân quyền vừa thay đổi.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EffectivePermissionResolver {
+
+    public static final String EFFECTIVE_PERMISSIONS_CACHE = "security:effective-permissions";
+
+    private final AppUserJpaRepository appUserRepository;
+    private final UserDataScopeJpaRepository userDataScopeRepository;
+    private final AuthorizationVersionTracker versionTracker;
+    private final CacheManager cacheManager;
+
+    private final Cache<String, EffectivePermissions> localCache = Caffeine.newBuilder()
+        .maximumSize(50_000)
+        .expireAfterWrite(Duration.ofMinutes(10))
+        .build();
+
+    public EffectivePermissions resolve(String keycloakSubject) {
+        // Đọc version trước khi truy vấn: dữ liệu đọc sau luôn mới ít nhất bằng version gắn vào entry
+        long version = versionTracker.permissionsVersion();
+        if (keycloakSubject == null || keycloakSubject.isBlank()) {
+            return EffectivePermissions.none(version);
+        }
+
+        EffectivePermissions local = localCache.getIfPresent(keycloakSubject);
+        if (local != null && local.getVersion() >= version) {
+            return local;
+        }
+
+        EffectivePermissions shared = readShared(keycloakSubject);
+        if (shared != null && shared.getVersion() >= version) {
+            localCache.put(keycloakSubject, shared);
+            return shared;
+        }
+
+        EffectivePermissions loaded;
+        try {
+            loaded = load(keycloakSubject, version);
+        } catch (Exception ex) {
+            log.warn("Không tính được quyền hiệu lực của {}: {}", keycloakSubject, ex.getMessage());
+            // Không cache kết quả lỗi; dùng tạm bản cũ nếu có, nếu không thì chỉ còn quyền trong token
+            return local != null ? local : shared != null ? shared : EffectivePermissions.none(version);
+        }
+
+        localCache.put(keycloakSubject, loaded);
+        writeShared(keycloakSubject, loaded);
+        return loaded;
+    }
+
+    private EffectivePermissions load(String keycloakSubject, long version) {
+        EffectivePermissions result = EffectivePermissions.none(version);
+        List<Object[]> rows = appUserRepository.findEffectiveGrants(keycloakSubject);
+        for (Object[] row : rows) {
+            UUID organizationId = (UUID) row[0];
+            String roleCode = (String) row[1];
+            String permissionCode = (String) row[2];
+
+            if (organizationId == null) {
+                result.getRoles().add(roleCode);
+                if (permissionCode != null) {
+                    result.getPermissions().add(permissionCode);
+                }
+            } else {
+                result.getOrganizationRoles()
+                    .computeIfAbsent(organizationId, ignored -> new LinkedHashSet<>())
+                    .add(roleCode);
+                if (permissionCode != null) {
+                    result.getOrganizationPermissions()
+                        .computeIfAbsent(organizationId, ignored -> new LinkedHashSet<>())
+                        .add(permissionCode);
+                }
+            }
+        }
+
+        for (Object[] row : userDataScopeRepository.findExpandedScopes(
+                keycloakSubject, DataScopeType.ORGANIZATION_TREE.codes())) {
+            String module = (String) row[0];
+            if (module == null) {
+                continue;
+            }
+
+            // Phân hệ có cấu hình scope thì không còn rơi về "không giới hạn": scope_type lạ vẫn tạo grant rỗng
+            EffectivePermissions.DataScopeGrant grant =
+                result.getDataScopes().computeIfAbsent(module, ignored -> new EffectivePermissions.DataScopeGrant());
+            DataScopeType type = DataScopeType.from((String) row[1]);
+            if (type == null) {
+                log.warn("scope_type '{}' của {} ở phân hệ {} không được hỗ trợ, coi như không có dữ liệu",
+                    row[1], keycloakSubject, module);
+                continue;
+            }
+            switch (type) {
+                case ALL -> grant.setAll(true);
+                case SELF -> grant.setSelf(true);
+                case ORGANIZATION, ORGANIZATION_TREE -> {
+                    if (row[2] != null) {
+                        grant.getOrganizationIds().add((UUID) row[2]);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private EffectivePermissions readShared(String keycloakSubject) {
+        try {
+            org.springframework.cache.Cache cache = cacheManager.getCache(EFFECTIVE_PERMISSIONS_CACHE);
+            return cache == null ? null : cache.get(keycloakSubject, EffectivePermissions.class);
+        } catch (Exception ex) {
+            log.debug("Không đọc được cache quyền hiệu lực từ Redis: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeShared(String keycloakSubject, EffectivePermissions permissions) {
+        try {
+            org.springframework.cache.Cache cache = cacheManager.getCache(EFFECTIVE_PERMISSIONS_CACHE);
+            if (cache != null) {
+                cache.put(keycloakSubject, permissions);
+            }
+        } catch (Exception ex) {
+            log.debug("Không ghi được cache quyền hiệu lực vào Redis: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.td.infrastructure.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Vai trò, quyền và data scope được cấp trong DB cho một người dùng, tách theo phạm vi đơn vị.
+ *
+ * <p>{@link #version} là version phân quyền đọc trước khi truy vấn, entry còn hợp lệ khi version này
+ * không nhỏ hơn version hiện tại của {@link AuthorizationVersionTracker}.</p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EffectivePermissions implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private long version;
+
+    @Builder.Default
+    private Set<String> roles = new LinkedHashSet<>();
+
+    @Builder.Default
+    private Set<String> permissions = new LinkedHashSet<>();
+
+    @Builder.Default
+    private Map<UUID, Set<String>> organizationRoles = new LinkedHashMap<>();
+
+    @Builder.Default
+    private Map<UUID, Set<String>> organizationPermissions = new LinkedHashMap<>();
+
+    /**
+     * Data scope theo phân hệ (scope_module viết thường), tập đơn vị đã mở rộng qua organization_closure.
+     */
+    @Builder.Default
+    private Map<String, DataScopeGrant> dataScopes = new LinkedHashMap<>();
+
+    static EffectivePermissions none(long version) {
+        return EffectivePermissions.builder().version(version).build();
+    }
+
+    /**
+     * Vai trò toàn hệ thống cộng vai trò gán riêng cho đơn vị {@code organizationId}.
+     */
+    Set<String> rolesIn(UUID organizationId) {
+        return merge(roles, organizationId == null ? null : organizationRoles.get(organizationId));
+    }
+
+    /**
+     * Quyền toàn hệ thống cộng quyền từ vai trò gán riêng cho đơn vị {@code organizationId}.
+     */
+    Set<String> permissionsIn(UUID organizationId) {
+        return merge(permissions, organizationId == null ? null : organizationPermissions.get(organizationId));
+    }
+
+    boolean isEmpty() {
+        return roles.isEmpty() && organizationRoles.isEmpty();
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class DataScopeGrant implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private boolean all;
+        private boolean self;
+        private Set<UUID> organizationIds = new LinkedHashSet<>();
+    }
+
+    private static Set<String> merge(Set<String> global, Set<String> scoped) {
+        if (scoped == null || scoped.isEmpty()) {
+            return global;
+        }
+        Set<String> merged = new LinkedHashSet<>(global);
+        merged.addAll(scoped);
+        return merged;
+    }
+}
@@ -0,0 +1,129 @@
+package com.td.infrastructure.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bộ khóa JWKS của Keycloak giữ sẵn trong bộ nhớ, làm nguồn khóa cho bước xác minh chữ ký JWT.
+ *
+ * <p>Nạp một lần khi khởi động, sau đó làm mới ở luồng nền theo chu kỳ. Token có {@code kid} chưa biết (Keycloak vừa
+ * xoay khóa) chỉ kích hoạt một lần làm mới nền, giới hạn tần suất; request hiện tại bị từ chối như khóa không hợp lệ
+ * thay vì chờ tải JWKS. Tải lỗi thì giữ nguyên bộ khóa cũ.</p>
+ */
+@Slf4j
+@Component
+public class KeycloakJwkSetCache implements JWKSource<SecurityContext> {
+
+    // Giới hạn kích thước tài liệu JWKS đọc về, giống mặc định của Nimbus
+    private static final int JWKS_SIZE_LIMIT = 50 * 1024;
+
+    private final KeycloakProperties keycloakProperties;
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jwks-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile JWKSet jwkSet;
+    private volatile long lastRefreshNanos;
+
+    public KeycloakJwkSetCache(KeycloakProperties keycloakProperties) {
+        this.keycloakProperties = keycloakProperties;
+        this.lastRefreshNanos = System.nanoTime() - minRefreshIntervalNanos();
+    }
+
+    @PostConstruct
+    void prefetch() {
+        refresh();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.security.keycloak.token-validation.jwks-refresh-interval:PT5M}",
+        fixedDelayString = "${app.security.keycloak.token-validation.jwks-refresh-interval:PT5M}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        JWKSet current = jwkSet;
+        List<JWK> matches = current == null ? List.of() : jwkSelector.select(current);
+        if (matches.isEmpty()) {
+            requestRefresh();
+        }
+        return matches;
+    }
+
+    /**
+     * Khóa {@code kid} còn trong bộ khóa hiện hành không; token ký bằng khóa đã bị gỡ không được dùng lại từ cache.
+     */
+    public boolean containsKeyId(String keyId) {
+        JWKSet current = jwkSet;
+        return current != null && current.getKeyByKeyId(keyId) != null;
+    }
+
+    private void requestRefresh() {
+        if (System.nanoTime() - lastRefreshNanos < minRefreshIntervalNanos()) {
+            return;
+        }
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException ex) {
+            refreshing.set(false);
+            log.debug("Không lên lịch làm mới JWKS được: {}", ex.getMessage());
+        }
+    }
+
+    private void refresh() {
+        lastRefreshNanos = System.nanoTime();
+        KeycloakProperties.TokenValidation config = keycloakProperties.getTokenValidation();
+        String jwkSetUri = keycloakProperties.getJwkSetUri();
+        try {
+            JWKSet loaded = JWKSet.load(
+                URI.create(jwkSetUri).toURL(),
+                (int) config.getJwksConnectTimeout().toMillis(),
+                (int) config.getJwksReadTimeout().toMillis(),
+                JWKS_SIZE_LIMIT);
+            JWKSet previous = jwkSet;
+            jwkSet = loaded;
+            if (previous == null || !previous.getKeys().equals(loaded.getKeys())) {
+                log.info("Đã nạp {} khóa JWKS từ {}", loaded.getKeys().size(), jwkSetUri);
+            }
+        } catch (Exception ex) {
+            log.warn("Không tải được JWKS từ {}, giữ bộ khóa hiện tại: {}", jwkSetUri, ex.getMessage());
+        }
+    }
+
+    private long minRefreshIntervalNanos() {
+        return keycloakProperties.getTokenValidation().getJwksMinRefreshInterval().toNanos();
+    }
+}
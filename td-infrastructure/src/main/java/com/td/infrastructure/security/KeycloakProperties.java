@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "app.security.keycloak")
@@ -28,6 +30,11 @@ public class KeycloakProperties {
      * OAuth2 client secret
      */
     private String clientSecret;
+
+    /**
+     * Cache JWKS và kết quả xác minh chữ ký JWT
+     */
+    private TokenValidation tokenValidation = new TokenValidation();
     
     /**
      * JWT issuer URL (auto-constructed from server URL and realm)
@@ -77,4 +84,27 @@ public class KeycloakProperties {
     public String getWellKnownUri() {
         return getIssuerUri() + "/.well-known/openid_configuration";
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class TokenValidation {
+
+        /**
+         * Chu kỳ làm mới JWKS ở luồng nền
+         */
+        private Duration jwksRefreshInterval = Duration.ofMinutes(5);
+
+        /**
+         * Khoảng cách tối thiểu giữa hai lần làm mới do gặp kid lạ
+         */
+        private Duration jwksMinRefreshInterval = Duration.ofSeconds(30);
+
+        private Duration jwksConnectTimeout = Duration.ofSeconds(2);
+
+        private Duration jwksReadTimeout = Duration.ofSeconds(3);
+
+        /**
+         * Số token đã xác minh được nhớ tối đa (mỗi entry giữ tới exp của token)
+         */
+        private long verifiedTokenCacheSize = 100_000;
+    }
+}
@@ -0,0 +1,97 @@
+package com.td.infrastructure.security;
+
+import com.td.infrastructure.persistence.repository.AppPermissionJpaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Intern mã {@code AppPermission} thành id số nguyên liên tục để biểu diễn quyền dạng bitset.
+ *
+ * <p>Id chỉ có ý nghĩa trong tiến trình hiện tại và không bao giờ bị thu hồi, nên {@link PermissionSet} đã dựng
+ * vẫn đúng khi danh mục quyền thay đổi. Mã có trong token nhưng chưa có trong DB (quyền mới tạo sau khi nạp)
+ * được cấp id khi gặp lần đầu.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionRegistry {
+
+    // Chặn token giả mạo/lỗi làm phình bảng id; vượt ngưỡng thì mã lạ bị coi như không có quyền
+    private static final int MAX_CODES = 65_536;
+
+    private final AppPermissionJpaRepository appPermissionRepository;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        try {
+            List<String> codes = appPermissionRepository.findActiveCodes();
+            codes.forEach(this::intern);
+            log.info("Đã nạp {} mã quyền vào permission registry", codes.size());
+        } catch (Exception ex) {
+            log.warn("Không nạp được danh mục quyền, mã quyền sẽ được cấp id khi gặp lần đầu: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Id của mã quyền, {@code -1} nếu mã chưa từng xuất hiện (không user nào có quyền đó).
+     */
+    public int idOf(String code) {
+        if (code == null) {
+            return -1;
+        }
+        Integer id = ids.get(code);
+        return id == null ? -1 : id;
+    }
+
+    int intern(String code) {
+        String key = code.trim();
+        Integer existing = ids.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        // Cấp id và kiểm tra ngưỡng trong cùng bước: nextId chỉ tăng khi còn chỗ nên không vượt MAX_CODES khi chạy song song
+        Integer id = ids.computeIfAbsent(key, ignored -> {
+            int next = nextId.getAndUpdate(current -> current < MAX_CODES ? current + 1 : current);
+            return next < MAX_CODES ? next : null;
+        });
+        if (id == null) {
+            log.warn("Permission registry đã đủ {} mã, bỏ qua mã quyền {}", MAX_CODES, key);
+            return -1;
+        }
+        return id;
+    }
+
+    public PermissionSet compile(Collection<String> codes) {
+        if (codes == null || codes.isEmpty()) {
+            return PermissionSet.EMPTY;
+        }
+
+        BitSet bits = new BitSet(nextId.get());
+        for (String code : codes) {
+            if (code == null || code.isBlank()) {
+                continue;
+            }
+            int id = intern(code);
+            if (id >= 0) {
+                bits.set(id);
+            }
+        }
+        return PermissionSet.of(bits);
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
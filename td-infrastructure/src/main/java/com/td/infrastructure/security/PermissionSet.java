@@ -0,0 +1,73 @@
+package com.td.infrastructure.security;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Tập quyền hiệu lực dạng bitset bất biến, mỗi bit ứng với một id do {@link PermissionRegistry} cấp.
+ *
+ * <p>Kiểm tra quyền là một phép AND trên {@code long[]}, không băm chuỗi.</p>
+ */
+public final class PermissionSet implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final PermissionSet EMPTY = new PermissionSet(new long[0]);
+
+    private final long[] words;
+
+    private PermissionSet(long[] words) {
+        this.words = words;
+    }
+
+    static PermissionSet of(BitSet bits) {
+        return bits.isEmpty() ? EMPTY : new PermissionSet(bits.toLongArray());
+    }
+
+    public boolean contains(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int index = id >>> 6;
+        return index < words.length && (words[index] & (1L << id)) != 0;
+    }
+
+    public boolean containsAny(int... ids) {
+        for (int id : ids) {
+            if (contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    public int size() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof PermissionSet set && Arrays.equals(words, set.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return "PermissionSet" + BitSet.valueOf(words);
+    }
+}
@@ -1,20 +1,33 @@
 package com.td.infrastructure.security;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.io.Serializable;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
@@ -39,7 +52,7 @@ public class SecurityConfig {
     private final CorsProperties corsProperties;
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtDecoder jwtDecoder) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -63,7 +76,7 @@ public class SecurityConfig {
             )
             .oauth2ResourceServer(oauth2 -> oauth2
                 .jwt(jwt -> jwt
-                    .jwkSetUri(keycloakProperties.getJwkSetUri())
+                    .decoder(jwtDecoder)
                     .jwtAuthenticationConverter(jwtAuthenticationConverter())
                 )
             );
@@ -147,10 +160,55 @@ public class SecurityConfig {
         return normalized;
     }
 
+    /**
+     * Xác minh chữ ký bằng JWKS giữ sẵn trong bộ nhớ ({@link KeycloakJwkSetCache}) và nhớ token đã xác minh tới
+     * {@code exp} ({@link CachingJwtDecoder}). Kiểm tra claim giữ như mặc định của resource server (exp/nbf).
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(KeycloakJwkSetCache jwkSetCache) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSetCache));
+        // Claim do OAuth2TokenValidator của Spring kiểm tra, không để Nimbus kiểm tra lần hai
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder nimbusJwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        nimbusJwtDecoder.setJwtValidator(JwtValidators.createDefault());
+        return new CachingJwtDecoder(
+            nimbusJwtDecoder,
+            jwkSetCache,
+            keycloakProperties.getTokenValidation().getVerifiedTokenCacheSize());
+    }
+
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
         converter.setJwtGrantedAuthoritiesConverter(keycloakJwtConverter);
         return converter;
     }
-}
\ No newline at end of file
+
+    /**
+     * Cho {@code hasPermission(...)} trong {@code @PreAuthorize} dùng bitset quyền thay vì {@code DenyAllPermissionEvaluator}.
+     *
+     * <p>Bean {@code static} và evaluator lấy muộn qua {@link ObjectProvider}: hạ tầng method security được dựng
+     * rất sớm, không được kéo theo SecurityConfig cùng repository/cache phía sau evaluator.</p>
+     */
+    @Bean
+    public static MethodSecurityExpressionHandler methodSecurityExpressionHandler(
+            ObjectProvider<BitSetPermissionEvaluator> permissionEvaluator) {
+        DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+        handler.setPermissionEvaluator(new PermissionEvaluator() {
+            @Override
+            public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+                return permissionEvaluator.getObject().hasPermission(authentication, targetDomainObject, permission);
+            }
+
+            @Override
+            public boolean hasPermission(
+                    Authentication authentication, Serializable targetId, String targetType, Object permission) {
+                return permissionEvaluator.getObject().hasPermission(authentication, targetId, targetType, permission);
+            }
+        });
+        return handler;
+    }
+}
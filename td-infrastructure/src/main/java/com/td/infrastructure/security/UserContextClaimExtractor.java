@@ -0,0 +1,197 @@
+package com.td.infrastructure.security;
+
+import com.td.application.common.models.DataScopeFilter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Dựng {@link CurrentUserContext} từ claim của JWT, authorities của {@link Authentication} và quyền cấp trong DB
+ * ({@link EffectivePermissions}, đã được cache sẵn).
+ *
+ * <p>Không I/O: mỗi claim được đọc đúng một lần từ map claims, nên rẻ hơn một lượt Redis
+ * kèm deserialize JSON.</p>
+ */
+final class UserContextClaimExtractor {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private UserContextClaimExtractor() {
+    }
+
+    static CurrentUserContext extract(
+            Jwt jwt,
+            Authentication authentication,
+            EffectivePermissions granted,
+            PermissionRegistry permissionRegistry) {
+        Map<String, Object> claims = jwt == null ? Collections.emptyMap() : jwt.getClaims();
+        String name = authentication.getName();
+
+        String sub = claim(claims, "sub");
+        String id = claim(claims, "id");
+        String agencyId = claim(claims, "agency_id");
+        String subject = firstNonBlank(sub, name);
+        String activeOrgId = firstNonBlank(claim(claims, "active_org_id"), claim(claims, "unit_id"), agencyId);
+        UUID activeOrgUuid = parseUuid(activeOrgId);
+
+        Set<String> roles = extractRoles(authentication.getAuthorities());
+        roles.addAll(granted.rolesIn(activeOrgUuid));
+        Set<String> permissions = extractPermissions(claims);
+        permissions.addAll(granted.permissionsIn(activeOrgUuid));
+        UUID userUuid = firstParsableUuid(claim(claims, "user_uuid"), id, sub);
+
+        return CurrentUserContext.builder()
+            .subject(subject)
+            .userUuid(userUuid)
+            .userId(firstNonBlank(id, claim(claims, "user_id"), subject))
+            .username(firstNonBlank(claim(claims, "preferred_username"), claim(claims, "username"), name))
+            .issuer(claim(claims, "iss"))
+            .activeOrgId(activeOrgId)
+            .agencyId(agencyId)
+            .roles(roles)
+            .permissions(permissions)
+            .permissionSet(permissionRegistry.compile(permissions))
+            .dataScopes(toDataScopes(granted.getDataScopes(), userUuid))
+            .profileVersion(parseLong(firstNonBlank(
+                claim(claims, "profile_version"),
+                claim(claims, "ctx_version"),
+                claim(claims, "version")), 0L))
+            .authorizationVersion(granted.getVersion())
+            .resolvedAt(Instant.now())
+            .build();
+    }
+
+    private static Map<String, DataScopeFilter> toDataScopes(
+            Map<String, EffectivePermissions.DataScopeGrant> grants,
+            UUID userUuid) {
+        Map<String, DataScopeFilter> scopes = new LinkedHashMap<>();
+        grants.forEach((module, grant) -> scopes.put(module, grant.isAll()
+            ? DataScopeFilter.unrestricted()
+            : DataScopeFilter.restrictedTo(grant.getOrganizationIds(), grant.isSelf() ? userUuid : null)));
+        return scopes;
+    }
+
+    private static Set<String> extractRoles(Collection<? extends GrantedAuthority> authorities) {
+        Set<String> roles = new LinkedHashSet<>();
+        if (authorities == null || authorities.isEmpty()) {
+            return roles;
+        }
+
+        for (GrantedAuthority authority : authorities) {
+            if (authority == null || authority.getAuthority() == null) {
+                continue;
+            }
+            String value = authority.getAuthority().trim();
+            if (value.startsWith(ROLE_PREFIX) && value.length() > ROLE_PREFIX.length()) {
+                roles.add(value.substring(ROLE_PREFIX.length()));
+            } else if (!value.isEmpty()) {
+                roles.add(value);
+            }
+        }
+        return roles;
+    }
+
+    private static Set<String> extractPermissions(Map<String, Object> claims) {
+        Set<String> permissions = new LinkedHashSet<>();
+        addValues(permissions, claims.get("permissions"));
+
+        // Legacy token compatibility: old systems put semicolon-separated permissions in claim "roles".
+        String legacyRoles = claim(claims, "roles");
+        if (legacyRoles != null) {
+            addSplit(permissions, legacyRoles);
+        }
+        return permissions;
+    }
+
+    private static void addValues(Set<String> target, Object raw) {
+        if (raw == null) {
+            return;
+        }
+
+        if (raw instanceof Collection<?> collection) {
+            for (Object item : collection) {
+                if (item != null) {
+                    String value = String.valueOf(item).trim();
+                    if (!value.isEmpty()) {
+                        target.add(value);
+                    }
+                }
+            }
+            return;
+        }
+
+        addSplit(target, String.valueOf(raw));
+    }
+
+    private static void addSplit(Set<String> target, String text) {
+        int start = 0;
+        int length = text.length();
+        while (start <= length) {
+            int end = text.indexOf(';', start);
+            if (end < 0) {
+                end = length;
+            }
+            String item = text.substring(start, end).trim();
+            if (!item.isEmpty()) {
+                target.add(item);
+            }
+            start = end + 1;
+        }
+    }
+
+    private static String claim(Map<String, Object> claims, String claimName) {
+        Object value = claims.get(claimName);
+        if (value == null) {
+            return null;
+        }
+        String text = value instanceof String s ? s.trim() : String.valueOf(value).trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static String firstNonBlank(String first, String second) {
+        return first != null && !first.isBlank() ? first.trim() : second == null || second.isBlank() ? null : second.trim();
+    }
+
+    private static String firstNonBlank(String first, String second, String third) {
+        return firstNonBlank(first, firstNonBlank(second, third));
+    }
+
+    private static long parseLong(String value, long fallback) {
+        try {
+            return value == null ? fallback : Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            return fallback;
+        }
+    }
+
+    private static UUID firstParsableUuid(String... values) {
+        for (String value : values) {
+            UUID parsed = parseUuid(value);
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+        return null;
+    }
+
+    private static UUID parseUuid(String value) {
+        // UUID.fromString ném exception rất tốn kém, lọc nhanh theo độ dài trước
+        if (value == null || value.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
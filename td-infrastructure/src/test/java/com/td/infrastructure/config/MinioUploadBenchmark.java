@@ -0,0 +1,130 @@
+package com.td.infrastructure.config;
+
+import io.minio.BucketExistsArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Đo throughput tải lên MinIO: cách cũ (bucketExists trước mỗi putObject) so với MinioService hiện tại.
+ *
+ * <p>MinIO được dựng bằng Testcontainers, client dùng đúng cấu hình pool của {@link MinIOConfig}.
+ * Tên không khớp mẫu {@code *Test} của surefire nên {@code mvn test} không chạy; chạy riêng (cần Docker):</p>
+ * <pre>
+ * mvn -pl td-infrastructure -am test -Dtest=MinioUploadBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ * </pre>
+ * Tham số: {@code -Dminio.benchmark.objects}, {@code -Dminio.benchmark.object-size-kb},
+ * {@code -Dminio.benchmark.concurrency}.
+ */
+@Slf4j
+@Tag("benchmark")
+@Testcontainers
+class MinioUploadBenchmark {
+
+    private static final String PREFIX = "benchmark/";
+    private static final String ROOT_USER = "minioadmin";
+    private static final String ROOT_PASSWORD = "minioadmin";
+
+    @Container
+    private static final GenericContainer<?> MINIO =
+            new GenericContainer<>("minio/minio:RELEASE.2024-01-16T16-07-38Z")
+                    .withEnv("MINIO_ROOT_USER", ROOT_USER)
+                    .withEnv("MINIO_ROOT_PASSWORD", ROOT_PASSWORD)
+                    .withCommand("server", "/data")
+                    .withExposedPorts(9000)
+                    .waitingFor(Wait.forHttp("/minio/health/ready").forPort(9000));
+
+    private final int objects = Integer.getInteger("minio.benchmark.objects", 500);
+    private final int objectSizeKb = Integer.getInteger("minio.benchmark.object-size-kb", 256);
+    private final int concurrency = Integer.getInteger("minio.benchmark.concurrency", 16);
+
+    private static MinIOProperties minioProperties;
+    private static MinioClient minioClient;
+    private static MinioService minioService;
+
+    @BeforeAll
+    static void setUp() {
+        minioProperties = new MinIOProperties();
+        minioProperties.setUrl("http://" + MINIO.getHost() + ":" + MINIO.getMappedPort(9000));
+        minioProperties.setAccessKey(ROOT_USER);
+        minioProperties.setSecretKey(ROOT_PASSWORD);
+        minioProperties.setBucketName("benchmark");
+
+        minioClient = new MinIOConfig(minioProperties).minioClient();
+        minioService = new MinioService(minioClient, minioProperties);
+    }
+
+    @Test
+    void compareUploadPaths() throws Exception {
+        byte[] payload = new byte[objectSizeKb * 1024];
+        new Random(42).nextBytes(payload);
+        minioService.ensureBucketExists();
+
+        // Lượt đầu để làm nóng pool kết nối và JIT, không tính kết quả
+        runRound("warmup", payload, false);
+        runRound("bucketExists+putObject", payload, false);
+        runRound("MinioService.uploadObject", payload, true);
+    }
+
+    private void runRound(String name, byte[] payload, boolean cachedBucket) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, concurrency));
+        List<String> objectNames = new ArrayList<>(objects);
+        try {
+            long started = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(objects);
+            for (int i = 0; i < objects; i++) {
+                String objectName = PREFIX + UUID.randomUUID();
+                objectNames.add(objectName);
+                futures.add(executor.submit(() -> {
+                    upload(objectName, payload, cachedBucket);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            double seconds = (System.nanoTime() - started) / 1_000_000_000d;
+            double megabytes = (double) objects * payload.length / (1024 * 1024);
+            log.info("[minio-benchmark] {}: {} objects x {}KB, concurrency {} -> {} s, {} MB/s, {} uploads/s",
+                    name, objects, objectSizeKb, concurrency,
+                    String.format("%.2f", seconds),
+                    String.format("%.1f", megabytes / seconds),
+                    String.format("%.0f", objects / seconds));
+        } finally {
+            executor.shutdown();
+            minioService.removeObjects(objectNames);
+        }
+    }
+
+    private void upload(String objectName, byte[] payload, boolean cachedBucket) throws Exception {
+        if (cachedBucket) {
+            minioService.uploadObject(objectName, new ByteArrayInputStream(payload), payload.length, null);
+            return;
+        }
+
+        minioClient.bucketExists(BucketExistsArgs.builder().bucket(minioProperties.getBucketName()).build());
+        minioClient.putObject(PutObjectArgs.builder()
+                .bucket(minioProperties.getBucketName())
+                .object(objectName)
+                .stream(new ByteArrayInputStream(payload), payload.length, -1)
+                .contentType("application/octet-stream")
+                .build());
+    }
+}
@@ -0,0 +1,157 @@
+package com.td.infrastructure.persistence.repository;
+
+import com.td.domain.sharedcore.Organization;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Đo thời gian chuyển một cây con tổ chức sang cha khác: cách cũ (đệ quy, lưu từng node) so với
+ * cập nhật tập hợp qua organization_closure.
+ *
+ * <p>Postgres chạy bằng Testcontainers, schema dựng bằng chính các migration Flyway của td-web, chỉ nạp lớp JPA.
+ * Mỗi lượt dựng một cây khoảng {@code nodes} node trong transaction riêng rồi rollback. Tên không khớp mẫu
+ * {@code *Test} của surefire nên {@code mvn test} không chạy; chạy riêng (cần Docker):</p>
+ * <pre>
+ * mvn -pl td-infrastructure -am test -Dtest=OrganizationSubtreeMoveBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ * </pre>
+ * Tham số: {@code -Dorganization.benchmark.nodes}.
+ */
+@Slf4j
+@Tag("benchmark")
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrganizationSubtreeMoveBenchmark {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        // Migration nằm ở td-web; surefire chạy với thư mục làm việc là td-infrastructure
+        registry.add("spring.flyway.locations", () -> "filesystem:../td-web/src/main/resources/db/migration");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @SpringBootConfiguration
+    @EntityScan({"com.td.domain", "com.td.infrastructure.persistence.entity"})
+    @EnableJpaRepositories("com.td.infrastructure.persistence.repository")
+    static class JpaOnly {
+    }
+
+    @Autowired
+    private OrganizationJpaRepository jpa;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final int nodes = Integer.getInteger("organization.benchmark.nodes", 10_000);
+
+    private PostgresOrganizationRepository organizationRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        organizationRepository = new PostgresOrganizationRepository(jpa);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void compareSubtreeMoves() {
+        // Lượt đầu để làm nóng pool kết nối và JIT, không tính kết quả
+        runRound("warmup", true);
+        runRound("recursive save", false);
+        runRound("set-based update", true);
+    }
+
+    private void runRound(String name, boolean setBased) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Organization target = seedTree();
+            UUID newParentId = seedRoot("BENCH_TARGET_ROOT").getId();
+            String newFullPath = "BENCH_TARGET_ROOT / " + target.getName();
+
+            long started = System.nanoTime();
+            String oldFullPath = target.getFullPath();
+            target.update(null, null, null, newParentId, null, target.getLevel(), newFullPath, null, null);
+            Organization saved = jpa.save(target);
+            int updated = setBased
+                ? organizationRepository.refreshDescendantPaths(saved.getId(), oldFullPath, newFullPath, 0)
+                : refreshRecursively(saved);
+            jpa.flush();
+            double millis = (System.nanoTime() - started) / 1_000_000d;
+
+            log.info("[organization-benchmark] {}: {} descendants -> {} ms", name, updated, String.format("%.1f", millis));
+            status.setRollbackOnly();
+        });
+    }
+
+    /**
+     * Cây 4 tầng agency_level → agency → unit → department với độ phân nhánh đều, tổng xấp xỉ {@code nodes}.
+     * Trả về node gốc của cây con sẽ được chuyển.
+     */
+    private Organization seedTree() {
+        int fanOut = Math.max(1, (int) Math.round(Math.cbrt(nodes)));
+        Organization oldRoot = seedRoot("BENCH_SOURCE_ROOT");
+        Organization target = jpa.save(child(oldRoot, "agency_level", "BENCH_MOVED"));
+
+        List<Organization> level = List.of(target);
+        for (String nodeType : List.of("agency", "unit", "department")) {
+            List<Organization> next = new ArrayList<>(level.size() * fanOut);
+            for (Organization parent : level) {
+                for (int i = 0; i < fanOut; i++) {
+                    next.add(child(parent, nodeType, parent.getIdentifier() + "_" + i));
+                }
+            }
+            jpa.saveAll(next);
+            level = next;
+        }
+        jpa.flush();
+        return target;
+    }
+
+    private Organization seedRoot(String identifier) {
+        return jpa.save(new Organization(identifier, identifier, null, null, "agency_level", 0, identifier, 0,
+            null, null, null, null, null, null, null, null, null, null));
+    }
+
+    private Organization child(Organization parent, String nodeType, String identifier) {
+        return new Organization(identifier, identifier, null, parent.getId(), nodeType, parent.getLevel() + 1,
+            parent.getFullPath() + " / " + identifier, 0,
+            null, null, null, null, parent.getName(), parent.getId().toString(), null, null, null, null);
+    }
+
+    private int refreshRecursively(Organization parent) {
+        int updated = 0;
+        for (Organization child : jpa.findByParentIdAndDeletedOnIsNull(parent.getId())) {
+            child.update(null, null, null, parent.getId(), null, parent.getLevel() + 1,
+                parent.getFullPath() + " / " + child.getName(), null, null);
+            updated += 1 + refreshRecursively(jpa.save(child));
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,181 @@
+package com.td.infrastructure.security;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.td.infrastructure.persistence.repository.AppPermissionJpaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Đo ns/op của từng đường resolve ngữ cảnh người dùng: trúng L1, dựng lại từ claim (trượt L1),
+ * kiểm tra quyền qua bitset so với Set chuỗi, và đọc từ Redis như cách cũ để so sánh.
+ *
+ * <p>Resolver và registry được dựng tay, phần DB được stub (quyền cấp trong DB rỗng); Redis chạy bằng
+ * Testcontainers với serializer giống {@code RedisCacheConfig}. Tên không khớp mẫu {@code *Test} của surefire
+ * nên {@code mvn test} không chạy; chạy riêng (cần Docker):</p>
+ * <pre>
+ * mvn -pl td-infrastructure -am test -Dtest=CurrentUserContextBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ * </pre>
+ * Tham số: {@code -Dsecurity.benchmark.tokens}, {@code -Dsecurity.benchmark.iterations}.
+ */
+@Slf4j
+@Tag("benchmark")
+@Testcontainers
+class CurrentUserContextBenchmark {
+
+    private static final String REDIS_CACHE = "security:user-context-benchmark";
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static CacheManager cacheManager;
+
+    private final int tokens = Integer.getInteger("security.benchmark.tokens", 1000);
+    private final int iterations = Integer.getInteger("security.benchmark.iterations", 200_000);
+
+    private CurrentUserContextResolver resolver;
+    private PermissionRegistry permissionRegistry;
+    private BitSetPermissionEvaluator permissionEvaluator;
+
+    @BeforeAll
+    static void startRedis() {
+        connectionFactory = new LettuceConnectionFactory(
+            new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+            .disableCachingNullValues()
+            .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer()));
+        cacheManager = RedisCacheManager.builder(connectionFactory).cacheDefaults(config).build();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        AppPermissionJpaRepository appPermissionRepository = mock(AppPermissionJpaRepository.class);
+        EffectivePermissionResolver effectivePermissionResolver = mock(EffectivePermissionResolver.class);
+        when(effectivePermissionResolver.resolve(any())).thenReturn(EffectivePermissions.none(0L));
+        AuthorizationVersionTracker versionTracker = mock(AuthorizationVersionTracker.class);
+
+        permissionRegistry = new PermissionRegistry(appPermissionRepository);
+        resolver = new CurrentUserContextResolver(permissionRegistry, effectivePermissionResolver, versionTracker);
+        permissionEvaluator = new BitSetPermissionEvaluator(resolver, permissionRegistry);
+    }
+
+    @Test
+    void compareResolvePaths() {
+        List<JwtAuthenticationToken> authentications = new ArrayList<>(tokens);
+        for (int i = 0; i < tokens; i++) {
+            authentications.add(syntheticToken());
+        }
+
+        // Lượt đầu để làm nóng JIT và nạp L1, không tính kết quả
+        measure("warmup", authentications, resolver::resolve);
+        measure("L1 hit", authentications, resolver::resolve);
+        measure("claim extraction (L1 miss)", authentications,
+            authentication -> UserContextClaimExtractor.extract(
+                authentication.getToken(), authentication, EffectivePermissions.none(0L), permissionRegistry));
+        measure("hasPermission (bitset)", authentications,
+            authentication -> permissionEvaluator.hasPermission(authentication, null, "files.read"));
+        measure("permission lookup (Set<String>)", authentications,
+            authentication -> resolver.resolve(authentication)
+                .map(context -> context.getPermissions().contains("files.read")));
+
+        Cache redisCache = cacheManager.getCache(REDIS_CACHE);
+        try {
+            for (JwtAuthenticationToken authentication : authentications) {
+                redisCache.put(authentication.getToken().getId(),
+                    UserContextClaimExtractor.extract(
+                        authentication.getToken(), authentication, EffectivePermissions.none(0L), permissionRegistry));
+            }
+            measure("Redis get + deserialize (cách cũ)", authentications,
+                authentication -> redisCache.get(authentication.getToken().getId(), CurrentUserContext.class));
+        } finally {
+            redisCache.clear();
+        }
+    }
+
+    private void measure(String name, List<JwtAuthenticationToken> authentications, Consumer<JwtAuthenticationToken> operation) {
+        // Đường Redis chậm hơn vài bậc nên giới hạn số lượt để benchmark không chạy quá lâu
+        int rounds = name.startsWith("Redis") ? Math.min(iterations, 20_000) : iterations;
+        long started = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            operation.accept(authentications.get(i % authentications.size()));
+        }
+        long elapsed = System.nanoTime() - started;
+        log.info("[security-benchmark] {}: {} ops -> {} ns/op", name, rounds, elapsed / Math.max(1, rounds));
+    }
+
+    private JwtAuthenticationToken syntheticToken() {
+        String userId = UUID.randomUUID().toString();
+        Jwt jwt = Jwt.withTokenValue("benchmark-" + userId)
+            .header("alg", "RS256")
+            .jti(UUID.randomUUID().toString())
+            .issuer("http://localhost:8081/realms/td")
+            .subject(userId)
+            .claim("preferred_username", "user-" + userId.substring(0, 8))
+            .claim("active_org_id", UUID.randomUUID().toString())
+            .claim("permissions", List.of("documents.read", "documents.write", "files.read"))
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(300))
+            .build();
+        return new JwtAuthenticationToken(jwt, List.of(
+            new SimpleGrantedAuthority("ROLE_USER"),
+            new SimpleGrantedAuthority("ROLE_DOC_EDITOR")));
+    }
+
+    private static GenericJackson2JsonRedisSerializer valueSerializer() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.registerModule(new Jdk8Module());
+        objectMapper.registerModule(new ParameterNamesModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.activateDefaultTyping(
+            LaissezFaireSubTypeValidator.instance,
+            ObjectMapper.DefaultTyping.NON_FINAL,
+            JsonTypeInfo.As.PROPERTY
+        );
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
+}
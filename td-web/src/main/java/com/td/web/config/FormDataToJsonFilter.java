@@ -42,7 +42,8 @@ import java.util.Set;
  *       part có file (có {@code filename=} trong Content-Disposition), chuyển text
  *       fields thành JSON.</li>
  *   <li>Endpoint upload file thực sự (path chứa {@code /files} hoặc {@code /upload})
- *       được bỏ qua hoàn toàn để không làm hỏng MultipartFile binding.</li>
+ *       được bỏ qua hoàn toàn, với mọi Content-Type: không làm hỏng MultipartFile binding
+ *       và không bao giờ đọc body của endpoint stream ({@code PUT .../files/stream}).</li>
  * </ol>
  *
  * <p><b>Type coercion:</b> Giá trị được parse heuristic:
@@ -93,6 +94,14 @@ public class FormDataToJsonFilter extends OncePerRequestFilter {
             return;
         }
 
+        // Bỏ qua endpoint upload file thực sự
+        String uri = request.getRequestURI();
+        boolean isFileUpload = FILE_UPLOAD_SEGMENTS.stream().anyMatch(uri::contains);
+        if (isFileUpload) {
+            chain.doFilter(request, response);
+            return;
+        }
+
         String ct = contentType.toLowerCase(Locale.ROOT);
 
         if (ct.startsWith("application/x-www-form-urlencoded")) {
@@ -100,14 +109,6 @@ public class FormDataToJsonFilter extends OncePerRequestFilter {
             chain.doFilter(asJsonRequest(request, params), response);
 
         } else if (ct.startsWith("multipart/form-data")) {
-            // Bỏ qua endpoint upload file thực sự
-            String uri = request.getRequestURI();
-            boolean isFileUpload = FILE_UPLOAD_SEGMENTS.stream().anyMatch(uri::contains);
-            if (isFileUpload) {
-                chain.doFilter(request, response);
-                return;
-            }
-
             Map<String, Object> params = readMultipartTextParams(request);
             if (params == null) {
                 // Đọc multipart thất bại → pass-through nguyên gốc
@@ -0,0 +1,102 @@
+package com.td.web.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.td.application.common.models.Result;
+import com.td.infrastructure.security.CurrentUserContext;
+import com.td.infrastructure.security.CurrentUserContextResolver;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Áp {@link RateLimiter} cho các endpoint khai báo trong {@code app.rate-limit.rules}.
+ *
+ * <p>Chạy sau bước chọn handler nên khớp theo route template (vd. {@code /api/v1/danhmuc/CayCoCauToChuc/{id}/children})
+ * chứ không theo URL cụ thể; mỗi người dùng có bucket riêng cho từng endpoint. Request vượt hạn mức nhận {@code 429}
+ * kèm {@code Retry-After} (giây).</p>
+ *
+ * <p>Endpoint trả {@code StreamingResponseBody} được dispatch lại ({@link DispatcherType#ASYNC}) khi stream xong;
+ * lượt dispatch đó không phải request mới nên không lấy thêm token.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+    private final CurrentUserContextResolver currentUserContextResolver;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    // Số route template là hữu hạn nên kết quả khớp quy tắc được nhớ theo method + template
+    private final Map<String, Optional<RateLimitProperties.Rule>> ruleByEndpoint = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!properties.isEnabled()
+                || request.getDispatcherType() == DispatcherType.ASYNC
+                || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return true;
+        }
+
+        String endpoint = request.getMethod() + " " + pattern;
+        RateLimitProperties.Rule rule = ruleByEndpoint
+            .computeIfAbsent(endpoint, ignored -> findRule(request.getMethod(), pattern.toString()))
+            .orElse(null);
+        if (rule == null) {
+            return true;
+        }
+
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(rule, endpoint, resolveSubject(request));
+        if (decision.allowed()) {
+            return true;
+        }
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(),
+            Result.failure("Quá nhiều yêu cầu, vui lòng thử lại sau " + decision.retryAfterSeconds() + " giây"));
+        return false;
+    }
+
+    private Optional<RateLimitProperties.Rule> findRule(String method, String pattern) {
+        for (RateLimitProperties.Rule rule : properties.getRules()) {
+            boolean methodMatches = rule.getMethods().isEmpty()
+                || rule.getMethods().stream().anyMatch(method::equalsIgnoreCase);
+            if (methodMatches && rule.getPatterns().stream().anyMatch(candidate -> pathMatcher.match(candidate, pattern))) {
+                return Optional.of(rule);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private String resolveSubject(HttpServletRequest request) {
+        return currentUserContextResolver.resolveCurrentUserContext()
+            .map(CurrentUserContext::getSubject)
+            .filter(StringUtils::hasText)
+            .map(subject -> "user:" + subject)
+            .orElseGet(() -> "ip:" + request.getRemoteAddr());
+    }
+}
@@ -0,0 +1,42 @@
+package com.td.web.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Data
+public class RateLimitProperties {
+    private boolean enabled = true;
+    // Chu kỳ đẩy lượng dùng cục bộ lên Redis và đọc lại tổng của cả cụm
+    private Duration syncInterval = Duration.ofSeconds(1);
+    private String redisKeyPrefix = "rate-limit";
+    // Bucket không có request trong khoảng này bị bỏ khỏi bộ nhớ
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private long maxBuckets = 100_000;
+    // Quy tắc khớp theo thứ tự khai báo, quy tắc đầu tiên khớp được áp dụng
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        private String name;
+        // Rỗng là mọi HTTP method
+        private List<String> methods = new ArrayList<>();
+        // Route template dạng Ant, so với pattern của handler (vd. /api/v1/danhmuc/CayCoCauToChuc/**)
+        private List<String> patterns = new ArrayList<>();
+        // Số request tối đa mỗi người dùng trên mỗi endpoint trong một period, cho cả cụm
+        private long limit = 60;
+        private Duration period = Duration.ofMinutes(1);
+        // Số request được dồn liên tiếp trên một node; mặc định bằng limit
+        private Long burst;
+
+        public long effectiveBurst() {
+            return burst == null || burst <= 0 ? limit : Math.min(burst, limit);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.td.web.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Giới hạn tần suất request theo người dùng và endpoint bằng token bucket cục bộ, đồng bộ định kỳ qua Redis.
+ *
+ * <p>Mỗi request chỉ chạm bucket trong bộ nhớ (cập nhật CAS, không khóa, không I/O). Lượng đã dùng được gom lại và
+ * theo chu kỳ {@code app.rate-limit.sync-interval} cộng dồn ({@code INCRBY}) vào khóa Redis của cửa sổ thời gian
+ * hiện tại; tổng trả về là lượng cả cụm đã dùng, dùng để hạ số token còn lại của bucket cục bộ hoặc chặn tới hết cửa
+ * sổ khi đã vượt {@code limit}. Vì vậy giới hạn toàn cụm có thể vượt tối đa khoảng một chu kỳ đồng bộ; Redis lỗi thì
+ * mỗi node vẫn tự giới hạn theo bucket cục bộ.</p>
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private final RateLimitProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, TokenBucket> buckets;
+    private final Map<String, Counter> requestCounters = new ConcurrentHashMap<>();
+    private final Counter syncFailures;
+
+    public RateLimiter(RateLimitProperties properties,
+                       StringRedisTemplate redisTemplate,
+                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxBuckets())
+            .expireAfterAccess(properties.getIdleTimeout())
+            .build();
+        this.syncFailures = Counter.builder("rate_limit.sync.failures")
+            .description("Số lần đồng bộ bucket giới hạn tần suất với Redis thất bại")
+            .register(meterRegistry);
+        Gauge.builder("rate_limit.buckets", buckets, Cache::estimatedSize)
+            .description("Số bucket giới hạn tần suất đang giữ trong bộ nhớ")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Lấy một token cho {@code subject} trên {@code endpoint} (method + route template) theo quy tắc {@code rule}.
+     */
+    public Decision tryAcquire(RateLimitProperties.Rule rule, String endpoint, String subject) {
+        // Hash tag {subject} giữ mọi khóa của một người dùng trên cùng slot khi Redis chạy cluster
+        String key = properties.getRedisKeyPrefix() + ":{" + subject + "}:" + rule.getName() + ":" + endpoint;
+        TokenBucket bucket = buckets.get(key, ignored -> new TokenBucket(key, rule));
+        Decision decision = bucket.tryAcquire(System.nanoTime());
+        requestCounter(rule.getName(), decision.allowed() ? "allowed" : "rejected").increment();
+        return decision;
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.rate-limit.sync-interval:PT1S}",
+        fixedDelayString = "${app.rate-limit.sync-interval:PT1S}")
+    public void synchronize() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        List<PendingSync> pending = new ArrayList<>();
+        long nowMillis = System.currentTimeMillis();
+        for (TokenBucket bucket : buckets.asMap().values()) {
+            long consumed = bucket.consumed.sumThenReset();
+            if (consumed > 0) {
+                long periodMillis = bucket.periodNanos / 1_000_000L;
+                long window = nowMillis / periodMillis;
+                pending.add(new PendingSync(bucket, bucket.key + ":" + window, consumed,
+                    (window + 1) * periodMillis - nowMillis, periodMillis));
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection commands = (StringRedisConnection) connection;
+                for (PendingSync sync : pending) {
+                    commands.incrBy(sync.redisKey(), sync.consumed());
+                    // Giữ khóa thêm một period để node đồng bộ trễ sát biên cửa sổ vẫn cộng đúng chỗ
+                    commands.pExpire(sync.redisKey(), 2 * sync.periodMillis());
+                }
+                return null;
+            });
+        } catch (Exception ex) {
+            syncFailures.increment();
+            log.debug("Không đồng bộ được giới hạn tần suất với Redis: {}", ex.getMessage());
+            return;
+        }
+
+        long nowNanos = System.nanoTime();
+        for (int i = 0; i < pending.size(); i++) {
+            Object total = results.get(2 * i);
+            if (total instanceof Number clusterUsed) {
+                PendingSync sync = pending.get(i);
+                sync.bucket().reconcile(clusterUsed.longValue(),
+                    nowNanos + TimeUnit.MILLISECONDS.toNanos(sync.millisToWindowEnd()));
+            }
+        }
+    }
+
+    private Counter requestCounter(String rule, String outcome) {
+        return requestCounters.computeIfAbsent(rule + ":" + outcome, ignored -> Counter.builder("rate_limit.requests")
+            .description("Số request đi qua bộ giới hạn tần suất")
+            .tag("rule", rule)
+            .tag("outcome", outcome)
+            .register(meterRegistry));
+    }
+
+    /**
+     * Kết quả lấy token; {@code retryAfterNanos} chỉ có nghĩa khi bị từ chối.
+     */
+    public record Decision(boolean allowed, long retryAfterNanos) {
+
+        public long retryAfterSeconds() {
+            return Math.max(1L, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+        }
+    }
+
+    private record PendingSync(TokenBucket bucket, String redisKey, long consumed,
+                               long millisToWindowEnd, long periodMillis) {
+    }
+
+    /**
+     * Token bucket không khóa: trạng thái bất biến thay bằng compare-and-set, nạp lại token theo thời gian trôi qua
+     * ngay lúc lấy token thay vì dùng luồng nạp riêng.
+     */
+    static final class TokenBucket {
+
+        private final String key;
+        private final long limit;
+        private final double capacity;
+        private final long periodNanos;
+        private final double tokensPerNano;
+        private final AtomicReference<State> state;
+        // Lượng dùng trên node này chưa đẩy lên Redis
+        private final LongAdder consumed = new LongAdder();
+
+        TokenBucket(String key, RateLimitProperties.Rule rule) {
+            this.key = key;
+            this.limit = rule.getLimit();
+            this.capacity = rule.effectiveBurst();
+            this.periodNanos = Math.max(1_000_000L, rule.getPeriod().toNanos());
+            this.tokensPerNano = (double) limit / periodNanos;
+            long now = System.nanoTime();
+            this.state = new AtomicReference<>(new State(capacity, now, now));
+        }
+
+        Decision tryAcquire(long now) {
+            while (true) {
+                State current = state.get();
+                if (now - current.blockedUntil() < 0) {
+                    return new Decision(false, current.blockedUntil() - now);
+                }
+                double tokens = current.tokensAt(now, capacity, tokensPerNano);
+                if (tokens < 1.0d) {
+                    return new Decision(false, (long) Math.ceil((1.0d - tokens) / tokensPerNano));
+                }
+                if (state.compareAndSet(current, new State(tokens - 1.0d, now, current.blockedUntil()))) {
+                    consumed.increment();
+                    return new Decision(true, 0L);
+                }
+            }
+        }
+
+        /**
+         * Áp tổng lượng dùng của cả cụm trong cửa sổ hiện tại: hết hạn mức thì chặn tới cuối cửa sổ, còn thì số
+         * token cục bộ không được vượt phần hạn mức còn lại.
+         */
+        void reconcile(long clusterUsed, long windowEnd) {
+            long now = System.nanoTime();
+            while (true) {
+                State current = state.get();
+                State next;
+                if (clusterUsed >= limit) {
+                    next = new State(0.0d, windowEnd, windowEnd);
+                } else {
+                    double tokens = current.tokensAt(now, capacity, tokensPerNano);
+                    double remaining = limit - clusterUsed;
+                    if (tokens <= remaining) {
+                        return;
+                    }
+                    next = new State(remaining, now, current.blockedUntil());
+                }
+                if (state.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        private record State(double tokens, long refilledAt, long blockedUntil) {
+
+            double tokensAt(long now, double capacity, double tokensPerNano) {
+                long elapsed = now - refilledAt;
+                return elapsed <= 0 ? tokens : Math.min(capacity, tokens + elapsed * tokensPerNano);
+            }
+        }
+    }
+}
@@ -2,7 +2,7 @@ package com.td.web.config;
 
 import com.td.application.categories.CategoryCacheService;
 import com.td.application.documents.DocumentCacheService;
-import com.td.infrastructure.security.CurrentUserContextResolver;
+import com.td.infrastructure.security.EffectivePermissionResolver;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -47,6 +47,10 @@ public class RedisCacheConfig {
             DocumentCacheService.DOCUMENT_LIST_CACHE,
             defaultConfig.entryTtl(Duration.ofMinutes(10))
         );
+        cacheConfigurations.put(
+            DocumentCacheService.DOCUMENT_FACETS_CACHE,
+            defaultConfig.entryTtl(Duration.ofMinutes(5))
+        );
         cacheConfigurations.put(
             CategoryCacheService.CATEGORY_BY_ID_CACHE,
             defaultConfig.entryTtl(Duration.ofMinutes(60))
@@ -56,8 +60,8 @@ public class RedisCacheConfig {
             defaultConfig.entryTtl(Duration.ofMinutes(10))
         );
         cacheConfigurations.put(
-            CurrentUserContextResolver.USER_CONTEXT_CACHE,
-            defaultConfig.entryTtl(Duration.ofMinutes(5))
+            EffectivePermissionResolver.EFFECTIVE_PERMISSIONS_CACHE,
+            defaultConfig.entryTtl(Duration.ofMinutes(30))
         );
 
         return RedisCacheManager.builder(connectionFactory)
@@ -4,28 +4,54 @@ import com.td.application.common.models.CachedPaginationResponse;
 import com.td.application.common.models.CachedResult;
 import com.td.application.common.models.PaginationResponse;
 import com.td.application.common.models.Result;
+import com.td.application.documents.AbortChunkedUploadUseCase;
+import com.td.application.documents.ChunkedUploadDto;
+import com.td.application.documents.ChunkedUploadPartDto;
+import com.td.application.documents.ChunkedUploadRequest;
+import com.td.application.documents.CompleteChunkedUploadUseCase;
+import com.td.application.documents.CompleteFileUploadRequest;
+import com.td.application.documents.CompleteFileUploadUseCase;
 import com.td.application.documents.CreateDocumentRequest;
 import com.td.application.documents.CreateDocumentUseCase;
+import com.td.application.documents.CreateFileUploadUrlRequest;
+import com.td.application.documents.CreateFileUploadUrlUseCase;
 import com.td.application.documents.DeleteDocumentUseCase;
 import com.td.application.documents.DocumentCacheService;
 import com.td.application.documents.DocumentCacheStatsDto;
 import com.td.application.documents.DocumentDetailWithFilesDto;
+import com.td.application.documents.DocumentSearchReconcileReportDto;
 import com.td.application.documents.DocumentSearchStatusDto;
 import com.td.application.documents.DocumentDto;
+import com.td.application.documents.DocumentFacetsDto;
+import com.td.application.documents.DocumentSuggestionDto;
 import com.td.application.documents.DocumentXemChiTietDto;
+import com.td.application.documents.CollectOrphanedFilesRequest;
+import com.td.application.documents.CollectOrphanedFilesUseCase;
+import com.td.application.documents.GetChunkedUploadUseCase;
+import com.td.application.documents.OrphanedFilesReportDto;
 import com.td.application.documents.GetDeletedDocumentsUseCase;
+import com.td.application.documents.GetFilePreviewRequest;
+import com.td.application.documents.GetFilePreviewUseCase;
 import com.td.application.documents.GetDocumentSearchStatusUseCase;
 import com.td.application.documents.SimpleFileDto;
 import com.td.application.documents.GetDocumentRequest;
 import com.td.application.documents.GetDocumentUseCase;
 import com.td.application.documents.HardDeleteDocumentUseCase;
+import com.td.application.documents.InitiateChunkedUploadRequest;
+import com.td.application.documents.InitiateChunkedUploadUseCase;
+import com.td.application.documents.ReconcileDocumentSearchUseCase;
 import com.td.application.documents.ReindexDocumentSearchUseCase;
+import com.td.application.documents.SearchDocumentFacetsRequest;
+import com.td.application.documents.SearchDocumentFacetsUseCase;
 import com.td.application.documents.SearchDocumentsElasticUseCase;
 import com.td.application.documents.SearchDocumentsRequest;
 import com.td.application.documents.SearchDocumentsUseCase;
+import com.td.application.documents.SuggestDocumentsUseCase;
 import com.td.application.documents.SyncDocumentSearchByIdUseCase;
 import com.td.application.documents.UpdateDocumentRequest;
 import com.td.application.documents.UpdateDocumentUseCase;
+import com.td.application.documents.UploadChunkedPartRequest;
+import com.td.application.documents.UploadChunkedPartUseCase;
 import com.td.application.documents.UploadFileUseCase;
 import com.td.application.documents.GetFileUseCase;
 import com.td.application.documents.ListDocumentFilesUseCase;
@@ -33,18 +59,19 @@ import com.td.application.documents.DeleteFileUseCase;
 import com.td.application.documents.UpdateDocumentWithFileUseCase;
 import com.td.application.documents.UploadFileRequest;
 import com.td.application.documents.FileDto;
+import com.td.application.documents.FileUploadUrlDto;
 import com.td.application.documents.DeleteFileRequest;
 import com.td.application.documents.DownloadFileRequest;
-import com.td.infrastructure.config.MinioService;
 import com.td.web.controllers.BaseController;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -58,9 +85,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -79,16 +109,29 @@ public class DocumentsController extends BaseController {
     private final GetDocumentUseCase getDocumentUseCase;
     private final SearchDocumentsUseCase searchDocumentsUseCase;
     private final SearchDocumentsElasticUseCase searchDocumentsElasticUseCase;
+    private final SearchDocumentFacetsUseCase searchDocumentFacetsUseCase;
+    private final SuggestDocumentsUseCase suggestDocumentsUseCase;
     private final GetDocumentSearchStatusUseCase getDocumentSearchStatusUseCase;
     private final ReindexDocumentSearchUseCase reindexDocumentSearchUseCase;
+    private final ReconcileDocumentSearchUseCase reconcileDocumentSearchUseCase;
+    private final CollectOrphanedFilesUseCase collectOrphanedFilesUseCase;
     private final SyncDocumentSearchByIdUseCase syncDocumentSearchByIdUseCase;
     private final GetDeletedDocumentsUseCase getDeletedDocumentsUseCase;
     private final UploadFileUseCase uploadFileUseCase;
+    private final CreateFileUploadUrlUseCase createFileUploadUrlUseCase;
+    private final CompleteFileUploadUseCase completeFileUploadUseCase;
+    private final InitiateChunkedUploadUseCase initiateChunkedUploadUseCase;
+    private final UploadChunkedPartUseCase uploadChunkedPartUseCase;
+    private final GetChunkedUploadUseCase getChunkedUploadUseCase;
+    private final CompleteChunkedUploadUseCase completeChunkedUploadUseCase;
+    private final AbortChunkedUploadUseCase abortChunkedUploadUseCase;
     private final GetFileUseCase getFileUseCase;
     private final ListDocumentFilesUseCase listDocumentFilesUseCase;
     private final DeleteFileUseCase deleteFileUseCase;
     private final UpdateDocumentWithFileUseCase updateDocumentWithFileUseCase;
-    private final MinioService minioService;
+    private final FileDownloadResponseBuilder fileDownloadResponseBuilder;
+    private final FileArchiveStreamer fileArchiveStreamer;
+    private final GetFilePreviewUseCase getFilePreviewUseCase;
     private final DocumentCacheService documentCacheService;
 
     @GetMapping
@@ -113,6 +156,7 @@ public class DocumentsController extends BaseController {
         request.setKeyword(keyword);
         request.setDocumentType(documentType);
         request.setStatus(status);
+        searchDocumentsUseCase.applyDataScope(request);
 
         if (useCache) {
             var cachedResponse = documentCacheService.getList(request);
@@ -211,10 +255,14 @@ public class DocumentsController extends BaseController {
     }
 
     private String buildDownloadUrl(UUID documentId, UUID fileId) {
+        return buildFileUrl(documentId, fileId, "download");
+    }
+
+    private String buildFileUrl(UUID documentId, UUID fileId, String action) {
         if (documentId == null || fileId == null) {
             return null;
         }
-        return "/api/v1/documents/" + documentId + "/files/" + fileId + "/download";
+        return "/api/v1/documents/" + documentId + "/files/" + fileId + "/" + action;
     }
 
     @PostMapping("/search")
@@ -225,6 +273,7 @@ public class DocumentsController extends BaseController {
             @Valid @RequestBody SearchDocumentsRequest request,
             @Parameter(description = "Bật/tắt cache. Khi false, luôn lấy dữ liệu mới từ DB và cập nhật lại cache")
             @RequestParam(name = "useCache", defaultValue = "true") boolean useCache) {
+        searchDocumentsUseCase.applyDataScope(request);
         if (useCache) {
             var cachedResponse = documentCacheService.getList(request);
             if (cachedResponse != null) {
@@ -244,7 +293,8 @@ public class DocumentsController extends BaseController {
     @PostMapping("/search/elastic")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
     @Operation(summary = "Tìm kiếm tài liệu bằng Elasticsearch",
-        description = "Ưu tiên Elasticsearch cho full-text search. Nếu request có attributeFilters hoặc Elasticsearch chưa sẵn sàng, API sẽ fallback về database search")
+        description = "Ưu tiên Elasticsearch cho full-text search. Nếu request có attributeFilters hoặc Elasticsearch chưa sẵn sàng, API sẽ fallback về database search. "
+            + "Trường view (full|list|summary) giới hạn dữ liệu trả về, highlight=true trả thêm đoạn trích theo keyword")
     public ResponseEntity<PaginationResponse<DocumentDto>> searchDocumentsElastic(
             @Valid @RequestBody SearchDocumentsRequest request) {
         var searchResult = searchDocumentsElasticUseCase.execute(request);
@@ -254,6 +304,63 @@ public class DocumentsController extends BaseController {
             .body(response);
     }
 
+    @PostMapping("/search/facets")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
+    @Operation(summary = "Đếm facet cho bộ lọc tài liệu",
+        description = "Trả về số lượng theo documentType, status, tags, createdOn (date histogram) trong một request Elasticsearch. "
+            + "Facet attributes.<key> hoặc request có attributeFilters sẽ fallback về database GROUP BY")
+    public ResponseEntity<Result<DocumentFacetsDto>> searchDocumentFacets(
+            @Valid @RequestBody SearchDocumentFacetsRequest request,
+            @Parameter(description = "Bật/tắt cache. Khi false, luôn đếm lại và cập nhật lại cache")
+            @RequestParam(name = "useCache", defaultValue = "true") boolean useCache) {
+        var facets = searchDocumentFacetsUseCase.execute(request, useCache);
+        return ResponseEntity.ok()
+            .header("X-Search-Backend", facets.getBackend())
+            .body(Result.success(facets));
+    }
+
+    @PostMapping("/search/archive")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
+    @Operation(summary = "Tải tệp tin của các tài liệu tìm được dạng ZIP",
+        description = "Dùng cùng bộ lọc với /search (theo trang hiện tại), mỗi tài liệu là một thư mục trong ZIP")
+    public ResponseEntity<?> downloadSearchFilesArchive(@Valid @RequestBody SearchDocumentsRequest request) {
+        var response = searchDocumentsUseCase.execute(request);
+
+        List<FileArchiveStreamer.ArchiveItem> items = new ArrayList<>();
+        for (DocumentDto document : response.getItems()) {
+            var filesResponse = listDocumentFilesUseCase.execute(document.getId());
+            if (filesResponse == null || filesResponse.getItems() == null) {
+                continue;
+            }
+            String folder = (document.getTitle() != null ? document.getTitle() : "tai-lieu")
+                + " (" + document.getId().toString().substring(0, 8) + ")";
+            for (FileDto file : filesResponse.getItems()) {
+                items.add(new FileArchiveStreamer.ArchiveItem(folder, file));
+            }
+        }
+        if (items.isEmpty()) {
+            return badRequest(Result.failure("Không có tệp tin nào trong kết quả tìm kiếm"));
+        }
+        return fileArchiveStreamer.stream("ket-qua-tim-kiem.zip", items);
+    }
+
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
+    @Operation(summary = "Gợi ý tiêu đề tài liệu (typeahead)",
+        description = "Dùng completion suggester của Elasticsearch, gõ có dấu hoặc không dấu đều được. Cần tối thiểu "
+            + SuggestDocumentsUseCase.MIN_PREFIX_LENGTH + " ký tự, client nên debounce khoảng 150-300ms")
+    public ResponseEntity<Result<List<DocumentSuggestionDto>>> suggestDocuments(
+            @Parameter(description = "Tiền tố tiêu đề", required = true) @RequestParam(name = "prefix") String prefix,
+            @RequestParam(name = "documentType", required = false) String documentType,
+            @RequestParam(name = "status", required = false) String status,
+            @RequestParam(name = "size", defaultValue = "10") int size) {
+        var result = suggestDocumentsUseCase.execute(prefix, documentType, status, size);
+        return ResponseEntity.ok()
+            .header("X-Search-Backend", result.getBackend())
+            .cacheControl(CacheControl.maxAge(Duration.ofSeconds(30)).cachePrivate())
+            .body(Result.success(result.getItems()));
+    }
+
     @GetMapping("/search/admin/status")
     @PreAuthorize("hasAnyRole('ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
     @Operation(summary = "Trạng thái Elasticsearch cho documents",
@@ -270,6 +377,25 @@ public class DocumentsController extends BaseController {
         return ok(reindexDocumentSearchUseCase.execute());
     }
 
+    @PostMapping("/search/admin/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Đối soát Elasticsearch với PostgreSQL",
+        description = "So sánh (id, versionNo) theo batch, chỉ reindex document thiếu/cũ và xóa bản ghi mồ côi khỏi index. Tiếp tục từ checkpoint của lần chạy trước")
+    public ResponseEntity<Result<DocumentSearchReconcileReportDto>> reconcileDocumentSearch() {
+        return ok(reconcileDocumentSearchUseCase.execute());
+    }
+
+    @PostMapping("/files/admin/gc")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Dọn tệp mồ côi trên MinIO và file_metadata",
+        description = "Xóa bản ghi tệp của tài liệu đã xóa và object không còn được tham chiếu, theo batch có giới hạn. "
+            + "Mặc định chỉ chạy dry-run và trả về báo cáo, truyền dryRun=false để xóa thật")
+    public ResponseEntity<Result<OrphanedFilesReportDto>> collectOrphanedFiles(
+            @Parameter(description = "Chỉ báo cáo, không xóa") @RequestParam(value = "dryRun", defaultValue = "true") boolean dryRun) {
+        var result = collectOrphanedFilesUseCase.execute(CollectOrphanedFilesRequest.builder().dryRun(dryRun).build());
+        return result.isSuccess() ? ok(result) : badRequest(result);
+    }
+
     @PostMapping("/search/admin/sync/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Đồng bộ một document lên Elasticsearch theo ID",
@@ -331,6 +457,10 @@ public class DocumentsController extends BaseController {
                     .type(extractFileExtension(fileName))
                     .mimeType(file.getMimeType())
                     .downloadUrl(buildDownloadUrl(file.getDocumentId(), file.getFileId()))
+                    .thumbnailUrl(Boolean.TRUE.equals(file.getHasPreview())
+                        ? buildFileUrl(file.getDocumentId(), file.getFileId(), "thumbnail") : null)
+                    .previewUrl(Boolean.TRUE.equals(file.getHasPreview())
+                        ? buildFileUrl(file.getDocumentId(), file.getFileId(), "preview") : null)
                     .build();
             })
             .collect(java.util.stream.Collectors.toList());
@@ -419,6 +549,142 @@ public class DocumentsController extends BaseController {
         }
     }
 
+    @PutMapping(value = "/{documentId}/files/stream", consumes = MediaType.ALL_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER', 'DOC_EDITOR')")
+    @Operation(summary = "Tải lên tệp tin dạng stream",
+            description = "Body là nội dung thô của tệp, được chuyển thẳng lên MinIO không qua bộ đệm multipart/tệp tạm. "
+                    + "Kích thước, SHA-256 và MIME type (nhận diện từ nội dung) được tính trong cùng lượt đọc")
+    public ResponseEntity<Result<UUID>> uploadFileStream(
+            @Parameter(description = "Document ID", required = true) @PathVariable UUID documentId,
+            @Parameter(description = "Tên tệp tin", required = true) @RequestParam("fileName") String fileName,
+            @Parameter(description = "Đánh dấu là tệp chính") @RequestParam(value = "isPrimary", defaultValue = "false") Boolean isPrimary,
+            @Parameter(description = "Mô tả tệp tin") @RequestParam(value = "description", required = false) String description,
+            HttpServletRequest servletRequest) {
+        try {
+            long contentLength = servletRequest.getContentLengthLong();
+            var request = UploadFileRequest.builder()
+                    .documentId(documentId)
+                    .fileContent(servletRequest.getInputStream())
+                    .fileName(fileName)
+                    .mimeType(servletRequest.getContentType())
+                    .fileSize(contentLength >= 0 ? contentLength : null)
+                    .isPrimary(isPrimary)
+                    .description(description)
+                    .build();
+            var result = uploadFileUseCase.execute(request);
+            return result.isSuccess() ? created(result) : badRequest(result);
+        } catch (Exception e) {
+            return badRequest(Result.failure("Lỗi xử lý tệp tin: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{documentId}/files/upload-url")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER', 'DOC_EDITOR')")
+    @Operation(summary = "Tạo presigned URL tải lên tệp tin",
+            description = "Client PUT tệp thẳng lên MinIO theo upload_url, sau đó gọi complete_url để ghi nhận tệp vào tài liệu")
+    public ResponseEntity<Result<FileUploadUrlDto>> createFileUploadUrl(
+            @Parameter(description = "Document ID", required = true) @PathVariable UUID documentId,
+            @Valid @RequestBody CreateFileUploadUrlRequest request) {
+        request.setDocumentId(documentId);
+        var result = createFileUploadUrlUseCase.execute(request);
+        return result.isSuccess() ? created(result) : badRequest(result);
+    }
+
+    @PostMapping("/{documentId}/files/{fileId}/complete")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER', 'DOC_EDITOR')")
+    @Operation(summary = "Xác nhận hoàn tất tải lên qua presigned URL",
+            description = "Kiểm tra object đã có trên MinIO và khớp kích thước khai báo rồi mới ghi thông tin tệp")
+    public ResponseEntity<Result<UUID>> completeFileUpload(
+            @Parameter(description = "Document ID", required = true) @PathVariable UUID documentId,
+            @Parameter(description = "File ID", required = true) @PathVariable UUID fileId) {
+        var request = CompleteFileUploadRequest.builder()
+                .documentId(documentId)
+                .fileId(fileId)
+                .build();
+        var result = completeFileUploadUseCase.execute(request);
+        return result.isSuccess() ? created(result) : badRequest(result);
+    }
+
+    @PostMapping("/{documentId}/files/uploads")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER', 'DOC_EDITOR')")
+    @Operation(summary = "Khởi tạo tải lên theo từng phần",
+            description = "Dùng cho tệp lớn: chia tệp theo part_size trả về, gửi từng phần (có thể song song), "
+                    + "rớt mạng thì xem uploaded_parts để gửi tiếp phần còn thiếu")
+    public ResponseEntity<Result<ChunkedUploadDto>> initiateChunkedUpload(
+            @Parameter(description = "Document ID", required = true) @PathVariable UUID documentId,
+            @Valid @RequestBody InitiateChunkedUploadRequest request) {
+        request.setDocumentId(documentId);
+        var result = initiateChunkedUploadUseCase.execute(request);
+        return result.isSuccess() ? created(result) : badRequest(result);
+    }
+
+    @PutMapping(value = "/{documentId}/files/uploads/{uploadId}/parts/{partNumber}",
+            consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER', 'DOC_EDITOR')")
+    @Operation(summary = "Tải lên một phần",
+            description = "Body là dữ liệu nhị phân của phần, gửi lại cùng part number sẽ ghi đè")
+    public ResponseEntity<Result<ChunkedUploadPartDto>> uploadChunkedPart(
+            @Parameter(description = "Document ID", required = true) @PathVariable UUID documentId,
+            @Parameter(description = "Upload ID", required = true) @PathVariable UUID uploadId,
+            @Parameter(description = "Số thứ tự phần, bắt đầu từ 1", required = true) @PathVariable int partNumber,
+            HttpServletRequest servletRequest) {
+        try {
+            var request = UploadChunkedPartRequest.builder()
+                    .documentId(documentId)
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .content(servletRequest.getInputStream())
+                    .contentLength(servletRequest.getContentLengthLong())
+                    .build();
+            var result = uploadChunkedPartUseCase.execute(request);
+            return result.isSuccess() ? ok(result) : badRequest(result);
+        } catch (Exception e) {
+            return badRequest(Result.failure("Lỗi tải lên phần " + partNumber + ": " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{documentId}/files/uploads/{uploadId}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER', 'DOC_EDITOR')")
+    @Operation(summary = "Trạng thái tải lên theo từng phần",
+            description = "Trả về các phần đã nhận để client tiếp tục tải lên")
+    public ResponseEntity<Result<ChunkedUploadDto>> getChunkedUpload(
+            @Parameter(description = "Document ID", required = true) @PathVariable UUID documentId,
+            @Parameter(description = "Upload ID", required = true) @PathVariable UUID uploadId) {
+        var result = getChunkedUploadUseCase.execute(ChunkedUploadRequest.builder()
+                .documentId(documentId)
+                .uploadId(uploadId)
+                .build());
+        return ok(result);
+    }
+
+    @PostMapping("/{documentId}/files/uploads/{uploadId}/complete")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER', 'DOC_EDITOR')")
+    @Operation(summary = "Hoàn tất tải lên theo từng phần",
+            description = "Ghép các phần thành tệp và ghi nhận vào tài liệu, trả về file_id")
+    public ResponseEntity<Result<UUID>> completeChunkedUpload(
+            @Parameter(description = "Document ID", required = true) @PathVariable UUID documentId,
+            @Parameter(description = "Upload ID", required = true) @PathVariable UUID uploadId) {
+        var result = completeChunkedUploadUseCase.execute(ChunkedUploadRequest.builder()
+                .documentId(documentId)
+                .uploadId(uploadId)
+                .build());
+        return result.isSuccess() ? created(result) : badRequest(result);
+    }
+
+    @DeleteMapping("/{documentId}/files/uploads/{uploadId}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER', 'DOC_EDITOR')")
+    @Operation(summary = "Hủy tải lên theo từng phần",
+            description = "Xóa các phần đã tải lên")
+    public ResponseEntity<Result<UUID>> abortChunkedUpload(
+            @Parameter(description = "Document ID", required = true) @PathVariable UUID documentId,
+            @Parameter(description = "Upload ID", required = true) @PathVariable UUID uploadId) {
+        var result = abortChunkedUploadUseCase.execute(ChunkedUploadRequest.builder()
+                .documentId(documentId)
+                .uploadId(uploadId)
+                .build());
+        return ok(result);
+    }
+
     @GetMapping("/{documentId}/files")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
     @Operation(summary = "Danh sách tệp tin của tài liệu",
@@ -431,6 +697,23 @@ public class DocumentsController extends BaseController {
         return ok(response);
     }
 
+    @GetMapping("/{documentId}/files/archive")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
+    @Operation(summary = "Tải tất cả tệp tin của tài liệu dạng ZIP",
+            description = "ZIP được dựng và stream trực tiếp, không giới hạn bởi bộ nhớ máy chủ")
+    public ResponseEntity<?> downloadFilesArchive(
+            @Parameter(description = "Document ID", required = true) @PathVariable UUID documentId) {
+        var filesResponse = listDocumentFilesUseCase.execute(documentId);
+        if (filesResponse == null || filesResponse.getItems() == null || filesResponse.getItems().isEmpty()) {
+            return badRequest(Result.failure("Tài liệu không có tệp tin"));
+        }
+
+        List<FileArchiveStreamer.ArchiveItem> items = filesResponse.getItems().stream()
+                .map(file -> new FileArchiveStreamer.ArchiveItem("", file))
+                .toList();
+        return fileArchiveStreamer.stream("tai-lieu-" + documentId + ".zip", items);
+    }
+
     @GetMapping("/{documentId}/files/{fileId}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
     @Operation(summary = "Chi tiết tệp tin",
@@ -511,13 +794,56 @@ public class DocumentsController extends BaseController {
         }
     }
 
+    @GetMapping("/{documentId}/files/{fileId}/thumbnail")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
+    @Operation(summary = "Ảnh thu nhỏ của tệp tin",
+            description = "JPEG cạnh dài 256px, tạo nền sau khi tải lên (ảnh và PDF)")
+    public ResponseEntity<?> getFileThumbnail(
+            @Parameter(description = "Document ID", required = true) @PathVariable UUID documentId,
+            @Parameter(description = "File ID", required = true) @PathVariable UUID fileId,
+            ServletWebRequest webRequest) {
+        return servePreview(documentId, fileId, GetFilePreviewRequest.VARIANT_THUMBNAIL, webRequest);
+    }
+
+    @GetMapping("/{documentId}/files/{fileId}/preview")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
+    @Operation(summary = "Ảnh xem trước của tệp tin",
+            description = "JPEG cạnh dài 1024px của ảnh hoặc trang đầu PDF")
+    public ResponseEntity<?> getFilePreview(
+            @Parameter(description = "Document ID", required = true) @PathVariable UUID documentId,
+            @Parameter(description = "File ID", required = true) @PathVariable UUID fileId,
+            ServletWebRequest webRequest) {
+        return servePreview(documentId, fileId, GetFilePreviewRequest.VARIANT_PREVIEW, webRequest);
+    }
+
+    private ResponseEntity<?> servePreview(UUID documentId, UUID fileId, String variant, ServletWebRequest webRequest) {
+        var result = getFilePreviewUseCase.execute(GetFilePreviewRequest.builder()
+                .documentId(documentId)
+                .fileId(fileId)
+                .variant(variant)
+                .build());
+        if (!result.isSuccess() || result.getData() == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+        }
+
+        try {
+            return fileDownloadResponseBuilder.buildInline(result.getData(), webRequest);
+        } catch (Exception e) {
+            return badRequest(Result.failure("Lỗi tải ảnh xem trước: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/{documentId}/files/{fileId}/download")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
     @Operation(summary = "Tải xuống tệp tin",
-            description = "Tải xuống tệp tin từ máy chủ")
+            description = "Tải xuống tệp tin từ máy chủ, hỗ trợ Range/If-Range (206 Partial Content, multipart/byteranges). "
+                    + "redirect=true trả 302 sang presigned URL để tải thẳng từ MinIO")
     public ResponseEntity<?> downloadFile(
             @Parameter(description = "Document ID", required = true) @PathVariable UUID documentId,
-            @Parameter(description = "File ID", required = true) @PathVariable UUID fileId) {
+            @Parameter(description = "File ID", required = true) @PathVariable UUID fileId,
+            @Parameter(description = "Chuyển hướng sang presigned URL, mặc định theo app.minio.presign.redirect-downloads")
+            @RequestParam(value = "redirect", required = false) Boolean redirect,
+            ServletWebRequest webRequest) {
         var request = DownloadFileRequest.builder()
                 .documentId(documentId)
                 .fileId(fileId)
@@ -527,19 +853,12 @@ public class DocumentsController extends BaseController {
             return badRequest(Result.failure(fileResult.getError() != null ? fileResult.getError() : "File không tồn tại"));
         }
 
-        var file = fileResult.getData();
         try {
-            InputStream inputStream = minioService.getObject(file.getStoragePath());
-            var mediaType = (file.getMimeType() != null && !file.getMimeType().isBlank())
-                    ? MediaType.parseMediaType(file.getMimeType())
-                    : MediaType.APPLICATION_OCTET_STREAM;
-            var fileName = file.getOriginalFileName() != null ? file.getOriginalFileName() : file.getFileName();
-
-            return ResponseEntity.ok()
-                    .contentType(mediaType)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                    .contentLength(file.getFileSize() != null ? file.getFileSize() : -1)
-                    .body(new InputStreamResource(inputStream));
+            boolean useRedirect = redirect != null ? redirect : fileDownloadResponseBuilder.isRedirectByDefault();
+            if (useRedirect) {
+                return fileDownloadResponseBuilder.redirect(fileResult.getData());
+            }
+            return fileDownloadResponseBuilder.build(fileResult.getData(), webRequest);
         } catch (Exception e) {
             return badRequest(Result.failure("Lỗi tải tệp tin: " + e.getMessage()));
         }
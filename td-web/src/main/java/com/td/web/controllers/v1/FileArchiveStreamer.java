@@ -0,0 +1,199 @@
+package com.td.web.controllers.v1;
+
+import com.td.application.documents.FileDto;
+import com.td.infrastructure.config.MinioService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Stream file ZIP gồm nhiều tệp tin, dựng trực tiếp lên response.
+ *
+ * <p>Các object MinIO được mở trước tối đa {@link #PREFETCH_WINDOW} tệp trên pool riêng để che độ trễ
+ * time-to-first-byte, nhưng nội dung vẫn được đọc tuần tự qua bộ đệm cố định nên bộ nhớ không phụ thuộc
+ * kích thước archive.</p>
+ */
+@Slf4j
+@Component
+class FileArchiveStreamer {
+
+    private static final int PREFETCH_WINDOW = 4;
+    private static final int PREFETCH_THREADS = 16;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String ERROR_ENTRY = "_errors.txt";
+
+    private final MinioService minioService;
+    private final ExecutorService prefetchExecutor;
+
+    FileArchiveStreamer(MinioService minioService) {
+        this.minioService = minioService;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.prefetchExecutor = Executors.newFixedThreadPool(PREFETCH_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "file-archive-prefetch-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Một tệp trong archive, {@code folder} rỗng nếu đặt ở gốc.
+     */
+    record ArchiveItem(String folder, FileDto file) {
+    }
+
+    ResponseEntity<StreamingResponseBody> stream(String archiveName, List<ArchiveItem> items) {
+        String contentDisposition = ContentDisposition.attachment()
+                .filename(archiveName, StandardCharsets.UTF_8)
+                .build()
+                .toString();
+
+        StreamingResponseBody body = out -> writeArchive(out, items);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
+                .body(body);
+    }
+
+    private void writeArchive(OutputStream out, List<ArchiveItem> items) throws IOException {
+        Set<String> usedNames = new HashSet<>();
+        List<String> errors = new ArrayList<>();
+        Deque<Future<InputStream>> window = new ArrayDeque<>(PREFETCH_WINDOW);
+        Iterator<ArchiveItem> pending = items.iterator();
+        Deque<ArchiveItem> inFlight = new ArrayDeque<>(PREFETCH_WINDOW);
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        // Phần lớn tệp đính kèm (PDF, ảnh, docx) đã nén sẵn, nén lại chỉ tốn CPU
+        zip.setLevel(Deflater.BEST_SPEED);
+        try {
+            fill(window, inFlight, pending);
+            while (!window.isEmpty()) {
+                Future<InputStream> next = window.pollFirst();
+                ArchiveItem item = inFlight.pollFirst();
+                fill(window, inFlight, pending);
+
+                String entryName = uniqueName(usedNames, item);
+                InputStream in = null;
+                try {
+                    in = next.get();
+                } catch (Exception ex) {
+                    errors.add(entryName + ": " + rootMessage(ex));
+                    continue;
+                }
+
+                try (InputStream source = in) {
+                    ZipEntry entry = new ZipEntry(entryName);
+                    if (item.file().getUploadDate() != null) {
+                        entry.setTime(item.file().getUploadDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                    }
+                    zip.putNextEntry(entry);
+                    int read;
+                    while ((read = source.read(buffer)) != -1) {
+                        zip.write(buffer, 0, read);
+                    }
+                    zip.closeEntry();
+                }
+            }
+
+            if (!errors.isEmpty()) {
+                zip.putNextEntry(new ZipEntry(ERROR_ENTRY));
+                zip.write(("Không tải được " + errors.size() + " tệp:\n" + String.join("\n", errors))
+                        .getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            zip.finish();
+        } finally {
+            // Client ngắt giữa chừng: đóng các stream đã mở trước để trả kết nối về pool
+            for (Future<InputStream> future : window) {
+                closeQuietly(future);
+            }
+        }
+    }
+
+    private void fill(Deque<Future<InputStream>> window, Deque<ArchiveItem> inFlight, Iterator<ArchiveItem> pending) {
+        while (window.size() < PREFETCH_WINDOW && pending.hasNext()) {
+            ArchiveItem item = pending.next();
+            String storagePath = item.file().getStoragePath();
+            window.addLast(prefetchExecutor.submit(() -> minioService.getObject(storagePath)));
+            inFlight.addLast(item);
+        }
+    }
+
+    private String uniqueName(Set<String> usedNames, ArchiveItem item) {
+        FileDto file = item.file();
+        String fileName = sanitize(file.getOriginalFileName() != null ? file.getOriginalFileName() : file.getFileName());
+        if (fileName.isEmpty()) {
+            fileName = String.valueOf(file.getFileId());
+        }
+        String folder = item.folder() == null || item.folder().isBlank() ? "" : sanitize(item.folder()) + "/";
+
+        String candidate = folder + fileName;
+        int dot = fileName.lastIndexOf('.');
+        String base = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = dot > 0 ? fileName.substring(dot) : "";
+        for (int i = 1; !usedNames.add(candidate.toLowerCase()); i++) {
+            candidate = folder + base + " (" + i + ")" + extension;
+        }
+        return candidate;
+    }
+
+    private String sanitize(String name) {
+        if (name == null) {
+            return "";
+        }
+        return name.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").replaceAll("^\\.+", "").trim();
+    }
+
+    private String rootMessage(Throwable ex) {
+        Throwable cause = ex;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    private void closeQuietly(Future<InputStream> future) {
+        // Không ngắt luồng prefetch: task đã mở GetObjectResponse thì chỉ nơi nhận kết quả mới đóng được stream đó,
+        // nên task đang chạy được chờ xong (giới hạn bởi timeout của MinIO client) rồi đóng kết quả
+        if (future.cancel(false)) {
+            return;
+        }
+        try (InputStream ignored = future.get()) {
+            // chỉ để đóng stream
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            log.debug("Không đóng được stream prefetch: {}", ex.getMessage());
+        }
+    }
+}
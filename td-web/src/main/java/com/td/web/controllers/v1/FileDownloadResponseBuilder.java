@@ -0,0 +1,290 @@
+package com.td.web.controllers.v1;
+
+import com.td.application.documents.FileDto;
+import com.td.infrastructure.config.MinioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Dựng response tải xuống tệp tin: stream qua app server có hỗ trợ Range/If-Range (RFC 9110),
+ * hoặc chuyển hướng 302 sang presigned GET của MinIO.
+ *
+ * <p>Mỗi đoạn byte được đọc trực tiếp từ MinIO qua GetObjectArgs.offset/length nên xem trước PDF/video
+ * hoặc tải tiếp sau khi rớt mạng không phải kéo lại toàn bộ tệp.</p>
+ *
+ * <p>If-None-Match/If-Modified-Since được xét trước khi mở object: Spring tự trả 304 cho ResponseEntity mà không
+ * đọc hay đóng body, nên nếu stream MinIO đã mở thì mỗi lần trình duyệt xác thực lại cache sẽ rò một kết nối.</p>
+ */
+@Component
+@RequiredArgsConstructor
+class FileDownloadResponseBuilder {
+
+    // Quá nhiều đoạn thì trả cả tệp, tránh bị dùng để khuếch đại số lần gọi MinIO
+    private static final int MAX_RANGES = 16;
+    private static final String BYTES_UNIT = "bytes";
+
+    private static final CacheControl INLINE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(1)).cachePrivate();
+
+    private final MinioService minioService;
+
+    boolean isRedirectByDefault() {
+        return minioService.getPresignProperties().isRedirectDownloads();
+    }
+
+    /**
+     * Trả 302 sang presigned GET, trình duyệt tải thẳng từ MinIO (MinIO tự xử lý Range).
+     */
+    ResponseEntity<Void> redirect(FileDto file) {
+        String contentDisposition = ContentDisposition.attachment()
+                .filename(resolveFileName(file), StandardCharsets.UTF_8)
+                .build()
+                .toString();
+        String url = minioService.presignedGetUrl(
+                file.getStoragePath(),
+                minioService.getPresignProperties().getDownloadExpiry(),
+                contentDisposition,
+                resolveMediaType(file).toString());
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(URI.create(url))
+                .cacheControl(CacheControl.noStore())
+                .build();
+    }
+
+    ResponseEntity<?> build(FileDto file, ServletWebRequest webRequest) {
+        return build(file, webRequest, false);
+    }
+
+    /**
+     * Hiển thị trực tiếp trên trình duyệt (ảnh xem trước). Nội dung gắn với id nên cho phép cache lâu.
+     */
+    ResponseEntity<?> buildInline(FileDto file, ServletWebRequest webRequest) {
+        return build(file, webRequest, true);
+    }
+
+    private ResponseEntity<?> build(FileDto file, ServletWebRequest webRequest, boolean inline) {
+        // filename + filename* (RFC 6266/5987): tên có dấu ngoặc kép hoặc tiếng Việt không làm hỏng header
+        String disposition = (inline ? ContentDisposition.inline() : ContentDisposition.attachment())
+                .filename(resolveFileName(file), StandardCharsets.UTF_8)
+                .build()
+                .toString();
+        CacheControl cacheControl = inline ? INLINE_CACHE_CONTROL : CacheControl.empty();
+        MediaType mediaType = resolveMediaType(file);
+        Long totalSize = file.getFileSize();
+        String eTag = buildETag(file);
+        long lastModified = toEpochMillis(file);
+
+        // Điều kiện được xét trước Range (RFC 9110 §13.2.2); 304/412 cùng ETag, Last-Modified đã được ghi vào response
+        if (webRequest.checkNotModified(eTag, lastModified)) {
+            return ResponseEntity.status(webRequest.getResponse().getStatus())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        List<HttpRange> ranges = List.of();
+        String rangeHeader = webRequest.getHeader(HttpHeaders.RANGE);
+        if (StringUtils.hasText(rangeHeader) && totalSize != null && totalSize > 0
+                && isIfRangeSatisfied(webRequest.getHeader(HttpHeaders.IF_RANGE), eTag, lastModified)) {
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException ex) {
+                // Range sai cú pháp (hoặc đơn vị khác bytes) bị bỏ qua, trả cả tệp 200 theo RFC 9110 §14.2;
+                // 416 chỉ dành cho Range hợp lệ nhưng nằm ngoài kích thước tệp
+                ranges = List.of();
+            }
+        }
+
+        ResponseEntity.BodyBuilder builder = ranges.isEmpty()
+                ? ResponseEntity.ok()
+                : ResponseEntity.status(HttpStatus.PARTIAL_CONTENT);
+        builder.header(HttpHeaders.ACCEPT_RANGES, BYTES_UNIT)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition)
+                .cacheControl(cacheControl)
+                .eTag(eTag);
+        if (lastModified > 0) {
+            builder.lastModified(lastModified);
+        }
+
+        if (ranges.isEmpty()) {
+            return builder.contentType(mediaType)
+                    .contentLength(totalSize != null ? totalSize : -1)
+                    .body(new InputStreamResource(minioService.getObject(file.getStoragePath())));
+        }
+
+        List<long[]> segments;
+        try {
+            segments = toSegments(ranges, totalSize);
+        } catch (IllegalArgumentException ex) {
+            return notSatisfiable(totalSize);
+        }
+
+        if (segments.size() > MAX_RANGES) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.ACCEPT_RANGES, BYTES_UNIT)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, disposition)
+                    .cacheControl(cacheControl)
+                    .eTag(eTag)
+                    .contentType(mediaType)
+                    .contentLength(totalSize)
+                    .body(new InputStreamResource(minioService.getObject(file.getStoragePath())));
+        }
+
+        if (segments.size() == 1) {
+            long start = segments.get(0)[0];
+            long end = segments.get(0)[1];
+            long length = end - start + 1;
+            return builder.contentType(mediaType)
+                    .header(HttpHeaders.CONTENT_RANGE, contentRange(start, end, totalSize))
+                    .contentLength(length)
+                    .body(new InputStreamResource(minioService.getObject(file.getStoragePath(), start, length)));
+        }
+
+        return buildMultipart(builder, file.getStoragePath(), mediaType, segments, totalSize);
+    }
+
+    private ResponseEntity<StreamingResponseBody> buildMultipart(
+            ResponseEntity.BodyBuilder builder,
+            String storagePath,
+            MediaType mediaType,
+            List<long[]> segments,
+            long totalSize) {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        List<byte[]> partHeaders = new ArrayList<>(segments.size());
+        long contentLength = 0L;
+        for (long[] segment : segments) {
+            byte[] header = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + mediaType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(segment[0], segment[1], totalSize) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            contentLength += header.length + (segment[1] - segment[0] + 1);
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        StreamingResponseBody body = (OutputStream out) -> {
+            for (int i = 0; i < segments.size(); i++) {
+                long start = segments.get(i)[0];
+                long length = segments.get(i)[1] - start + 1;
+                out.write(partHeaders.get(i));
+                try (InputStream in = minioService.getObject(storagePath, start, length)) {
+                    in.transferTo(out);
+                }
+            }
+            out.write(closing);
+        };
+
+        return builder.contentType(MediaType.parseMediaType("multipart/byteranges; boundary=" + boundary))
+                .contentLength(contentLength)
+                .body(body);
+    }
+
+    /**
+     * Chuẩn hóa các đoạn về [start, end] tuyệt đối, sắp xếp và gộp đoạn chồng/liền nhau.
+     */
+    private List<long[]> toSegments(List<HttpRange> ranges, long totalSize) {
+        List<long[]> segments = new ArrayList<>(ranges.size());
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(totalSize);
+            long end = range.getRangeEnd(totalSize);
+            if (start >= totalSize || start > end) {
+                continue;
+            }
+            segments.add(new long[]{start, end});
+        }
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("Không có đoạn byte hợp lệ");
+        }
+
+        segments.sort(Comparator.comparingLong(segment -> segment[0]));
+        List<long[]> merged = new ArrayList<>(segments.size());
+        for (long[] segment : segments) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && segment[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], segment[1]);
+            } else {
+                merged.add(segment);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * If-Range chỉ cho phép trả từng phần khi validator còn khớp, nếu không phải gửi lại cả tệp.
+     */
+    private boolean isIfRangeSatisfied(String ifRange, String eTag, long lastModified) {
+        if (!StringUtils.hasText(ifRange)) {
+            return true;
+        }
+
+        String value = ifRange.trim();
+        if (value.startsWith("\"")) {
+            return value.equals(eTag);
+        }
+        if (value.startsWith("W/")) {
+            return false;
+        }
+
+        try {
+            long since = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return lastModified > 0 && lastModified / 1000 == since / 1000;
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    private ResponseEntity<Void> notSatisfiable(Long totalSize) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.ACCEPT_RANGES, BYTES_UNIT)
+                .header(HttpHeaders.CONTENT_RANGE, BYTES_UNIT + " */" + (totalSize != null ? totalSize : 0))
+                .build();
+    }
+
+    private String contentRange(long start, long end, long totalSize) {
+        return BYTES_UNIT + " " + start + "-" + end + "/" + totalSize;
+    }
+
+    // file_metadata là bất biến theo id (cập nhật tệp sẽ tạo bản ghi mới), nên id + size đủ làm validator mạnh
+    private String buildETag(FileDto file) {
+        return "\"" + file.getFileId() + "-" + (file.getFileSize() != null ? file.getFileSize() : 0) + "\"";
+    }
+
+    private long toEpochMillis(FileDto file) {
+        return file.getUploadDate() == null
+                ? -1L
+                : file.getUploadDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private MediaType resolveMediaType(FileDto file) {
+        return (file.getMimeType() != null && !file.getMimeType().isBlank())
+                ? MediaType.parseMediaType(file.getMimeType())
+                : MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    private String resolveFileName(FileDto file) {
+        return file.getOriginalFileName() != null ? file.getOriginalFileName() : file.getFileName();
+    }
+}
@@ -13,11 +13,13 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -30,6 +32,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.UUID;
 
@@ -47,10 +50,31 @@ public class LegacyDanhMucController extends BaseController {
 
     @GetMapping("/CayCoCauToChuc")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
-    @Operation(summary = "Cay co cau to chuc theo duong dan legacy")
-    public ResponseEntity<LegacyOrganizationTreeResponse> getCayCoCauToChuc(
+    @Operation(
+        summary = "Cay co cau to chuc theo duong dan legacy",
+        description = "rootId: chi lay cay con tu node nay; depth: so tang con mo rong (0 = chi node goc), bo trong = toan bo"
+    )
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json",
+        schema = @Schema(implementation = LegacyOrganizationTreeResponse.class)))
+    public ResponseEntity<StreamingResponseBody> getCayCoCauToChuc(
+            @RequestParam(name = "jedis_key", required = false) String jedisKey,
+            @RequestParam(name = "rootId", required = false) UUID rootId,
+            @RequestParam(name = "depth", required = false) Integer depth) {
+        StreamingResponseBody body = out -> getLegacyOrganizationTreeUseCase.write(out, jedisKey, rootId, depth);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/CayCoCauToChuc/{id}/children")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
+    @Operation(summary = "Node con truc tiep trong cay co cau to chuc, dung de tai luoi")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json",
+        schema = @Schema(implementation = LegacyOrganizationTreeResponse.class)))
+    public ResponseEntity<StreamingResponseBody> getCayCoCauToChucChildren(
+            @Parameter(description = "Organization ID", required = true)
+            @PathVariable("id") UUID id,
             @RequestParam(name = "jedis_key", required = false) String jedisKey) {
-        return ok(getLegacyOrganizationTreeUseCase.execute(jedisKey));
+        StreamingResponseBody body = out -> getLegacyOrganizationTreeUseCase.writeChildren(out, jedisKey, id);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @PostMapping("/CayCoCauToChuc")
@@ -16,9 +16,13 @@ import com.td.application.sharedcore.UpdateOrganizationUseCase;
 import com.td.web.controllers.BaseController;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -31,6 +35,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.UUID;
 
@@ -50,10 +55,31 @@ public class SharedCoreOrganizationsController extends BaseController {
 
     @GetMapping("/tree")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
-    @Operation(summary = "Cay co cau to chuc theo format legacy")
-    public ResponseEntity<LegacyOrganizationTreeResponse> getOrganizationTree(
+    @Operation(
+        summary = "Cay co cau to chuc theo format legacy",
+        description = "rootId: chi lay cay con tu node nay; depth: so tang con mo rong (0 = chi node goc), bo trong = toan bo"
+    )
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json",
+        schema = @Schema(implementation = LegacyOrganizationTreeResponse.class)))
+    public ResponseEntity<StreamingResponseBody> getOrganizationTree(
+            @RequestParam(name = "jedis_key", required = false) String jedisKey,
+            @RequestParam(name = "rootId", required = false) UUID rootId,
+            @RequestParam(name = "depth", required = false) Integer depth) {
+        StreamingResponseBody body = out -> getLegacyOrganizationTreeUseCase.write(out, jedisKey, rootId, depth);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/{id}/children")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN', 'PRODUCT_MANAGER', 'BRAND_MANAGER')")
+    @Operation(summary = "Node con truc tiep cua to chuc, dung de tai luoi cay")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json",
+        schema = @Schema(implementation = LegacyOrganizationTreeResponse.class)))
+    public ResponseEntity<StreamingResponseBody> getOrganizationChildren(
+            @Parameter(description = "Organization ID", required = true)
+            @PathVariable("id") UUID id,
             @RequestParam(name = "jedis_key", required = false) String jedisKey) {
-        return ok(getLegacyOrganizationTreeUseCase.execute(jedisKey));
+        StreamingResponseBody body = out -> getLegacyOrganizationTreeUseCase.writeChildren(out, jedisKey, id);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @GetMapping
@@ -0,0 +1,20 @@
+-- Checkpoint + lease cho job đối soát Elasticsearch với PostgreSQL (resumable, một node chạy tại một thời điểm)
+CREATE TABLE search_reconcile_checkpoints (
+    job_name VARCHAR(100) PRIMARY KEY,
+    last_document_id UUID,
+    locked_by VARCHAR(200),
+    locked_until TIMESTAMP,
+    last_run_started_at TIMESTAMP,
+    last_run_finished_at TIMESTAMP,
+    last_pass_completed_at TIMESTAMP,
+    last_scanned BIGINT NOT NULL DEFAULT 0,
+    last_reindexed BIGINT NOT NULL DEFAULT 0,
+    last_deleted BIGINT NOT NULL DEFAULT 0,
+    last_message VARCHAR(1000)
+);
+
+INSERT INTO search_reconcile_checkpoints (job_name) VALUES ('documents-search');
+
+COMMENT ON TABLE search_reconcile_checkpoints IS 'Trạng thái job đối soát index tìm kiếm với PostgreSQL';
+COMMENT ON COLUMN search_reconcile_checkpoints.last_document_id IS 'Con trỏ keyset (documents.id) của batch cuối đã xử lý, NULL khi bắt đầu vòng quét mới';
+COMMENT ON COLUMN search_reconcile_checkpoints.locked_until IS 'Lease để tránh nhiều node chạy job đồng thời';
@@ -0,0 +1,27 @@
+-- Phiên tải lên trực tiếp MinIO qua presigned URL: lưu ý định tải lên để callback hoàn tất kiểm tra và ghi file_metadata
+CREATE TABLE file_upload_sessions (
+    id UUID PRIMARY KEY,
+    document_id UUID NOT NULL,
+    upload_mode VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    object_path VARCHAR(500) NOT NULL,
+    original_filename VARCHAR(255) NOT NULL,
+    stored_filename VARCHAR(255) NOT NULL,
+    file_extension VARCHAR(20),
+    content_type VARCHAR(255),
+    declared_size BIGINT,
+    description TEXT,
+    uploaded_by UUID,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP
+);
+
+CREATE INDEX idx_file_upload_sessions_document_id ON file_upload_sessions(document_id);
+CREATE INDEX idx_file_upload_sessions_status_expires ON file_upload_sessions(status, expires_at);
+
+COMMENT ON TABLE file_upload_sessions IS 'Phiên tải lên tệp tin không đi qua app server (presigned URL)';
+COMMENT ON COLUMN file_upload_sessions.id IS 'Trùng với file_metadata.id sau khi hoàn tất';
+COMMENT ON COLUMN file_upload_sessions.upload_mode IS 'PRESIGNED';
+COMMENT ON COLUMN file_upload_sessions.status IS 'PENDING, COMPLETED, ABORTED';
+COMMENT ON COLUMN file_upload_sessions.declared_size IS 'Kích thước client khai báo, dùng để đối chiếu với object thực tế khi hoàn tất';
@@ -0,0 +1,17 @@
+-- Tải lên theo từng phần (chunked upload): mỗi phần là một object tạm trên MinIO, ghép lại bằng compose khi hoàn tất
+ALTER TABLE file_upload_sessions ADD COLUMN part_size BIGINT;
+ALTER TABLE file_upload_sessions ADD COLUMN total_parts INTEGER;
+
+CREATE TABLE file_upload_parts (
+    session_id UUID NOT NULL REFERENCES file_upload_sessions(id) ON DELETE CASCADE,
+    part_number INTEGER NOT NULL,
+    object_path VARCHAR(500) NOT NULL,
+    part_size BIGINT NOT NULL,
+    etag VARCHAR(200),
+    uploaded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (session_id, part_number)
+);
+
+COMMENT ON TABLE file_upload_parts IS 'Các phần đã tải lên của phiên chunked upload, dùng để resume sau khi rớt mạng';
+COMMENT ON COLUMN file_upload_sessions.upload_mode IS 'PRESIGNED, CHUNKED';
+COMMENT ON COLUMN file_upload_sessions.part_size IS 'Kích thước mỗi phần (trừ phần cuối) với phiên CHUNKED';
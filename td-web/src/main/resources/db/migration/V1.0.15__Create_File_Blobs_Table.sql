@@ -0,0 +1,20 @@
+-- Lưu trữ theo nội dung (content-addressed): mỗi nội dung tệp chỉ lưu một object trên MinIO theo SHA-256,
+-- các bản ghi file_metadata tham chiếu tới blob và blob được dọn khi không còn tham chiếu
+CREATE TABLE file_blobs (
+    content_digest VARCHAR(64) PRIMARY KEY,
+    object_path VARCHAR(500) NOT NULL,
+    file_size BIGINT NOT NULL,
+    content_type VARCHAR(255),
+    ref_count BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_file_blobs_unreferenced ON file_blobs(updated_at) WHERE ref_count <= 0;
+
+ALTER TABLE file_metadata ADD COLUMN content_digest VARCHAR(64);
+CREATE INDEX idx_file_metadata_content_digest ON file_metadata(content_digest);
+
+COMMENT ON TABLE file_blobs IS 'Nội dung tệp dùng chung giữa nhiều file_metadata, khóa là SHA-256 (hex)';
+COMMENT ON COLUMN file_blobs.ref_count IS 'Số bản ghi file_metadata đang tham chiếu, về 0 thì job GC xóa object sau thời gian chờ';
+COMMENT ON COLUMN file_metadata.content_digest IS 'SHA-256 của nội dung nếu tệp lưu dạng blob dùng chung, NULL nếu object riêng của bản ghi';
@@ -0,0 +1,25 @@
+-- Hàng đợi job tạo ảnh thu nhỏ/xem trước cho tệp tin (ảnh, PDF), xử lý nền sau khi tải lên
+CREATE TABLE file_preview_jobs (
+    file_id UUID PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_by VARCHAR(200),
+    locked_until TIMESTAMP,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_file_preview_jobs_ready ON file_preview_jobs(status, available_at);
+
+-- Ảnh xem trước được lưu như một file_metadata riêng (document_id NULL) trỏ về tệp gốc
+ALTER TABLE file_metadata ADD COLUMN source_file_id UUID;
+ALTER TABLE file_metadata ADD COLUMN variant VARCHAR(20);
+CREATE INDEX idx_file_metadata_source_file_id ON file_metadata(source_file_id);
+
+COMMENT ON TABLE file_preview_jobs IS 'Hàng đợi bền vững cho pipeline tạo ảnh thu nhỏ/xem trước';
+COMMENT ON COLUMN file_preview_jobs.status IS 'PENDING, RUNNING, DONE, FAILED';
+COMMENT ON COLUMN file_preview_jobs.locked_until IS 'Lease của worker, quá hạn thì job được nhận lại';
+COMMENT ON COLUMN file_metadata.source_file_id IS 'Tệp gốc nếu bản ghi này là ảnh thu nhỏ/xem trước';
+COMMENT ON COLUMN file_metadata.variant IS 'THUMBNAIL hoặc PREVIEW';
@@ -0,0 +1,24 @@
+-- Văn bản trích xuất từ tệp đính kèm (PDF, DOCX, ...), đồng thời là hàng đợi job trích xuất chạy nền
+CREATE TABLE file_text_extractions (
+    file_id UUID PRIMARY KEY,
+    document_id UUID NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_by VARCHAR(200),
+    locked_until TIMESTAMP,
+    last_error VARCHAR(1000),
+    extracted_text TEXT,
+    text_length INTEGER,
+    truncated BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_file_text_extractions_ready ON file_text_extractions(status, available_at);
+CREATE INDEX idx_file_text_extractions_document_id ON file_text_extractions(document_id);
+
+COMMENT ON TABLE file_text_extractions IS 'Văn bản trích xuất bằng Apache Tika, được đưa vào trường attachmentText của index tìm kiếm';
+COMMENT ON COLUMN file_text_extractions.status IS 'PENDING, RUNNING, DONE, FAILED';
+COMMENT ON COLUMN file_text_extractions.locked_until IS 'Lease của worker, quá hạn thì job được nhận lại';
+COMMENT ON COLUMN file_text_extractions.truncated IS 'TRUE nếu văn bản bị cắt theo giới hạn app.text-extraction.max-chars-per-file';
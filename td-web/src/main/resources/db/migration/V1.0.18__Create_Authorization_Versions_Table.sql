@@ -0,0 +1,48 @@
+-- Version của dữ liệu phân quyền, tăng bằng trigger mỗi khi bảng nguồn thay đổi (kể cả sửa trực tiếp bằng SQL).
+-- Ứng dụng poll vài giây một lần để vô hiệu hóa cache quyền hiệu lực mà không đọc DB trên luồng request.
+CREATE TABLE authorization_versions (
+    scope VARCHAR(50) PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO authorization_versions (scope) VALUES ('permissions');
+
+CREATE OR REPLACE FUNCTION bump_authorization_version()
+RETURNS TRIGGER AS $$
+BEGIN
+    -- UPDATE giữ row lock tới khi commit nên version đã commit luôn tăng theo thứ tự commit
+    UPDATE authorization_versions
+    SET version = version + 1, changed_at = CURRENT_TIMESTAMP
+    WHERE scope = TG_ARGV[0];
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER bump_authz_version_app_users
+    AFTER INSERT OR UPDATE OR DELETE ON app_users
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_authorization_version('permissions');
+
+CREATE TRIGGER bump_authz_version_app_roles
+    AFTER INSERT OR UPDATE OR DELETE ON app_roles
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_authorization_version('permissions');
+
+CREATE TRIGGER bump_authz_version_app_permissions
+    AFTER INSERT OR UPDATE OR DELETE ON app_permissions
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_authorization_version('permissions');
+
+CREATE TRIGGER bump_authz_version_app_role_permissions
+    AFTER INSERT OR UPDATE OR DELETE ON app_role_permissions
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_authorization_version('permissions');
+
+CREATE TRIGGER bump_authz_version_app_user_roles
+    AFTER INSERT OR UPDATE OR DELETE ON app_user_roles
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_authorization_version('permissions');
+
+COMMENT ON TABLE authorization_versions IS 'Version dữ liệu phân quyền theo phạm vi, dùng để vô hiệu hóa cache quyền hiệu lực';
+COMMENT ON COLUMN authorization_versions.scope IS 'permissions: app_users, app_roles, app_permissions, app_role_permissions, app_user_roles';
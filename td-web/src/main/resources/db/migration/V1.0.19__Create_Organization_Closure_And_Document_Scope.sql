@@ -0,0 +1,109 @@
+-- Closure table cho cây organizations: mỗi cặp (tổ tiên, hậu duệ) một dòng, kể cả chính nó (depth = 0).
+-- Mở rộng data scope "đơn vị và đơn vị con" thành tập org id bằng một lần đọc index, không đệ quy theo từng truy vấn.
+CREATE TABLE organization_closure (
+    ancestor_id UUID NOT NULL REFERENCES organizations(id) ON DELETE CASCADE,
+    descendant_id UUID NOT NULL REFERENCES organizations(id) ON DELETE CASCADE,
+    depth INT NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+CREATE INDEX IX_organization_closure_descendant
+    ON organization_closure(descendant_id, ancestor_id);
+
+-- path chặn đệ quy vô hạn nếu dữ liệu cũ lỡ có vòng lặp cha-con
+WITH RECURSIVE paths AS (
+    SELECT o.id AS ancestor_id, o.id AS descendant_id, 0 AS depth, ARRAY[o.id] AS path
+    FROM organizations o
+    UNION ALL
+    SELECT p.ancestor_id, child.id, p.depth + 1, p.path || child.id
+    FROM paths p
+    JOIN organizations child ON child.parent_id = p.descendant_id
+    WHERE NOT child.id = ANY(p.path)
+)
+INSERT INTO organization_closure (ancestor_id, descendant_id, depth)
+SELECT ancestor_id, descendant_id, depth FROM paths;
+
+-- Khóa advisory của cây (cùng khóa với prevent_organization_cycle) để node con thêm vào không đọc closure của
+-- cha trong lúc cha đang được chuyển bởi transaction khác
+CREATE OR REPLACE FUNCTION maintain_organization_closure()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtextextended('organizations', 0));
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO organization_closure (ancestor_id, descendant_id, depth)
+        VALUES (NEW.id, NEW.id, 0);
+        INSERT INTO organization_closure (ancestor_id, descendant_id, depth)
+        SELECT c.ancestor_id, NEW.id, c.depth + 1
+        FROM organization_closure c
+        WHERE c.descendant_id = NEW.parent_id;
+        RETURN NULL;
+    END IF;
+
+    -- Chuyển cả cây con: gỡ liên kết với tổ tiên cũ rồi nối với tổ tiên mới, mỗi bước một câu lệnh tập hợp
+    DELETE FROM organization_closure c
+    WHERE c.descendant_id IN (
+            SELECT s.descendant_id FROM organization_closure s WHERE s.ancestor_id = NEW.id)
+      AND c.ancestor_id IN (
+            SELECT a.ancestor_id FROM organization_closure a
+            WHERE a.descendant_id = NEW.id AND a.ancestor_id <> NEW.id);
+
+    IF NEW.parent_id IS NOT NULL THEN
+        INSERT INTO organization_closure (ancestor_id, descendant_id, depth)
+        SELECT p.ancestor_id, s.descendant_id, p.depth + s.depth + 1
+        FROM organization_closure p
+        CROSS JOIN organization_closure s
+        WHERE p.descendant_id = NEW.parent_id
+          AND s.ancestor_id = NEW.id;
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER maintain_organization_closure_insert
+    AFTER INSERT ON organizations
+    FOR EACH ROW
+    EXECUTE FUNCTION maintain_organization_closure();
+
+CREATE TRIGGER maintain_organization_closure_move
+    AFTER UPDATE OF parent_id ON organizations
+    FOR EACH ROW
+    WHEN (OLD.parent_id IS DISTINCT FROM NEW.parent_id)
+    EXECUTE FUNCTION maintain_organization_closure();
+
+-- Data scope đã mở rộng nằm trong cache quyền hiệu lực nên cũng phải làm cache mất hiệu lực
+CREATE TRIGGER bump_authz_version_app_user_data_scopes
+    AFTER INSERT OR UPDATE OR DELETE ON app_user_data_scopes
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_authorization_version('permissions');
+
+CREATE TRIGGER bump_authz_version_organization_closure
+    AFTER INSERT OR UPDATE OR DELETE ON organization_closure
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_authorization_version('permissions');
+
+-- Đơn vị sở hữu tài liệu, dùng để lọc theo data scope
+ALTER TABLE documents ADD COLUMN organization_id UUID;
+
+-- Tài liệu có sẵn lấy đơn vị của người tạo; created_by là app_users.id hoặc Keycloak subject tùy token lúc tạo.
+-- Sau migration cần reindex toàn bộ Elasticsearch để chỉ mục có organizationId.
+UPDATE documents d
+SET organization_id = u.organization_id
+FROM app_users u
+WHERE d.organization_id IS NULL
+  AND u.id = d.created_by
+  AND u.organization_id IS NOT NULL;
+
+UPDATE documents d
+SET organization_id = u.organization_id
+FROM app_users u
+WHERE d.organization_id IS NULL
+  AND u.keycloak_subject = d.created_by::text
+  AND u.organization_id IS NOT NULL;
+
+CREATE INDEX IX_documents_organization_id
+    ON documents(organization_id) WHERE deleted_on IS NULL;
+CREATE INDEX IX_documents_created_by
+    ON documents(created_by) WHERE deleted_on IS NULL;
+
+COMMENT ON TABLE organization_closure IS 'Quan hệ tổ tiên - hậu duệ của organizations, duy trì bằng trigger';
+COMMENT ON COLUMN documents.organization_id IS 'Đơn vị sở hữu tài liệu (đơn vị đang hoạt động của người tạo)';
@@ -0,0 +1,32 @@
+-- Version của cây organizations, để index cây trong bộ nhớ trên mọi node biết khi nào cần nạp lại.
+-- Dùng chung bảng authorization_versions và hàm bump_authorization_version() với phạm vi 'organizations'.
+INSERT INTO authorization_versions (scope) VALUES ('organizations');
+
+CREATE TRIGGER bump_hierarchy_version_organizations
+    AFTER INSERT OR UPDATE OR DELETE ON organizations
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION bump_authorization_version('organizations');
+
+-- Chốt chặn cuối cho kiểm tra vòng lặp: index trong bộ nhớ có thể trễ một chu kỳ poll so với node khác.
+-- Dưới READ COMMITTED, hai lượt chuyển chéo nhau (A vào B, B vào A) đều không thấy closure chưa commit của nhau;
+-- khóa advisory của cây bắt lượt sau chờ lượt trước commit, rồi câu kiểm tra mới đọc closure đã cập nhật.
+CREATE OR REPLACE FUNCTION prevent_organization_cycle()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtextextended('organizations', 0));
+    IF NEW.parent_id IS NOT NULL AND EXISTS (
+            SELECT 1 FROM organization_closure c
+            WHERE c.ancestor_id = NEW.id AND c.descendant_id = NEW.parent_id) THEN
+        RAISE EXCEPTION 'Quan hệ cha-con không hợp lệ: % là hậu duệ của %', NEW.parent_id, NEW.id;
+    END IF;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER prevent_organization_cycle
+    BEFORE UPDATE OF parent_id ON organizations
+    FOR EACH ROW
+    WHEN (NEW.parent_id IS NOT NULL AND OLD.parent_id IS DISTINCT FROM NEW.parent_id)
+    EXECUTE FUNCTION prevent_organization_cycle();
+
+COMMENT ON COLUMN authorization_versions.scope IS 'permissions: app_users, app_roles, app_permissions, app_role_permissions, app_user_roles; organizations: cây tổ chức';
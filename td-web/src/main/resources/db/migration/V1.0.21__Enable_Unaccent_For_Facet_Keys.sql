@@ -0,0 +1,3 @@
+-- Facet dạng text ở đường fallback PostgreSQL dùng unaccent(lower(...)) để khóa trùng với
+-- keyword folding_normalizer (bỏ dấu, chữ thường) bên Elasticsearch.
+CREATE EXTENSION IF NOT EXISTS unaccent;